@@ -0,0 +1,129 @@
+package one.digitalinnovation.beerstock.actuator;
+
+import jdk.jfr.Configuration;
+import jdk.jfr.Recording;
+import jdk.jfr.RecordingState;
+import one.digitalinnovation.beerstock.config.FlightRecorderProperties;
+import one.digitalinnovation.beerstock.jfr.BeerOperationEvent;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.actuate.endpoint.annotation.Endpoint;
+import org.springframework.boot.actuate.endpoint.annotation.ReadOperation;
+import org.springframework.boot.actuate.endpoint.annotation.Selector;
+import org.springframework.boot.actuate.endpoint.annotation.WriteOperation;
+import org.springframework.core.io.InputStreamResource;
+import org.springframework.core.io.Resource;
+import org.springframework.stereotype.Component;
+
+import javax.annotation.PreDestroy;
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.nio.file.StandardOpenOption;
+import java.text.ParseException;
+import java.time.Instant;
+import java.time.ZoneOffset;
+import java.time.format.DateTimeFormatter;
+import java.util.LinkedHashMap;
+import java.util.Map;
+
+/**
+ * Starts, stops and dumps a single Flight Recorder recording on demand: POST
+ * {@code /actuator/flightrecorder/start} and {@code /stop}, GET {@code /actuator/flightrecorder/dump}
+ * for the {@code .jfr} file. The recording uses the configured JDK settings with the beer operation
+ * events added, and keeps only the most recent data on disk. A dump is staged in the dump directory
+ * and streamed from there; the file is removed once the response has been written.
+ * <p>
+ * A recording carries the JVM's environment and system properties, and starting one costs the
+ * whole application some throughput, so the endpoint is not exposed over HTTP by default. An
+ * environment opts in by adding {@code flightrecorder} to
+ * {@code management.endpoints.web.exposure.include}, and should only do so where the actuator
+ * paths are not reachable by clients.
+ */
+@Component
+@Endpoint(id = "flightrecorder")
+public class FlightRecorderEndpoint {
+
+    private static final String RECORDING_NAME = "beerstock";
+    private static final DateTimeFormatter DUMP_TIMESTAMP = DateTimeFormatter.ofPattern("yyyyMMdd-HHmmss").withZone(ZoneOffset.UTC);
+
+    private final FlightRecorderProperties properties;
+    private Recording recording;
+
+    @Autowired
+    public FlightRecorderEndpoint(FlightRecorderProperties properties) {
+        this.properties = properties;
+    }
+
+    @ReadOperation
+    public synchronized Map<String, Object> status() {
+        Map<String, Object> status = new LinkedHashMap<>();
+        status.put("state", recording == null ? "NONE" : recording.getState().name());
+        if (recording != null) {
+            status.put("settings", properties.getSettings());
+            status.put("startTime", recording.getStartTime());
+            status.put("stopTime", recording.getStopTime());
+            status.put("maxAge", recording.getMaxAge());
+            status.put("maxSize", recording.getMaxSize());
+            status.put("size", recording.getSize());
+        }
+        return status;
+    }
+
+    @WriteOperation
+    public synchronized Map<String, Object> control(@Selector String action) throws IOException, ParseException {
+        switch (action) {
+            case "start":
+                start();
+                break;
+            case "stop":
+                if (recording != null && recording.getState() == RecordingState.RUNNING) {
+                    recording.stop();
+                }
+                break;
+            default:
+                throw new IllegalArgumentException("Unknown flight recorder action " + action);
+        }
+        return status();
+    }
+
+    @ReadOperation(produces = "application/octet-stream")
+    public synchronized Resource dump(@Selector String action) throws IOException {
+        if (!"dump".equals(action) || recording == null || recording.getState() == RecordingState.NEW) {
+            return null;
+        }
+        Path directory = Paths.get(properties.getDumpDirectory());
+        Files.createDirectories(directory);
+        Path file = Files.createTempFile(directory, RECORDING_NAME + "-" + DUMP_TIMESTAMP.format(Instant.now()) + "-", ".jfr");
+        try {
+            recording.dump(file);
+            return new InputStreamResource(Files.newInputStream(file, StandardOpenOption.DELETE_ON_CLOSE));
+        } catch (IOException | RuntimeException e) {
+            Files.deleteIfExists(file);
+            throw e;
+        }
+    }
+
+    @PreDestroy
+    public synchronized void close() {
+        if (recording != null) {
+            recording.close();
+            recording = null;
+        }
+    }
+
+    private void start() throws IOException, ParseException {
+        if (recording != null && recording.getState() == RecordingState.RUNNING) {
+            return;
+        }
+        close();
+        Recording started = new Recording(Configuration.getConfiguration(properties.getSettings()));
+        started.setName(RECORDING_NAME);
+        started.setToDisk(true);
+        started.setMaxAge(properties.getMaxAge());
+        started.setMaxSize(properties.getMaxSize().toBytes());
+        started.enable(BeerOperationEvent.class).withThreshold(properties.getOperationThreshold());
+        started.start();
+        recording = started;
+    }
+}
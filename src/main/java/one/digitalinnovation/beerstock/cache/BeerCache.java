@@ -0,0 +1,142 @@
+package one.digitalinnovation.beerstock.cache;
+
+import one.digitalinnovation.beerstock.config.BeerCacheProperties;
+import one.digitalinnovation.beerstock.dto.BeerDTO;
+import one.digitalinnovation.beerstock.entity.Beer;
+import one.digitalinnovation.beerstock.event.BeerChangedEvent;
+import one.digitalinnovation.beerstock.mapper.BeerMapper;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.context.event.EventListener;
+import org.springframework.stereotype.Component;
+
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.Optional;
+
+/**
+ * Node local cache of beers looked up by name. Every entry carries the entity version it was read
+ * at, and the highest version announced on the invalidation bus is remembered per beer, so a read
+ * that raced with a mutation on any node can never put older data back into the cache. Entries
+ * are kept in least recently used order and the eldest is evicted past the max entries, together
+ * with its remembered version; versions announced for beers that are not cached are bounded the
+ * same way.
+ */
+@Component
+public class BeerCache {
+
+    private final Map<String, Long> idsByName = new HashMap<>();
+    private final Map<Long, Entry> entries;
+    private final Map<Long, Long> latestVersions;
+    private final BeerMapper beerMapper = BeerMapper.INSTANCE;
+    private final BeerInvalidationBus invalidationBus;
+    private final boolean enabled;
+
+    @Autowired
+    public BeerCache(BeerInvalidationBus invalidationBus, BeerCacheProperties properties) {
+        this.invalidationBus = invalidationBus;
+        this.enabled = properties.isEnabled();
+        int maxEntries = Math.max(1, properties.getMaxEntries());
+        this.entries = new LinkedHashMap<>(16, 0.75f, true) {
+            @Override
+            protected boolean removeEldestEntry(Map.Entry<Long, Entry> eldest) {
+                if (size() <= maxEntries) {
+                    return false;
+                }
+                idsByName.remove(eldest.getValue().beerDTO.getName(), eldest.getKey());
+                latestVersions.remove(eldest.getKey());
+                return true;
+            }
+        };
+        this.latestVersions = new LinkedHashMap<>(16, 0.75f, true) {
+            @Override
+            protected boolean removeEldestEntry(Map.Entry<Long, Long> eldest) {
+                return size() > maxEntries;
+            }
+        };
+        invalidationBus.subscribe(this::invalidate);
+    }
+
+    public Optional<BeerDTO> get(String name) {
+        if (!enabled) {
+            return Optional.empty();
+        }
+        synchronized (this) {
+            Long id = idsByName.get(name);
+            Entry entry = id == null ? null : entries.get(id);
+            if (entry == null || !entry.beerDTO.getName().equals(name)) {
+                return Optional.empty();
+            }
+            return Optional.of(copyOf(entry.beerDTO));
+        }
+    }
+
+    public void put(Beer beer) {
+        if (enabled) {
+            put(beerMapper.toDTO(beer), beer.getVersion());
+        }
+    }
+
+    @EventListener
+    public void onBeerChanged(BeerChangedEvent event) {
+        if (!enabled) {
+            return;
+        }
+        invalidationBus.publish(new BeerInvalidation(event.getBeerId(), event.getVersion()));
+        if (event.getCurrent() != null) {
+            put(event.getCurrent(), event.getVersion());
+        }
+    }
+
+    public synchronized int size() {
+        return entries.size();
+    }
+
+    synchronized int trackedVersions() {
+        return latestVersions.size();
+    }
+
+    synchronized void invalidate(BeerInvalidation invalidation) {
+        Long id = invalidation.getBeerId();
+        latestVersions.merge(id, invalidation.getVersion(), Math::max);
+        Entry entry = entries.get(id);
+        if (entry != null && entry.version < invalidation.getVersion()) {
+            entries.remove(id);
+            idsByName.remove(entry.beerDTO.getName(), id);
+        }
+    }
+
+    private synchronized void put(BeerDTO beerDTO, long version) {
+        Long id = beerDTO.getId();
+        Entry entry = entries.get(id);
+        if (version < latestVersions.getOrDefault(id, Long.MIN_VALUE)
+                || (entry != null && entry.version > version)) {
+            return;
+        }
+        if (entry != null && !entry.beerDTO.getName().equals(beerDTO.getName())) {
+            idsByName.remove(entry.beerDTO.getName(), id);
+        }
+        idsByName.put(beerDTO.getName(), id);
+        entries.put(id, new Entry(copyOf(beerDTO), version));
+    }
+
+    private static BeerDTO copyOf(BeerDTO beerDTO) {
+        return new BeerDTO(beerDTO.getId(),
+                beerDTO.getName(),
+                beerDTO.getBrand(),
+                beerDTO.getMax(),
+                beerDTO.getQuantity(),
+                beerDTO.getType());
+    }
+
+    private static class Entry {
+
+        private final BeerDTO beerDTO;
+        private final long version;
+
+        Entry(BeerDTO beerDTO, long version) {
+            this.beerDTO = beerDTO;
+            this.version = version;
+        }
+    }
+}
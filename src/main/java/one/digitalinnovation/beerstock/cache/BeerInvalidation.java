@@ -0,0 +1,13 @@
+package one.digitalinnovation.beerstock.cache;
+
+import lombok.AllArgsConstructor;
+import lombok.Data;
+
+@Data
+@AllArgsConstructor
+public class BeerInvalidation {
+
+    private final Long beerId;
+
+    private final long version;
+}
@@ -0,0 +1,13 @@
+package one.digitalinnovation.beerstock.cache;
+
+import java.util.function.Consumer;
+
+/**
+ * Broadcasts beer invalidations to every node caching beer data, this one included.
+ */
+public interface BeerInvalidationBus {
+
+    void publish(BeerInvalidation invalidation);
+
+    void subscribe(Consumer<BeerInvalidation> listener);
+}
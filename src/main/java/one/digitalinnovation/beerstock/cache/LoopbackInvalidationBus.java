@@ -0,0 +1,20 @@
+package one.digitalinnovation.beerstock.cache;
+
+import java.util.List;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.function.Consumer;
+
+public class LoopbackInvalidationBus implements BeerInvalidationBus {
+
+    private final List<Consumer<BeerInvalidation>> listeners = new CopyOnWriteArrayList<>();
+
+    @Override
+    public void publish(BeerInvalidation invalidation) {
+        listeners.forEach(listener -> listener.accept(invalidation));
+    }
+
+    @Override
+    public void subscribe(Consumer<BeerInvalidation> listener) {
+        listeners.add(listener);
+    }
+}
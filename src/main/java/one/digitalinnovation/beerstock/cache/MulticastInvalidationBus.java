@@ -0,0 +1,98 @@
+package one.digitalinnovation.beerstock.cache;
+
+import lombok.extern.slf4j.Slf4j;
+
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.net.DatagramPacket;
+import java.net.DatagramSocket;
+import java.net.InetAddress;
+import java.net.MulticastSocket;
+import java.net.SocketException;
+import java.nio.ByteBuffer;
+import java.util.List;
+import java.util.UUID;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.function.Consumer;
+
+/**
+ * Sends invalidations as 24 byte UDP datagrams (node id, beer id, version) to a multicast group.
+ * Datagrams may be lost or reordered; receivers rely on the version to discard late messages.
+ */
+@Slf4j
+public class MulticastInvalidationBus implements BeerInvalidationBus, AutoCloseable {
+
+    private static final int MESSAGE_LENGTH = 3 * Long.BYTES;
+
+    private final long nodeId = UUID.randomUUID().getMostSignificantBits();
+    private final List<Consumer<BeerInvalidation>> listeners = new CopyOnWriteArrayList<>();
+    private final InetAddress group;
+    private final int port;
+    private final MulticastSocket receiveSocket;
+    private final DatagramSocket sendSocket;
+    private final Thread receiver;
+
+    public MulticastInvalidationBus(String group, int port) {
+        try {
+            this.group = InetAddress.getByName(group);
+            this.port = port;
+            this.receiveSocket = new MulticastSocket(port);
+            this.receiveSocket.joinGroup(this.group);
+            this.sendSocket = new DatagramSocket();
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+        this.receiver = new Thread(this::receive, "beer-invalidation-receiver");
+        this.receiver.setDaemon(true);
+        this.receiver.start();
+    }
+
+    @Override
+    public void publish(BeerInvalidation invalidation) {
+        listeners.forEach(listener -> listener.accept(invalidation));
+        ByteBuffer message = ByteBuffer.allocate(MESSAGE_LENGTH)
+                .putLong(nodeId)
+                .putLong(invalidation.getBeerId())
+                .putLong(invalidation.getVersion());
+        try {
+            sendSocket.send(new DatagramPacket(message.array(), MESSAGE_LENGTH, group, port));
+        } catch (IOException e) {
+            log.warn("Could not send invalidation {}", invalidation, e);
+        }
+    }
+
+    @Override
+    public void subscribe(Consumer<BeerInvalidation> listener) {
+        listeners.add(listener);
+    }
+
+    @Override
+    public void close() {
+        receiveSocket.close();
+        sendSocket.close();
+    }
+
+    private void receive() {
+        byte[] buffer = new byte[MESSAGE_LENGTH];
+        while (!receiveSocket.isClosed()) {
+            DatagramPacket packet = new DatagramPacket(buffer, MESSAGE_LENGTH);
+            try {
+                receiveSocket.receive(packet);
+            } catch (SocketException e) {
+                return;
+            } catch (IOException e) {
+                log.warn("Could not receive invalidation", e);
+                continue;
+            }
+            if (packet.getLength() != MESSAGE_LENGTH) {
+                continue;
+            }
+            ByteBuffer message = ByteBuffer.wrap(buffer);
+            if (message.getLong() == nodeId) {
+                continue;
+            }
+            BeerInvalidation invalidation = new BeerInvalidation(message.getLong(), message.getLong());
+            listeners.forEach(listener -> listener.accept(invalidation));
+        }
+    }
+}
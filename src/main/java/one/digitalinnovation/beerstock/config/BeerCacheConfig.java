@@ -0,0 +1,19 @@
+package one.digitalinnovation.beerstock.config;
+
+import one.digitalinnovation.beerstock.cache.BeerInvalidationBus;
+import one.digitalinnovation.beerstock.cache.LoopbackInvalidationBus;
+import one.digitalinnovation.beerstock.cache.MulticastInvalidationBus;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+
+@Configuration
+public class BeerCacheConfig {
+
+    @Bean
+    public BeerInvalidationBus beerInvalidationBus(BeerCacheProperties properties) {
+        if (properties.isEnabled() && properties.getBus() == BeerCacheProperties.Bus.MULTICAST) {
+            return new MulticastInvalidationBus(properties.getMulticastGroup(), properties.getMulticastPort());
+        }
+        return new LoopbackInvalidationBus();
+    }
+}
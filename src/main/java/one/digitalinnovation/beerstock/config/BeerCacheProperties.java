@@ -0,0 +1,26 @@
+package one.digitalinnovation.beerstock.config;
+
+import lombok.Data;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.stereotype.Component;
+
+@Data
+@Component
+@ConfigurationProperties(prefix = "beerstock.cache")
+public class BeerCacheProperties {
+
+    private boolean enabled = false;
+
+    private int maxEntries = 10_000;
+
+    private Bus bus = Bus.LOOPBACK;
+
+    private String multicastGroup = "239.255.42.99";
+
+    private int multicastPort = 4446;
+
+    public enum Bus {
+        LOOPBACK,
+        MULTICAST
+    }
+}
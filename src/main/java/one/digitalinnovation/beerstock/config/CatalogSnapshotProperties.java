@@ -0,0 +1,23 @@
+package one.digitalinnovation.beerstock.config;
+
+import lombok.Data;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.stereotype.Component;
+
+import java.time.Duration;
+
+@Data
+@Component
+@ConfigurationProperties(prefix = "beerstock.catalog-snapshot")
+public class CatalogSnapshotProperties {
+
+    private boolean enabled = false;
+
+    private Duration settleDelay = Duration.ofMillis(200);
+
+    private Duration maxAge = Duration.ofSeconds(30);
+
+    private boolean gzip = true;
+
+    private String mappedFile;
+}
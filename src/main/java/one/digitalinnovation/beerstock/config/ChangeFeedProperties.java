@@ -0,0 +1,19 @@
+package one.digitalinnovation.beerstock.config;
+
+import lombok.Data;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.stereotype.Component;
+
+import java.time.Duration;
+
+@Data
+@Component
+@ConfigurationProperties(prefix = "beerstock.change-feed")
+public class ChangeFeedProperties {
+
+    private int nodeId = 0;
+
+    private Duration safetyLag = Duration.ofSeconds(5);
+
+    private Duration tombstoneRetention = Duration.ofDays(7);
+}
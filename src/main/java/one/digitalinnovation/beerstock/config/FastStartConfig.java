@@ -0,0 +1,23 @@
+package one.digitalinnovation.beerstock.config;
+
+import one.digitalinnovation.beerstock.controller.BeerController;
+import one.digitalinnovation.beerstock.repository.BeerRepository;
+import one.digitalinnovation.beerstock.service.BeerService;
+import org.springframework.boot.LazyInitializationExcludeFilter;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.context.annotation.Profile;
+import org.springframework.web.servlet.DispatcherServlet;
+
+@Configuration
+@Profile("fast-start")
+public class FastStartConfig {
+
+    @Bean
+    static LazyInitializationExcludeFilter eagerRequestPath() {
+        return LazyInitializationExcludeFilter.forBeanTypes(DispatcherServlet.class,
+                BeerController.class,
+                BeerService.class,
+                BeerRepository.class);
+    }
+}
@@ -0,0 +1,24 @@
+package one.digitalinnovation.beerstock.config;
+
+import lombok.Data;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.stereotype.Component;
+import org.springframework.util.unit.DataSize;
+
+import java.time.Duration;
+
+@Data
+@Component
+@ConfigurationProperties(prefix = "beerstock.flight-recorder")
+public class FlightRecorderProperties {
+
+    private String settings = "profile";
+
+    private Duration maxAge = Duration.ofMinutes(15);
+
+    private DataSize maxSize = DataSize.ofMegabytes(100);
+
+    private Duration operationThreshold = Duration.ZERO;
+
+    private String dumpDirectory = System.getProperty("java.io.tmpdir");
+}
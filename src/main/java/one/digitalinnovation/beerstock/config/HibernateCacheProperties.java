@@ -0,0 +1,17 @@
+package one.digitalinnovation.beerstock.config;
+
+import lombok.Data;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.stereotype.Component;
+
+@Data
+@Component
+@ConfigurationProperties(prefix = "beerstock.hibernate-cache")
+public class HibernateCacheProperties {
+
+    private long beerRegionSize = 10_000;
+
+    private long beerByNameRegionSize = 10_000;
+
+    private long timestampsRegionSize = 1_000;
+}
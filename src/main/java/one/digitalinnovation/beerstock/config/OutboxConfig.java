@@ -0,0 +1,22 @@
+package one.digitalinnovation.beerstock.config;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import one.digitalinnovation.beerstock.outbox.FileOutboxSink;
+import one.digitalinnovation.beerstock.outbox.LogOutboxSink;
+import one.digitalinnovation.beerstock.outbox.OutboxSink;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+
+import java.nio.file.Paths;
+
+@Configuration
+public class OutboxConfig {
+
+    @Bean
+    public OutboxSink outboxSink(OutboxProperties properties, ObjectMapper objectMapper) {
+        if (properties.getSink() == OutboxProperties.Sink.FILE) {
+            return new FileOutboxSink(Paths.get(properties.getFile()), objectMapper);
+        }
+        return new LogOutboxSink();
+    }
+}
@@ -0,0 +1,30 @@
+package one.digitalinnovation.beerstock.config;
+
+import lombok.Data;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.stereotype.Component;
+
+import java.time.Duration;
+
+@Data
+@Component
+@ConfigurationProperties(prefix = "beerstock.outbox")
+public class OutboxProperties {
+
+    private boolean enabled = false;
+
+    private Duration pollInterval = Duration.ofSeconds(1);
+
+    private int batchSize = 500;
+
+    private Duration claimTimeout = Duration.ofSeconds(30);
+
+    private Sink sink = Sink.LOG;
+
+    private String file = System.getProperty("java.io.tmpdir") + "/beerstock-outbox.jsonl";
+
+    public enum Sink {
+        LOG,
+        FILE
+    }
+}
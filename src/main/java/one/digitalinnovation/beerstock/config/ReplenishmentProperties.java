@@ -0,0 +1,17 @@
+package one.digitalinnovation.beerstock.config;
+
+import lombok.Data;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.stereotype.Component;
+
+@Data
+@Component
+@ConfigurationProperties(prefix = "beerstock.replenishment")
+public class ReplenishmentProperties {
+
+    private double targetFillRatio = 0.8;
+
+    private int chunkSize = 5000;
+
+    private int parallelism = Runtime.getRuntime().availableProcessors();
+}
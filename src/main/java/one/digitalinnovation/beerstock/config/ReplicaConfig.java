@@ -0,0 +1,88 @@
+package one.digitalinnovation.beerstock.config;
+
+import com.zaxxer.hikari.HikariDataSource;
+import one.digitalinnovation.beerstock.replica.ReadYourWritesFilter;
+import one.digitalinnovation.beerstock.replica.ReplicaDataSources;
+import one.digitalinnovation.beerstock.replica.ReplicaRoutingDataSource;
+import one.digitalinnovation.beerstock.replica.ReplicationStatus;
+import one.digitalinnovation.beerstock.replica.StandInReplicator;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.boot.autoconfigure.jdbc.DataSourceProperties;
+import org.springframework.boot.autoconfigure.orm.jpa.HibernatePropertiesCustomizer;
+import org.springframework.boot.context.properties.bind.Bindable;
+import org.springframework.boot.context.properties.bind.Binder;
+import org.springframework.boot.jdbc.DataSourceBuilder;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.context.annotation.Lazy;
+import org.springframework.core.env.Environment;
+import org.springframework.jdbc.datasource.LazyConnectionDataSourceProxy;
+
+import javax.persistence.EntityManagerFactory;
+import javax.sql.DataSource;
+import java.time.Clock;
+
+@Configuration
+@ConditionalOnProperty(name = "beerstock.replica.enabled", havingValue = "true")
+public class ReplicaConfig {
+
+    public ReplicaConfig(ShardingProperties shardingProperties) {
+        if (shardingProperties.isEnabled()) {
+            throw new IllegalStateException("beerstock.replica.enabled cannot be combined with beerstock.sharding.enabled, "
+                    + "replicas are not routed per shard; disable one of them");
+        }
+    }
+
+    @Bean(destroyMethod = "close")
+    public ReplicaDataSources replicaDataSources(DataSourceProperties dataSourceProperties,
+                                                 ReplicaProperties properties,
+                                                 Environment environment) {
+        HikariDataSource primary = dataSourceProperties.initializeDataSourceBuilder().type(HikariDataSource.class).build();
+        Binder.get(environment).bind("spring.datasource.hikari", Bindable.ofInstance(primary));
+        HikariDataSource replica = DataSourceBuilder.create()
+                .type(HikariDataSource.class)
+                .url(properties.getUrl())
+                .username(properties.getUsername())
+                .password(properties.getPassword())
+                .build();
+        replica.setPoolName("replica");
+        replica.setMaximumPoolSize(properties.getMaximumPoolSize());
+        return new ReplicaDataSources(primary, replica);
+    }
+
+    @Bean
+    public ReplicationStatus replicationStatus() {
+        return new ReplicationStatus(Clock.systemUTC());
+    }
+
+    @Bean
+    public DataSource dataSource(ReplicaDataSources replicaDataSources,
+                                 ReplicationStatus replicationStatus,
+                                 ReplicaProperties properties) {
+        return new LazyConnectionDataSourceProxy(new ReplicaRoutingDataSource(replicaDataSources.getPrimary(),
+                replicaDataSources.getReplica(), replicationStatus, properties.getMaxStaleness()));
+    }
+
+    @Bean
+    public HibernatePropertiesCustomizer replicaCacheCustomizer() {
+        return hibernateProperties -> {
+            hibernateProperties.put("hibernate.cache.use_second_level_cache", false);
+            hibernateProperties.put("hibernate.cache.use_query_cache", false);
+        };
+    }
+
+    @Bean
+    @ConditionalOnProperty(name = "beerstock.replica.read-your-writes", havingValue = "true", matchIfMissing = true)
+    public ReadYourWritesFilter readYourWritesFilter(ReplicationStatus replicationStatus, ReplicaProperties properties) {
+        return new ReadYourWritesFilter(replicationStatus, properties.getClientHeader());
+    }
+
+    @Bean
+    @Lazy(false)
+    @ConditionalOnProperty(name = "beerstock.replica.stand-in-replicator", havingValue = "true", matchIfMissing = true)
+    public StandInReplicator standInReplicator(ReplicaDataSources replicaDataSources,
+                                               ReplicationStatus replicationStatus,
+                                               EntityManagerFactory entityManagerFactory) {
+        return new StandInReplicator(replicaDataSources.getPrimary(), replicaDataSources.getReplica(), replicationStatus);
+    }
+}
@@ -0,0 +1,31 @@
+package one.digitalinnovation.beerstock.config;
+
+import lombok.Data;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.stereotype.Component;
+
+import java.time.Duration;
+
+@Data
+@Component
+@ConfigurationProperties(prefix = "beerstock.replica")
+public class ReplicaProperties {
+
+    private boolean enabled = false;
+
+    private String url;
+
+    private String username = "sa";
+
+    private String password = "";
+
+    private int maximumPoolSize = 10;
+
+    private Duration maxStaleness = Duration.ofSeconds(2);
+
+    private boolean readYourWrites = true;
+
+    private String clientHeader = "X-Client-Id";
+
+    private boolean standInReplicator = true;
+}
@@ -0,0 +1,68 @@
+package one.digitalinnovation.beerstock.config;
+
+import com.zaxxer.hikari.HikariDataSource;
+import one.digitalinnovation.beerstock.sharding.ShardRouter;
+import one.digitalinnovation.beerstock.sharding.ShardRoutingDataSource;
+import one.digitalinnovation.beerstock.sharding.ShardSchemaReplicator;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.boot.autoconfigure.orm.jpa.HibernatePropertiesCustomizer;
+import org.springframework.boot.jdbc.DataSourceBuilder;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.context.annotation.Lazy;
+import org.springframework.transaction.support.TransactionOperations;
+
+import javax.persistence.EntityManagerFactory;
+import javax.sql.DataSource;
+import java.util.ArrayList;
+import java.util.List;
+
+@Configuration
+public class ShardingConfig {
+
+    @Bean
+    public ShardRouter shardRouter(ShardingProperties properties, TransactionOperations transactionOperations) {
+        return new ShardRouter(shardCount(properties), transactionOperations);
+    }
+
+    @Bean
+    public HibernatePropertiesCustomizer shardCountCustomizer(ShardingProperties properties) {
+        return hibernateProperties -> hibernateProperties.put(ShardRouter.SHARD_COUNT_SETTING, shardCount(properties));
+    }
+
+    private static int shardCount(ShardingProperties properties) {
+        return properties.isEnabled() ? properties.getShards().size() : 1;
+    }
+
+    @Configuration
+    @ConditionalOnProperty(name = "beerstock.sharding.enabled", havingValue = "true")
+    static class ShardedDataSourceConfig {
+
+        @Bean
+        public ShardRoutingDataSource dataSource(ShardingProperties properties) {
+            if (properties.getShards().isEmpty()) {
+                throw new IllegalStateException("beerstock.sharding.shards must list at least one shard");
+            }
+            List<DataSource> shards = new ArrayList<>();
+            for (ShardingProperties.Shard shard : properties.getShards()) {
+                HikariDataSource dataSource = DataSourceBuilder.create()
+                        .type(HikariDataSource.class)
+                        .url(shard.getUrl())
+                        .username(shard.getUsername())
+                        .password(shard.getPassword())
+                        .build();
+                dataSource.setPoolName("shard-" + shards.size());
+                dataSource.setMaximumPoolSize(shard.getMaximumPoolSize());
+                shards.add(dataSource);
+            }
+            return new ShardRoutingDataSource(shards);
+        }
+
+        @Bean
+        @Lazy(false)
+        public ShardSchemaReplicator shardSchemaReplicator(ShardRoutingDataSource dataSource,
+                                                           EntityManagerFactory entityManagerFactory) {
+            return new ShardSchemaReplicator(dataSource.getShards());
+        }
+    }
+}
@@ -0,0 +1,25 @@
+package one.digitalinnovation.beerstock.config;
+
+import lombok.Data;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.stereotype.Component;
+
+import java.time.Duration;
+
+@Data
+@Component
+@ConfigurationProperties(prefix = "beerstock.stale-reads")
+public class StaleReadsProperties {
+
+    private boolean enabled = false;
+
+    private Duration latencyBudget = Duration.ofMillis(250);
+
+    private int failureThreshold = 5;
+
+    private Duration openDuration = Duration.ofSeconds(10);
+
+    private int maxConcurrentReads = 16;
+
+    private int queueCapacity = 64;
+}
@@ -0,0 +1,15 @@
+package one.digitalinnovation.beerstock.config;
+
+import lombok.Data;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.stereotype.Component;
+
+@Data
+@Component
+@ConfigurationProperties(prefix = "beerstock.stock-lanes")
+public class StockLanesProperties {
+
+    private boolean enabled = false;
+
+    private int lanes = Runtime.getRuntime().availableProcessors();
+}
@@ -0,0 +1,41 @@
+package one.digitalinnovation.beerstock.config;
+
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.boot.SpringApplication;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.boot.web.context.WebServerApplicationContext;
+import org.springframework.context.ApplicationListener;
+import org.springframework.stereotype.Component;
+
+import java.io.IOException;
+import java.net.URI;
+import java.net.http.HttpClient;
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse;
+
+/**
+ * Used by the appcds Maven profile: once the application is ready it serves one list request, so
+ * the request path classes get loaded too, and then shuts down so the loaded class list can be dumped.
+ */
+@Slf4j
+@Component
+@ConditionalOnProperty(name = "beerstock.training-run", havingValue = "true")
+public class TrainingRunListener implements ApplicationListener<ApplicationReadyEvent> {
+
+    @Override
+    public void onApplicationEvent(ApplicationReadyEvent event) {
+        WebServerApplicationContext context = (WebServerApplicationContext) event.getApplicationContext();
+        URI uri = URI.create("http://localhost:" + context.getWebServer().getPort() + "/api/v1/beers");
+        try {
+            HttpResponse<Void> response = HttpClient.newHttpClient()
+                    .send(HttpRequest.newBuilder(uri).GET().build(), HttpResponse.BodyHandlers.discarding());
+            log.info("Training run request to {} returned {}", uri, response.statusCode());
+        } catch (IOException e) {
+            log.warn("Training run request to {} failed", uri, e);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+        System.exit(SpringApplication.exit(event.getApplicationContext()));
+    }
+}
@@ -1,48 +1,99 @@
 package one.digitalinnovation.beerstock.controller;
 
 import lombok.AllArgsConstructor;
+import one.digitalinnovation.beerstock.dto.BeerChangesDTO;
 import one.digitalinnovation.beerstock.dto.BeerDTO;
+import one.digitalinnovation.beerstock.dto.BeerLookupDTO;
+import one.digitalinnovation.beerstock.dto.BeerLookupResultDTO;
+import one.digitalinnovation.beerstock.dto.BeerStockDTO;
+import one.digitalinnovation.beerstock.dto.BeerSuggestionDTO;
+import one.digitalinnovation.beerstock.dto.InventoryStatsDTO;
 import one.digitalinnovation.beerstock.dto.QuantityDTO;
+import one.digitalinnovation.beerstock.dto.ReplenishmentPlanDTO;
 import one.digitalinnovation.beerstock.exception.BeerAlreadyRegisteredException;
 import one.digitalinnovation.beerstock.exception.BeerNotFoundException;
 import one.digitalinnovation.beerstock.exception.BeerStockExceededException;
+import one.digitalinnovation.beerstock.exception.ChangeFeedExpiredException;
+import one.digitalinnovation.beerstock.exception.InvalidLocationException;
+import one.digitalinnovation.beerstock.exception.TooManyBeerIdsException;
 import one.digitalinnovation.beerstock.service.BeerService;
+import one.digitalinnovation.beerstock.snapshot.CatalogSnapshot;
+import one.digitalinnovation.beerstock.snapshot.CatalogSnapshotBuilder;
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.http.HttpHeaders;
 import org.springframework.http.HttpStatus;
+import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.DeleteMapping;
 import org.springframework.web.bind.annotation.GetMapping;
 import org.springframework.web.bind.annotation.PatchMapping;
 import org.springframework.web.bind.annotation.PathVariable;
 import org.springframework.web.bind.annotation.PostMapping;
 import org.springframework.web.bind.annotation.RequestBody;
+import org.springframework.web.bind.annotation.RequestHeader;
 import org.springframework.web.bind.annotation.RequestMapping;
+import org.springframework.web.bind.annotation.RequestParam;
 import org.springframework.web.bind.annotation.ResponseStatus;
 import org.springframework.web.bind.annotation.RestController;
 
 import javax.validation.Valid;
 import java.util.List;
+import java.util.Optional;
 
 @RestController
 @RequestMapping("/api/v1/beers")
 @AllArgsConstructor(onConstructor = @__(@Autowired))
 public class BeerController implements BeerControllerDocs {
 
+    private static final int MAX_IDS_PER_DELETE = 1000;
+
     private final BeerService beerService;
 
+    private final CatalogSnapshotBuilder catalogSnapshotBuilder;
+
     @PostMapping
     @ResponseStatus(HttpStatus.CREATED)
     public BeerDTO createBeer(@RequestBody @Valid BeerDTO beerDTO) throws BeerAlreadyRegisteredException {
         return beerService.createBeer(beerDTO);
     }
 
+    @GetMapping("/suggest")
+    public List<BeerSuggestionDTO> suggest(@RequestParam String q, @RequestParam(defaultValue = "10") int limit) {
+        return beerService.suggest(q, limit);
+    }
+
+    @GetMapping("/stats")
+    public InventoryStatsDTO stats() {
+        return beerService.stats();
+    }
+
+    @GetMapping("/replenishment-plan")
+    public ReplenishmentPlanDTO replenishmentPlan() {
+        return beerService.replenishmentPlan();
+    }
+
+    @GetMapping("/changes")
+    public BeerChangesDTO changesSince(@RequestParam(defaultValue = "0") long since,
+                                       @RequestParam(defaultValue = "1000") int limit) throws ChangeFeedExpiredException {
+        return beerService.changesSince(since, limit);
+    }
+
     @GetMapping("/{name}")
     public BeerDTO findByName(@PathVariable String name) throws BeerNotFoundException {
         return beerService.findByName(name);
     }
 
+    @PostMapping("/lookup")
+    public BeerLookupResultDTO lookupByNames(@RequestBody @Valid BeerLookupDTO beerLookupDTO) {
+        return beerService.lookupByNames(beerLookupDTO.getNames());
+    }
+
     @GetMapping
-    public List<BeerDTO> listBeers() {
-        return beerService.listAll();
+    public ResponseEntity<?> listBeers(@RequestHeader(value = HttpHeaders.ACCEPT_ENCODING, required = false) String acceptEncoding) {
+        Optional<CatalogSnapshot> snapshot = catalogSnapshotBuilder.current();
+        if (snapshot.isPresent()) {
+            return snapshot.get().toResponse(acceptEncoding);
+        }
+        return ResponseEntity.ok(beerService.listAll());
     }
 
     @DeleteMapping("/{id}")
@@ -51,6 +102,15 @@ public class BeerController implements BeerControllerDocs {
         beerService.deleteById(id);
     }
 
+    @DeleteMapping
+    @ResponseStatus(HttpStatus.NO_CONTENT)
+    public void deleteAllById(@RequestParam List<Long> ids) throws TooManyBeerIdsException {
+        if (ids.size() > MAX_IDS_PER_DELETE) {
+            throw new TooManyBeerIdsException(ids.size(), MAX_IDS_PER_DELETE);
+        }
+        beerService.deleteAllById(ids);
+    }
+
     @PatchMapping("/{id}/increment")
     public BeerDTO increment(@PathVariable Long id, @RequestBody @Valid QuantityDTO quantityDTO) throws BeerNotFoundException, BeerStockExceededException {
         return beerService.increment(id, quantityDTO.getQuantity());
@@ -60,4 +120,21 @@ public class BeerController implements BeerControllerDocs {
     public BeerDTO decrement(@PathVariable Long id, @RequestBody @Valid QuantityDTO quantityDTO) throws BeerNotFoundException, BeerStockExceededException {
         return beerService.decrement(id, quantityDTO.getQuantity());
     }
+
+    @GetMapping("/{id}/locations")
+    public List<BeerStockDTO> listLocations(@PathVariable Long id) throws BeerNotFoundException {
+        return beerService.listLocations(id);
+    }
+
+    @PatchMapping("/{id}/locations/{location}/increment")
+    public BeerStockDTO incrementAt(@PathVariable Long id, @PathVariable String location, @RequestBody @Valid QuantityDTO quantityDTO)
+            throws BeerNotFoundException, BeerStockExceededException, InvalidLocationException {
+        return beerService.incrementAt(id, location, quantityDTO.getQuantity());
+    }
+
+    @PatchMapping("/{id}/locations/{location}/decrement")
+    public BeerStockDTO decrementAt(@PathVariable Long id, @PathVariable String location, @RequestBody @Valid QuantityDTO quantityDTO)
+            throws BeerNotFoundException, BeerStockExceededException, InvalidLocationException {
+        return beerService.decrementAt(id, location, quantityDTO.getQuantity());
+    }
 }
@@ -4,13 +4,25 @@ import io.swagger.annotations.Api;
 import io.swagger.annotations.ApiOperation;
 import io.swagger.annotations.ApiResponse;
 import io.swagger.annotations.ApiResponses;
+import one.digitalinnovation.beerstock.dto.BeerChangesDTO;
 import one.digitalinnovation.beerstock.dto.BeerDTO;
+import one.digitalinnovation.beerstock.dto.BeerLookupDTO;
+import one.digitalinnovation.beerstock.dto.BeerLookupResultDTO;
+import one.digitalinnovation.beerstock.dto.BeerStockDTO;
+import one.digitalinnovation.beerstock.dto.BeerSuggestionDTO;
+import one.digitalinnovation.beerstock.dto.InventoryStatsDTO;
 import one.digitalinnovation.beerstock.dto.QuantityDTO;
+import one.digitalinnovation.beerstock.dto.ReplenishmentPlanDTO;
 import one.digitalinnovation.beerstock.exception.BeerAlreadyRegisteredException;
 import one.digitalinnovation.beerstock.exception.BeerNotFoundException;
 import one.digitalinnovation.beerstock.exception.BeerStockExceededException;
+import one.digitalinnovation.beerstock.exception.ChangeFeedExpiredException;
+import one.digitalinnovation.beerstock.exception.InvalidLocationException;
+import one.digitalinnovation.beerstock.exception.TooManyBeerIdsException;
+import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.PathVariable;
 import org.springframework.web.bind.annotation.RequestBody;
+import org.springframework.web.bind.annotation.RequestParam;
 
 import javax.validation.Valid;
 import java.util.List;
@@ -25,18 +37,52 @@ public interface BeerControllerDocs {
     })
     BeerDTO createBeer(BeerDTO beerDTO) throws BeerAlreadyRegisteredException;
 
+    @ApiOperation(value = "Returns beers whose name or brand starts with the given prefix, ignoring case and accents")
+    @ApiResponses(value = {
+            @ApiResponse(code = 200, message = "Beers matching the given prefix")
+    })
+    List<BeerSuggestionDTO> suggest(@RequestParam String q, @RequestParam int limit);
+
+    @ApiOperation(value = "Returns units, capacity and fill ratio in total, per beer type and per brand")
+    @ApiResponses(value = {
+            @ApiResponse(code = 200, message = "Current inventory statistics")
+    })
+    InventoryStatsDTO stats();
+
+    @ApiOperation(value = "Returns the units to reorder per brand to bring every beer back to the configured target fraction "
+            + "of its max, from the last nightly plan")
+    @ApiResponses(value = {
+            @ApiResponse(code = 200, message = "Supplier orders per brand")
+    })
+    ReplenishmentPlanDTO replenishmentPlan();
+
+    @ApiOperation(value = "Returns beers changed and deleted after the given change sequence, oldest first, with the new high-water mark")
+    @ApiResponses(value = {
+            @ApiResponse(code = 200, message = "Beers changed and deleted since the given change sequence"),
+            @ApiResponse(code = 410, message = "Changes since the given change sequence are no longer retained.")
+    })
+    BeerChangesDTO changesSince(@RequestParam long since, @RequestParam int limit) throws ChangeFeedExpiredException;
+
     @ApiOperation(value = "Returns beer found by a given name")
     @ApiResponses(value = {
             @ApiResponse(code = 200, message = "Success beer found in the system"),
-            @ApiResponse(code = 404, message = "Beer with given name not found.")
+            @ApiResponse(code = 404, message = "Beer with given name not found."),
+            @ApiResponse(code = 503, message = "Database unavailable and beer not in the last-known-good catalog.")
     })
     BeerDTO findByName(@PathVariable String name) throws BeerNotFoundException;
 
+    @ApiOperation(value = "Returns the beers found by the given names and the names that were not found")
+    @ApiResponses(value = {
+            @ApiResponse(code = 200, message = "Beers found and names not found in the system"),
+            @ApiResponse(code = 400, message = "Missing names or too many names informed.")
+    })
+    BeerLookupResultDTO lookupByNames(BeerLookupDTO beerLookupDTO);
+
     @ApiOperation(value = "Returns a list of all beers registered in the system")
     @ApiResponses(value = {
             @ApiResponse(code = 200, message = "List of all beers registered in the system"),
     })
-    List<BeerDTO> listBeers();
+    ResponseEntity<?> listBeers(String acceptEncoding);
 
     @ApiOperation(value = "Delete a beer found by a given valid Id")
     @ApiResponses(value = {
@@ -44,4 +90,36 @@ public interface BeerControllerDocs {
             @ApiResponse(code = 404, message = "Beer with given id not found.")
     })
     void deleteById(@PathVariable Long id) throws BeerNotFoundException;
+
+    @ApiOperation(value = "Delete all beers found by the given ids, at most 1000, in a single operation")
+    @ApiResponses(value = {
+            @ApiResponse(code = 204, message = "Success beers deleted in the system"),
+            @ApiResponse(code = 400, message = "Too many ids informed.")
+    })
+    void deleteAllById(@RequestParam List<Long> ids) throws TooManyBeerIdsException;
+
+    @ApiOperation(value = "Returns the stock of a beer at each of its locations, with the beer's total quantity")
+    @ApiResponses(value = {
+            @ApiResponse(code = 200, message = "Stock per location of the beer"),
+            @ApiResponse(code = 404, message = "Beer with the given id not found")
+    })
+    List<BeerStockDTO> listLocations(@PathVariable Long id) throws BeerNotFoundException;
+
+    @ApiOperation(value = "Adds units of a beer at a location and to its total quantity")
+    @ApiResponses(value = {
+            @ApiResponse(code = 200, message = "Stock at the location and the beer's new total quantity"),
+            @ApiResponse(code = 400, message = "Invalid location, or the total would exceed the beer's max stock"),
+            @ApiResponse(code = 404, message = "Beer with the given id not found")
+    })
+    BeerStockDTO incrementAt(@PathVariable Long id, @PathVariable String location, QuantityDTO quantityDTO)
+            throws BeerNotFoundException, BeerStockExceededException, InvalidLocationException;
+
+    @ApiOperation(value = "Removes units of a beer at a location and from its total quantity")
+    @ApiResponses(value = {
+            @ApiResponse(code = 200, message = "Stock at the location and the beer's new total quantity"),
+            @ApiResponse(code = 400, message = "Invalid location, or the location holds fewer units than requested"),
+            @ApiResponse(code = 404, message = "Beer with the given id not found")
+    })
+    BeerStockDTO decrementAt(@PathVariable Long id, @PathVariable String location, QuantityDTO quantityDTO)
+            throws BeerNotFoundException, BeerStockExceededException, InvalidLocationException;
 }
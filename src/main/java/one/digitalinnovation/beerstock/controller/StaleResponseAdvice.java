@@ -0,0 +1,46 @@
+package one.digitalinnovation.beerstock.controller;
+
+import one.digitalinnovation.beerstock.resilience.StaleReadGuard;
+import org.springframework.core.MethodParameter;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.MediaType;
+import org.springframework.http.converter.HttpMessageConverter;
+import org.springframework.http.server.ServerHttpRequest;
+import org.springframework.http.server.ServerHttpResponse;
+import org.springframework.web.bind.annotation.ControllerAdvice;
+import org.springframework.web.context.request.RequestAttributes;
+import org.springframework.web.context.request.RequestContextHolder;
+import org.springframework.web.servlet.mvc.method.annotation.ResponseBodyAdvice;
+
+import java.time.Duration;
+import java.time.Instant;
+
+/**
+ * Marks responses that were answered from the last-known-good catalog with a {@code Warning} and
+ * an {@code Age} header, so clients can tell them apart from live reads.
+ */
+@ControllerAdvice
+public class StaleResponseAdvice implements ResponseBodyAdvice<Object> {
+
+    static final String STALE_WARNING = "110 - \"Response is Stale\"";
+
+    @Override
+    public boolean supports(MethodParameter returnType, Class<? extends HttpMessageConverter<?>> converterType) {
+        return true;
+    }
+
+    @Override
+    public Object beforeBodyWrite(Object body, MethodParameter returnType, MediaType selectedContentType,
+                                  Class<? extends HttpMessageConverter<?>> selectedConverterType,
+                                  ServerHttpRequest request, ServerHttpResponse response) {
+        RequestAttributes requestAttributes = RequestContextHolder.getRequestAttributes();
+        Object staleAsOf = requestAttributes == null ? null
+                : requestAttributes.getAttribute(StaleReadGuard.STALE_AS_OF_ATTRIBUTE, RequestAttributes.SCOPE_REQUEST);
+        if (staleAsOf instanceof Instant) {
+            long age = Math.max(0, Duration.between((Instant) staleAsOf, Instant.now()).getSeconds());
+            response.getHeaders().set(HttpHeaders.WARNING, STALE_WARNING);
+            response.getHeaders().set(HttpHeaders.AGE, Long.toString(age));
+        }
+        return body;
+    }
+}
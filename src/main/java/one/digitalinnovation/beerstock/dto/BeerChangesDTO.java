@@ -0,0 +1,23 @@
+package one.digitalinnovation.beerstock.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.util.List;
+
+@Data
+@Builder
+@NoArgsConstructor
+@AllArgsConstructor
+public class BeerChangesDTO {
+
+    private List<BeerDTO> changed;
+
+    private List<Long> deleted;
+
+    private long highWaterMark;
+
+    private boolean hasMore;
+}
@@ -0,0 +1,22 @@
+package one.digitalinnovation.beerstock.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.time.Instant;
+import java.util.List;
+
+@Data
+@Builder
+@NoArgsConstructor
+@AllArgsConstructor
+public class ReplenishmentPlanDTO {
+    private Instant generatedAt;
+    private double targetFillRatio;
+    private long beersScanned;
+    private long beersToReorder;
+    private long unitsToOrder;
+    private List<SupplierOrderDTO> orders;
+}
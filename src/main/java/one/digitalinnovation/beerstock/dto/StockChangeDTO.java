@@ -0,0 +1,23 @@
+package one.digitalinnovation.beerstock.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+import one.digitalinnovation.beerstock.event.BeerChangedEvent;
+
+import java.time.Instant;
+
+@Data
+@Builder
+@NoArgsConstructor
+@AllArgsConstructor
+public class StockChangeDTO {
+    private Long beerId;
+    private String name;
+    private BeerChangedEvent.Kind kind;
+    private Integer previousQuantity;
+    private Integer quantity;
+    private long version;
+    private Instant occurredAt;
+}
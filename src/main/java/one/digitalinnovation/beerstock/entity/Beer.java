@@ -3,24 +3,38 @@ package one.digitalinnovation.beerstock.entity;
 import lombok.AllArgsConstructor;
 import lombok.Data;
 import lombok.NoArgsConstructor;
+import one.digitalinnovation.beerstock.config.HibernateCacheConfig;
 import one.digitalinnovation.beerstock.enums.BeerType;
+import org.hibernate.annotations.Cache;
+import org.hibernate.annotations.CacheConcurrencyStrategy;
+import org.hibernate.annotations.GenericGenerator;
+import org.hibernate.annotations.Parameter;
+import org.hibernate.id.enhanced.SequenceStyleGenerator;
 
+import javax.persistence.Cacheable;
 import javax.persistence.Column;
 import javax.persistence.Entity;
 import javax.persistence.EnumType;
 import javax.persistence.Enumerated;
 import javax.persistence.GeneratedValue;
-import javax.persistence.GenerationType;
 import javax.persistence.Id;
+import javax.persistence.Index;
+import javax.persistence.Table;
+import javax.persistence.Version;
 
 @Data
 @Entity
+@Cacheable
+@Cache(usage = CacheConcurrencyStrategy.READ_WRITE, region = HibernateCacheConfig.BEER_REGION)
+@Table(indexes = @Index(name = "idx_beer_change_seq", columnList = "changeSeq"))
 @NoArgsConstructor
 @AllArgsConstructor
 public class Beer {
 
     @Id
-    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    @GeneratedValue(generator = "beer-id")
+    @GenericGenerator(name = "beer-id", strategy = "one.digitalinnovation.beerstock.sharding.ShardAwareIdGenerator",
+            parameters = @Parameter(name = SequenceStyleGenerator.SEQUENCE_PARAM, value = "beer_id_seq"))
     private Long id;
 
     @Column(nullable = false, unique = true)
@@ -39,5 +53,9 @@ public class Beer {
     @Column(nullable = false)
     private BeerType type;
 
+    @Column(nullable = false)
+    private long changeSeq;
 
+    @Version
+    private long version;
 }
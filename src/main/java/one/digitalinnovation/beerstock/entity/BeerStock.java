@@ -0,0 +1,41 @@
+package one.digitalinnovation.beerstock.entity;
+
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import javax.persistence.Column;
+import javax.persistence.Entity;
+import javax.persistence.Id;
+import javax.persistence.IdClass;
+import javax.persistence.Version;
+
+/**
+ * Units of a beer held at one location. The beer's own quantity is the running total over its
+ * locations plus any stock never assigned to one, and is adjusted in the same transaction. That
+ * transaction holds a write lock on the beer row until it commits, so writes to different
+ * locations of the same beer are applied one at a time; only writes to different beers proceed
+ * in parallel.
+ */
+@Data
+@Entity
+@IdClass(BeerStockId.class)
+@NoArgsConstructor
+@AllArgsConstructor
+public class BeerStock {
+
+    public static final int MAX_LOCATION_LENGTH = 100;
+
+    @Id
+    private Long beerId;
+
+    @Id
+    @Column(length = MAX_LOCATION_LENGTH)
+    private String location;
+
+    @Column(nullable = false)
+    private int quantity;
+
+    @Version
+    private Long version;
+}
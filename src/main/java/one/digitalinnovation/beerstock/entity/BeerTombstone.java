@@ -0,0 +1,25 @@
+package one.digitalinnovation.beerstock.entity;
+
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import javax.persistence.Column;
+import javax.persistence.Entity;
+import javax.persistence.Id;
+import javax.persistence.Index;
+import javax.persistence.Table;
+
+@Data
+@Entity
+@NoArgsConstructor
+@AllArgsConstructor
+@Table(indexes = @Index(name = "idx_beer_tombstone_change_seq", columnList = "changeSeq"))
+public class BeerTombstone {
+
+    @Id
+    private Long beerId;
+
+    @Column(nullable = false)
+    private long changeSeq;
+}
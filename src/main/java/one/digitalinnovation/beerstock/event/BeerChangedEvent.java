@@ -0,0 +1,42 @@
+package one.digitalinnovation.beerstock.event;
+
+import lombok.AllArgsConstructor;
+import lombok.Getter;
+import lombok.ToString;
+import one.digitalinnovation.beerstock.dto.BeerDTO;
+
+@Getter
+@ToString
+@AllArgsConstructor
+public class BeerChangedEvent {
+
+    public static final long DELETED_VERSION = Long.MAX_VALUE;
+
+    private final Kind kind;
+
+    private final Long beerId;
+
+    private final BeerDTO previous;
+
+    private final BeerDTO current;
+
+    private final long version;
+
+    public static BeerChangedEvent created(BeerDTO current, long version) {
+        return new BeerChangedEvent(Kind.CREATED, current.getId(), null, current, version);
+    }
+
+    public static BeerChangedEvent updated(BeerDTO previous, BeerDTO current, long version) {
+        return new BeerChangedEvent(Kind.UPDATED, current.getId(), previous, current, version);
+    }
+
+    public static BeerChangedEvent deleted(Long beerId) {
+        return new BeerChangedEvent(Kind.DELETED, beerId, null, null, DELETED_VERSION);
+    }
+
+    public enum Kind {
+        CREATED,
+        UPDATED,
+        DELETED
+    }
+}
@@ -0,0 +1,12 @@
+package one.digitalinnovation.beerstock.exception;
+
+import org.springframework.http.HttpStatus;
+import org.springframework.web.bind.annotation.ResponseStatus;
+
+@ResponseStatus(HttpStatus.SERVICE_UNAVAILABLE)
+public class CatalogUnavailableException extends RuntimeException {
+
+    public CatalogUnavailableException(String beerName) {
+        super(String.format("Beer with name %s is not in the last-known-good catalog and the database is unavailable.", beerName));
+    }
+}
@@ -0,0 +1,12 @@
+package one.digitalinnovation.beerstock.exception;
+
+import org.springframework.http.HttpStatus;
+import org.springframework.web.bind.annotation.ResponseStatus;
+
+@ResponseStatus(HttpStatus.GONE)
+public class ChangeFeedExpiredException extends Exception {
+
+    public ChangeFeedExpiredException(long since) {
+        super(String.format("Changes since %s are no longer retained, start over with a full sync from 0.", since));
+    }
+}
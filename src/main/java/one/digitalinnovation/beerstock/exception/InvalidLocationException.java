@@ -0,0 +1,12 @@
+package one.digitalinnovation.beerstock.exception;
+
+import org.springframework.http.HttpStatus;
+import org.springframework.web.bind.annotation.ResponseStatus;
+
+@ResponseStatus(HttpStatus.BAD_REQUEST)
+public class InvalidLocationException extends Exception {
+
+    public InvalidLocationException(String location, int maxLength) {
+        super(String.format("Location '%s' must not be blank or longer than %s characters", location, maxLength));
+    }
+}
@@ -0,0 +1,12 @@
+package one.digitalinnovation.beerstock.exception;
+
+import org.springframework.http.HttpStatus;
+import org.springframework.web.bind.annotation.ResponseStatus;
+
+@ResponseStatus(HttpStatus.BAD_REQUEST)
+public class TooManyBeerIdsException extends Exception {
+
+    public TooManyBeerIdsException(int count, int maxCount) {
+        super(String.format("%s beer ids informed, at most %s are accepted at once", count, maxCount));
+    }
+}
@@ -0,0 +1,91 @@
+package one.digitalinnovation.beerstock.jfr;
+
+import jdk.jfr.Category;
+import jdk.jfr.Description;
+import jdk.jfr.Event;
+import jdk.jfr.Label;
+import jdk.jfr.Name;
+import jdk.jfr.StackTrace;
+import jdk.jfr.Timespan;
+import one.digitalinnovation.beerstock.dto.BeerDTO;
+
+/**
+ * Flight Recorder event for one {@code BeerService} call. Database time only covers work done on
+ * the calling thread, so calls handed to the stock lanes or answered by the stale-read pool report
+ * their wait instead in the event duration.
+ */
+@Name(BeerOperationEvent.NAME)
+@Label("Beer Operation")
+@Category("Beerstock")
+@Description("A beer service call with the beer it touched, its outcome and its database time")
+@StackTrace(false)
+public class BeerOperationEvent extends Event {
+
+    public static final String NAME = "one.digitalinnovation.beerstock.BeerOperation";
+
+    public static final String CREATE = "createBeer";
+    public static final String FIND_BY_NAME = "findByName";
+    public static final String INCREMENT = "increment";
+    public static final String DECREMENT = "decrement";
+
+    private static final String OK = "OK";
+
+    @Label("Operation")
+    private String operation;
+
+    @Label("Beer Id")
+    private long beerId;
+
+    @Label("Beer Name")
+    private String beerName;
+
+    @Label("Delta")
+    private int delta;
+
+    @Label("Outcome")
+    private String outcome;
+
+    @Label("Database Time")
+    @Timespan(Timespan.NANOSECONDS)
+    private long databaseTime;
+
+    private transient long databaseTimeAtStart;
+
+    public static BeerOperationEvent begin(String operation, Long beerId, String beerName, int delta) {
+        BeerOperationEvent event = new BeerOperationEvent();
+        if (event.isEnabled()) {
+            event.operation = operation;
+            event.beerId = beerId == null ? 0 : beerId;
+            event.beerName = beerName;
+            event.delta = delta;
+            event.databaseTimeAtStart = DatabaseTime.current();
+            event.begin();
+        }
+        return event;
+    }
+
+    public BeerDTO completed(BeerDTO beerDTO) {
+        end();
+        if (shouldCommit()) {
+            if (beerDTO != null) {
+                beerId = beerDTO.getId();
+                beerName = beerDTO.getName();
+            }
+            commit(OK);
+        }
+        return beerDTO;
+    }
+
+    public void failed(Exception e) {
+        end();
+        if (shouldCommit()) {
+            commit(e.getClass().getSimpleName());
+        }
+    }
+
+    private void commit(String outcome) {
+        this.outcome = outcome;
+        this.databaseTime = DatabaseTime.current() - databaseTimeAtStart;
+        commit();
+    }
+}
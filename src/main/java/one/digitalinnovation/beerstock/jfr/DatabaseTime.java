@@ -0,0 +1,21 @@
+package one.digitalinnovation.beerstock.jfr;
+
+/**
+ * Running total of the nanoseconds each thread has spent acquiring JDBC connections and preparing
+ * and executing statements. Callers take the difference between two readings.
+ */
+public final class DatabaseTime {
+
+    private static final ThreadLocal<long[]> NANOS = ThreadLocal.withInitial(() -> new long[1]);
+
+    private DatabaseTime() {
+    }
+
+    public static long current() {
+        return NANOS.get()[0];
+    }
+
+    static void add(long nanos) {
+        NANOS.get()[0] += nanos;
+    }
+}
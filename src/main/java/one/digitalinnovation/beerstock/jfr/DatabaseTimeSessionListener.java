@@ -0,0 +1,70 @@
+package one.digitalinnovation.beerstock.jfr;
+
+import org.hibernate.BaseSessionEventListener;
+
+/**
+ * Installed through {@code hibernate.session.events.auto}, one instance per session. A session is
+ * only ever used by one thread at a time, but its callbacks nest: with
+ * {@code provider_disables_autocommit} the connection is acquired lazily inside the first
+ * prepare. Each kind of callback therefore keeps its own start mark, and only the outermost open
+ * interval is added, so nested time is not counted twice.
+ */
+public class DatabaseTimeSessionListener extends BaseSessionEventListener {
+
+    private long acquisitionStarted;
+    private long prepareStarted;
+    private long executeStarted;
+    private long batchStarted;
+    private int open;
+
+    @Override
+    public void jdbcConnectionAcquisitionStart() {
+        acquisitionStarted = start();
+    }
+
+    @Override
+    public void jdbcConnectionAcquisitionEnd() {
+        end(acquisitionStarted);
+    }
+
+    @Override
+    public void jdbcPrepareStatementStart() {
+        prepareStarted = start();
+    }
+
+    @Override
+    public void jdbcPrepareStatementEnd() {
+        end(prepareStarted);
+    }
+
+    @Override
+    public void jdbcExecuteStatementStart() {
+        executeStarted = start();
+    }
+
+    @Override
+    public void jdbcExecuteStatementEnd() {
+        end(executeStarted);
+    }
+
+    @Override
+    public void jdbcExecuteBatchStart() {
+        batchStarted = start();
+    }
+
+    @Override
+    public void jdbcExecuteBatchEnd() {
+        end(batchStarted);
+    }
+
+    private long start() {
+        open++;
+        return System.nanoTime();
+    }
+
+    private void end(long started) {
+        if (open > 0 && --open == 0) {
+            DatabaseTime.add(System.nanoTime() - started);
+        }
+    }
+}
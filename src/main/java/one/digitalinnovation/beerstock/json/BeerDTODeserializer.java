@@ -0,0 +1,51 @@
+package one.digitalinnovation.beerstock.json;
+
+import com.fasterxml.jackson.core.JsonParser;
+import com.fasterxml.jackson.core.JsonToken;
+import com.fasterxml.jackson.databind.DeserializationContext;
+import com.fasterxml.jackson.databind.deser.std.StdDeserializer;
+import one.digitalinnovation.beerstock.dto.BeerDTO;
+
+import java.io.IOException;
+
+public class BeerDTODeserializer extends StdDeserializer<BeerDTO> {
+
+    public BeerDTODeserializer() {
+        super(BeerDTO.class);
+    }
+
+    @Override
+    public BeerDTO deserialize(JsonParser p, DeserializationContext ctxt) throws IOException {
+        if (!p.isExpectedStartObjectToken() && p.currentToken() != JsonToken.FIELD_NAME) {
+            return (BeerDTO) ctxt.handleUnexpectedToken(BeerDTO.class, p);
+        }
+        BeerDTO beerDTO = new BeerDTO();
+        for (String field = p.isExpectedStartObjectToken() ? p.nextFieldName() : p.currentName();
+             field != null; field = p.nextFieldName()) {
+            p.nextToken();
+            switch (field) {
+                case "id":
+                    beerDTO.setId(BeerJsonFields.readLong(p, ctxt));
+                    break;
+                case "name":
+                    beerDTO.setName(BeerJsonFields.readString(p, ctxt));
+                    break;
+                case "brand":
+                    beerDTO.setBrand(BeerJsonFields.readString(p, ctxt));
+                    break;
+                case "max":
+                    beerDTO.setMax(BeerJsonFields.readInteger(p, ctxt));
+                    break;
+                case "quantity":
+                    beerDTO.setQuantity(BeerJsonFields.readInteger(p, ctxt));
+                    break;
+                case "type":
+                    beerDTO.setType(BeerJsonFields.readType(p, ctxt));
+                    break;
+                default:
+                    handleUnknownProperty(p, ctxt, beerDTO, field);
+            }
+        }
+        return beerDTO;
+    }
+}
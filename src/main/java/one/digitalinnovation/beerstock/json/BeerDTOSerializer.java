@@ -0,0 +1,49 @@
+package one.digitalinnovation.beerstock.json;
+
+import com.fasterxml.jackson.core.JsonGenerator;
+import com.fasterxml.jackson.databind.SerializerProvider;
+import com.fasterxml.jackson.databind.ser.std.StdSerializer;
+import one.digitalinnovation.beerstock.dto.BeerDTO;
+
+import java.io.IOException;
+
+public class BeerDTOSerializer extends StdSerializer<BeerDTO> {
+
+    public BeerDTOSerializer() {
+        super(BeerDTO.class);
+    }
+
+    @Override
+    public void serialize(BeerDTO beerDTO, JsonGenerator gen, SerializerProvider provider) throws IOException {
+        gen.writeStartObject(beerDTO);
+        gen.writeFieldName(BeerJsonFields.ID);
+        if (beerDTO.getId() == null) {
+            gen.writeNull();
+        } else {
+            gen.writeNumber(beerDTO.getId());
+        }
+        gen.writeFieldName(BeerJsonFields.NAME);
+        gen.writeString(beerDTO.getName());
+        gen.writeFieldName(BeerJsonFields.BRAND);
+        gen.writeString(beerDTO.getBrand());
+        gen.writeFieldName(BeerJsonFields.MAX);
+        writeInteger(gen, beerDTO.getMax());
+        gen.writeFieldName(BeerJsonFields.QUANTITY);
+        writeInteger(gen, beerDTO.getQuantity());
+        gen.writeFieldName(BeerJsonFields.TYPE);
+        if (beerDTO.getType() == null) {
+            gen.writeNull();
+        } else {
+            gen.writeString(BeerJsonFields.typeName(beerDTO.getType()));
+        }
+        gen.writeEndObject();
+    }
+
+    static void writeInteger(JsonGenerator gen, Integer value) throws IOException {
+        if (value == null) {
+            gen.writeNull();
+        } else {
+            gen.writeNumber(value);
+        }
+    }
+}
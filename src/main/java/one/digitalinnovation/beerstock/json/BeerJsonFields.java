@@ -0,0 +1,72 @@
+package one.digitalinnovation.beerstock.json;
+
+import com.fasterxml.jackson.core.JsonParser;
+import com.fasterxml.jackson.core.JsonToken;
+import com.fasterxml.jackson.core.io.SerializedString;
+import com.fasterxml.jackson.databind.DeserializationContext;
+import one.digitalinnovation.beerstock.enums.BeerType;
+
+import java.io.IOException;
+
+final class BeerJsonFields {
+
+    static final SerializedString ID = new SerializedString("id");
+    static final SerializedString NAME = new SerializedString("name");
+    static final SerializedString BRAND = new SerializedString("brand");
+    static final SerializedString MAX = new SerializedString("max");
+    static final SerializedString QUANTITY = new SerializedString("quantity");
+    static final SerializedString TYPE = new SerializedString("type");
+
+    private static final BeerType[] TYPES = BeerType.values();
+    private static final SerializedString[] TYPE_NAMES = new SerializedString[TYPES.length];
+
+    static {
+        for (BeerType type : TYPES) {
+            TYPE_NAMES[type.ordinal()] = new SerializedString(type.name());
+        }
+    }
+
+    private BeerJsonFields() {
+    }
+
+    static SerializedString typeName(BeerType type) {
+        return TYPE_NAMES[type.ordinal()];
+    }
+
+    static Integer readInteger(JsonParser p, DeserializationContext ctxt) throws IOException {
+        JsonToken token = p.currentToken();
+        if (token == JsonToken.VALUE_NUMBER_INT) {
+            return p.getIntValue();
+        }
+        return token == JsonToken.VALUE_NULL ? null : ctxt.readValue(p, Integer.class);
+    }
+
+    static Long readLong(JsonParser p, DeserializationContext ctxt) throws IOException {
+        JsonToken token = p.currentToken();
+        if (token == JsonToken.VALUE_NUMBER_INT) {
+            return p.getLongValue();
+        }
+        return token == JsonToken.VALUE_NULL ? null : ctxt.readValue(p, Long.class);
+    }
+
+    static String readString(JsonParser p, DeserializationContext ctxt) throws IOException {
+        JsonToken token = p.currentToken();
+        if (token == JsonToken.VALUE_STRING) {
+            return p.getText();
+        }
+        return token == JsonToken.VALUE_NULL ? null : ctxt.readValue(p, String.class);
+    }
+
+    static BeerType readType(JsonParser p, DeserializationContext ctxt) throws IOException {
+        JsonToken token = p.currentToken();
+        if (token == JsonToken.VALUE_STRING) {
+            String name = p.getText();
+            for (BeerType type : TYPES) {
+                if (type.name().equals(name)) {
+                    return type;
+                }
+            }
+        }
+        return token == JsonToken.VALUE_NULL ? null : ctxt.readValue(p, BeerType.class);
+    }
+}
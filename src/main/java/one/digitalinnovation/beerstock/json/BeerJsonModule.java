@@ -0,0 +1,23 @@
+package one.digitalinnovation.beerstock.json;
+
+import com.fasterxml.jackson.databind.module.SimpleModule;
+import one.digitalinnovation.beerstock.dto.BeerDTO;
+import one.digitalinnovation.beerstock.dto.QuantityDTO;
+import org.springframework.stereotype.Component;
+
+/**
+ * Hand-written serializers for the DTOs on the request hot paths, picked up by Spring Boot's
+ * ObjectMapper like any other Jackson module bean. They produce and accept exactly the JSON the
+ * reflective bean serializers do, including null fields and ignored unknown properties.
+ */
+@Component
+public class BeerJsonModule extends SimpleModule {
+
+    public BeerJsonModule() {
+        super(BeerJsonModule.class.getSimpleName());
+        addSerializer(BeerDTO.class, new BeerDTOSerializer());
+        addDeserializer(BeerDTO.class, new BeerDTODeserializer());
+        addSerializer(QuantityDTO.class, new QuantityDTOSerializer());
+        addDeserializer(QuantityDTO.class, new QuantityDTODeserializer());
+    }
+}
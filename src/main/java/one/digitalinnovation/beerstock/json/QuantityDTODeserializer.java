@@ -0,0 +1,34 @@
+package one.digitalinnovation.beerstock.json;
+
+import com.fasterxml.jackson.core.JsonParser;
+import com.fasterxml.jackson.core.JsonToken;
+import com.fasterxml.jackson.databind.DeserializationContext;
+import com.fasterxml.jackson.databind.deser.std.StdDeserializer;
+import one.digitalinnovation.beerstock.dto.QuantityDTO;
+
+import java.io.IOException;
+
+public class QuantityDTODeserializer extends StdDeserializer<QuantityDTO> {
+
+    public QuantityDTODeserializer() {
+        super(QuantityDTO.class);
+    }
+
+    @Override
+    public QuantityDTO deserialize(JsonParser p, DeserializationContext ctxt) throws IOException {
+        if (!p.isExpectedStartObjectToken() && p.currentToken() != JsonToken.FIELD_NAME) {
+            return (QuantityDTO) ctxt.handleUnexpectedToken(QuantityDTO.class, p);
+        }
+        QuantityDTO quantityDTO = new QuantityDTO();
+        for (String field = p.isExpectedStartObjectToken() ? p.nextFieldName() : p.currentName();
+             field != null; field = p.nextFieldName()) {
+            p.nextToken();
+            if ("quantity".equals(field)) {
+                quantityDTO.setQuantity(BeerJsonFields.readInteger(p, ctxt));
+            } else {
+                handleUnknownProperty(p, ctxt, quantityDTO, field);
+            }
+        }
+        return quantityDTO;
+    }
+}
@@ -0,0 +1,23 @@
+package one.digitalinnovation.beerstock.json;
+
+import com.fasterxml.jackson.core.JsonGenerator;
+import com.fasterxml.jackson.databind.SerializerProvider;
+import com.fasterxml.jackson.databind.ser.std.StdSerializer;
+import one.digitalinnovation.beerstock.dto.QuantityDTO;
+
+import java.io.IOException;
+
+public class QuantityDTOSerializer extends StdSerializer<QuantityDTO> {
+
+    public QuantityDTOSerializer() {
+        super(QuantityDTO.class);
+    }
+
+    @Override
+    public void serialize(QuantityDTO quantityDTO, JsonGenerator gen, SerializerProvider provider) throws IOException {
+        gen.writeStartObject(quantityDTO);
+        gen.writeFieldName(BeerJsonFields.QUANTITY);
+        BeerDTOSerializer.writeInteger(gen, quantityDTO.getQuantity());
+        gen.writeEndObject();
+    }
+}
@@ -0,0 +1,51 @@
+package one.digitalinnovation.beerstock.outbox;
+
+import one.digitalinnovation.beerstock.config.OutboxProperties;
+import one.digitalinnovation.beerstock.entity.Beer;
+import one.digitalinnovation.beerstock.entity.OutboxEvent;
+import one.digitalinnovation.beerstock.event.BeerChangedEvent;
+import one.digitalinnovation.beerstock.repository.OutboxEventRepository;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.annotation.Propagation;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.time.Instant;
+
+/**
+ * Records stock changes in the outbox table of the shard that holds the beer. Every method joins
+ * the transaction that writes the beer and refuses to run without one, so a change reaches the
+ * outbox exactly when the beer update commits and the relay can deliver it later without the
+ * caller waiting on the downstream systems.
+ */
+@Component
+@Transactional(propagation = Propagation.MANDATORY)
+public class BeerOutbox {
+
+    private final OutboxEventRepository outboxEventRepository;
+    private final boolean enabled;
+
+    @Autowired
+    public BeerOutbox(OutboxEventRepository outboxEventRepository, OutboxProperties properties) {
+        this.outboxEventRepository = outboxEventRepository;
+        this.enabled = properties.isEnabled();
+    }
+
+    public void recordCreated(Beer beer) {
+        record(beer.getId(), beer.getName(), BeerChangedEvent.Kind.CREATED, null, beer.getQuantity(), beer.getVersion());
+    }
+
+    public void recordUpdated(Beer beer, int previousQuantity) {
+        record(beer.getId(), beer.getName(), BeerChangedEvent.Kind.UPDATED, previousQuantity, beer.getQuantity(), beer.getVersion());
+    }
+
+    public void recordDeleted(Long beerId) {
+        record(beerId, null, BeerChangedEvent.Kind.DELETED, null, null, BeerChangedEvent.DELETED_VERSION);
+    }
+
+    private void record(Long beerId, String name, BeerChangedEvent.Kind kind, Integer previousQuantity, Integer quantity, long version) {
+        if (enabled) {
+            outboxEventRepository.save(new OutboxEvent(null, beerId, name, kind, previousQuantity, quantity, version, Instant.now(), null, null));
+        }
+    }
+}
@@ -0,0 +1,17 @@
+package one.digitalinnovation.beerstock.outbox;
+
+import lombok.extern.slf4j.Slf4j;
+import one.digitalinnovation.beerstock.dto.StockChangeDTO;
+
+import java.util.List;
+
+@Slf4j
+public class LogOutboxSink implements OutboxSink {
+
+    @Override
+    public void deliver(List<StockChangeDTO> changes) {
+        if (log.isDebugEnabled()) {
+            changes.forEach(change -> log.debug("Stock change {}", change));
+        }
+    }
+}
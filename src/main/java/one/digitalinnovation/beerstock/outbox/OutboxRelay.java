@@ -0,0 +1,134 @@
+package one.digitalinnovation.beerstock.outbox;
+
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Metrics;
+import lombok.extern.slf4j.Slf4j;
+import one.digitalinnovation.beerstock.config.OutboxProperties;
+import one.digitalinnovation.beerstock.dto.StockChangeDTO;
+import one.digitalinnovation.beerstock.entity.OutboxEvent;
+import one.digitalinnovation.beerstock.replica.ReadRouting;
+import one.digitalinnovation.beerstock.repository.OutboxEventRepository;
+import one.digitalinnovation.beerstock.sharding.ShardRouter;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.data.domain.Pageable;
+import org.springframework.stereotype.Component;
+
+import javax.annotation.PreDestroy;
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.UUID;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Drains the outbox of every shard into the configured sink on a background thread. A batch is
+ * claimed by stamping a fresh token and a lease on the oldest unclaimed rows with a conditional
+ * update, so rows another relay claimed in the meantime are skipped rather than waited on. The
+ * rows are deleted only after the sink accepted them, and released when it failed; a relay that
+ * dies mid-batch leaves its lease to expire, after which the rows are claimed and delivered again.
+ */
+@Slf4j
+@Component
+public class OutboxRelay {
+
+    private final Counter delivered = Metrics.counter("beerstock.outbox.delivered");
+    private final Counter failures = Metrics.counter("beerstock.outbox.failures");
+    private final OutboxEventRepository outboxEventRepository;
+    private final ShardRouter shardRouter;
+    private final OutboxSink sink;
+    private final OutboxProperties properties;
+    private final ScheduledExecutorService scheduler;
+
+    @Autowired
+    public OutboxRelay(OutboxEventRepository outboxEventRepository, ShardRouter shardRouter,
+                       OutboxSink sink, OutboxProperties properties) {
+        this.outboxEventRepository = outboxEventRepository;
+        this.shardRouter = shardRouter;
+        this.sink = sink;
+        this.properties = properties;
+        this.scheduler = !properties.isEnabled() ? null : Executors.newSingleThreadScheduledExecutor(runnable -> {
+            Thread thread = new Thread(runnable, "outbox-relay");
+            thread.setDaemon(true);
+            return thread;
+        });
+    }
+
+    @EventListener(ApplicationReadyEvent.class)
+    public void start() {
+        if (scheduler != null) {
+            long interval = properties.getPollInterval().toMillis();
+            scheduler.scheduleWithFixedDelay(this::poll, interval, interval, TimeUnit.MILLISECONDS);
+        }
+    }
+
+    @PreDestroy
+    public void shutdown() {
+        if (scheduler != null) {
+            scheduler.shutdownNow();
+        }
+    }
+
+    public int drain() {
+        int relayed = 0;
+        try (ReadRouting.Scope primary = ReadRouting.pinToPrimary()) {
+            for (int shard = 0; shard < shardRouter.shardCount(); shard++) {
+                try (ShardRouter.Scope scope = shardRouter.use(shard)) {
+                    relayed += drainShard();
+                }
+            }
+        }
+        return relayed;
+    }
+
+    private void poll() {
+        try {
+            drain();
+        } catch (RuntimeException e) {
+            log.warn("Outbox relay poll failed", e);
+        }
+    }
+
+    private int drainShard() {
+        Pageable batch = PageRequest.of(0, Math.max(1, properties.getBatchSize()));
+        int relayed = 0;
+        while (true) {
+            Instant now = Instant.now();
+            List<Long> ids = outboxEventRepository.findClaimableIds(now, batch);
+            if (ids.isEmpty()) {
+                return relayed;
+            }
+            String token = UUID.randomUUID().toString();
+            if (outboxEventRepository.claim(ids, token, now.plus(properties.getClaimTimeout()), now) > 0) {
+                List<OutboxEvent> claimed = outboxEventRepository.findByClaimTokenOrderById(token);
+                try {
+                    sink.deliver(toChanges(claimed));
+                } catch (Exception e) {
+                    failures.increment();
+                    outboxEventRepository.release(token);
+                    log.warn("Outbox sink rejected {} stock changes, they will be retried", claimed.size(), e);
+                    return relayed;
+                }
+                outboxEventRepository.deleteByClaimToken(token);
+                delivered.increment(claimed.size());
+                relayed += claimed.size();
+            }
+            if (ids.size() < batch.getPageSize()) {
+                return relayed;
+            }
+        }
+    }
+
+    private static List<StockChangeDTO> toChanges(List<OutboxEvent> events) {
+        List<StockChangeDTO> changes = new ArrayList<>(events.size());
+        for (OutboxEvent event : events) {
+            changes.add(new StockChangeDTO(event.getBeerId(), event.getName(), event.getKind(),
+                    event.getPreviousQuantity(), event.getQuantity(), event.getVersion(), event.getOccurredAt()));
+        }
+        return changes;
+    }
+}
@@ -0,0 +1,16 @@
+package one.digitalinnovation.beerstock.outbox;
+
+import one.digitalinnovation.beerstock.dto.StockChangeDTO;
+
+import java.io.IOException;
+import java.util.List;
+
+/**
+ * Where the outbox relay delivers stock changes. A batch counts as delivered once this returns,
+ * and is handed over again when it throws, so implementations must tolerate repeated changes;
+ * the beer version tells a consumer which of two changes to the same beer is the newer one.
+ */
+public interface OutboxSink {
+
+    void deliver(List<StockChangeDTO> changes) throws IOException;
+}
@@ -0,0 +1,260 @@
+package one.digitalinnovation.beerstock.planning;
+
+import lombok.extern.slf4j.Slf4j;
+import one.digitalinnovation.beerstock.config.ReplenishmentProperties;
+import one.digitalinnovation.beerstock.dto.ReplenishmentPlanDTO;
+import one.digitalinnovation.beerstock.dto.SupplierOrderDTO;
+import one.digitalinnovation.beerstock.repository.BeerRepository;
+import one.digitalinnovation.beerstock.sharding.ShardRouter;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.data.domain.Pageable;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+
+import javax.annotation.PreDestroy;
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.TreeMap;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.ForkJoinTask;
+import java.util.concurrent.RecursiveAction;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.atomic.AtomicReference;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * Suggests how many units to reorder so every beer is brought back to a target fraction of its
+ * max, grouped by brand into one supplier order each. Every shard is read in id-ordered chunks,
+ * and while the next chunk is being fetched the previous one is split across a fork-join pool
+ * whose leaves fold their beers into per-brand totals shared by the whole run, so only two chunks
+ * are held at a time however large the table is. Every scan runs on the planner's own thread, one
+ * at a time, and callers asking for a target that is already being planned wait for that run
+ * instead of starting another. The plan for the configured target is first computed when the
+ * application is ready and then by the nightly job, and served until the next run; that stored
+ * plan is all the API returns, so a request never starts a scan of its own once it exists.
+ */
+@Slf4j
+@Component
+public class ReplenishmentPlanner {
+
+    private static final int SPLIT_THRESHOLD = 512;
+
+    private final AtomicReference<ReplenishmentPlanDTO> latest = new AtomicReference<>();
+    private final Map<Double, CompletableFuture<ReplenishmentPlanDTO>> runs = new ConcurrentHashMap<>();
+    private final BeerRepository beerRepository;
+    private final ShardRouter shardRouter;
+    private final ReplenishmentProperties properties;
+    private final ForkJoinPool pool;
+    private final ExecutorService runner;
+
+    @Autowired
+    public ReplenishmentPlanner(BeerRepository beerRepository, ShardRouter shardRouter, ReplenishmentProperties properties) {
+        this.beerRepository = beerRepository;
+        this.shardRouter = shardRouter;
+        this.properties = properties;
+        this.pool = new ForkJoinPool(Math.max(1, properties.getParallelism()));
+        this.runner = Executors.newSingleThreadExecutor(runnable -> {
+            Thread thread = new Thread(runnable, "replenishment-planner");
+            thread.setDaemon(true);
+            return thread;
+        });
+    }
+
+    @EventListener(ApplicationReadyEvent.class)
+    public void planOnStartup() {
+        submit(configuredTarget()).whenComplete((plan, e) -> {
+            if (e != null) {
+                log.warn("Could not compute the startup replenishment plan", e);
+            } else {
+                logPlan(plan);
+            }
+        });
+    }
+
+    @Scheduled(cron = "${beerstock.replenishment.cron:0 0 3 * * *}")
+    public void planNightly() {
+        logPlan(plan(properties.getTargetFillRatio()));
+    }
+
+    public ReplenishmentPlanDTO latest() {
+        ReplenishmentPlanDTO plan = latest.get();
+        return plan != null ? plan : plan(properties.getTargetFillRatio());
+    }
+
+    public ReplenishmentPlanDTO plan(double targetFillRatio) {
+        try {
+            return submit(clamp(targetFillRatio)).join();
+        } catch (CompletionException e) {
+            if (e.getCause() instanceof RuntimeException) {
+                throw (RuntimeException) e.getCause();
+            }
+            throw e;
+        }
+    }
+
+    @PreDestroy
+    public void shutdown() {
+        runner.shutdownNow();
+        runs.values().forEach(run -> run.cancel(false));
+        pool.shutdown();
+    }
+
+    CompletableFuture<ReplenishmentPlanDTO> submit(double target) {
+        CompletableFuture<ReplenishmentPlanDTO> run = new CompletableFuture<>();
+        CompletableFuture<ReplenishmentPlanDTO> existingRun = runs.putIfAbsent(target, run);
+        if (existingRun != null) {
+            return existingRun;
+        }
+        try {
+            runner.execute(() -> {
+                try {
+                    run.complete(scan(target));
+                } catch (Throwable e) {
+                    run.completeExceptionally(e);
+                } finally {
+                    runs.remove(target, run);
+                }
+            });
+        } catch (RejectedExecutionException e) {
+            runs.remove(target, run);
+            run.completeExceptionally(e);
+        }
+        return run;
+    }
+
+    private ReplenishmentPlanDTO scan(double target) {
+        Instant startedAt = Instant.now();
+        Map<String, BrandOrder> orders = new ConcurrentHashMap<>();
+        long scanned = 0;
+        for (int shard = 0; shard < shardRouter.shardCount(); shard++) {
+            try (ShardRouter.Scope scope = shardRouter.use(shard)) {
+                scanned += planShard(target, orders);
+            }
+        }
+        ReplenishmentPlanDTO plan = toDTO(startedAt, target, scanned, orders);
+        if (target == configuredTarget()) {
+            latest.set(plan);
+        }
+        return plan;
+    }
+
+    private double configuredTarget() {
+        return clamp(properties.getTargetFillRatio());
+    }
+
+    private static double clamp(double targetFillRatio) {
+        if (!Double.isFinite(targetFillRatio)) {
+            throw new IllegalArgumentException("Target fill ratio must be a finite number, got " + targetFillRatio);
+        }
+        return Math.max(0, Math.min(targetFillRatio, 1));
+    }
+
+    private static void logPlan(ReplenishmentPlanDTO plan) {
+        log.info("Replenishment plan ready: {} of {} beers to reorder, {} units in {} supplier orders",
+                plan.getBeersToReorder(), plan.getBeersScanned(), plan.getUnitsToOrder(), plan.getOrders().size());
+    }
+
+    private long planShard(double target, Map<String, BrandOrder> orders) {
+        Pageable chunk = PageRequest.of(0, Math.max(1, properties.getChunkSize()));
+        long scanned = 0;
+        long after = 0;
+        ForkJoinTask<Void> pending = null;
+        try {
+            List<StockLevel> levels;
+            do {
+                levels = beerRepository.findStockLevelsAfter(after, chunk);
+                if (pending != null) {
+                    pending.join();
+                    pending = null;
+                }
+                if (!levels.isEmpty()) {
+                    scanned += levels.size();
+                    after = levels.get(levels.size() - 1).getId();
+                    pending = pool.submit(new SuggestTask(levels, 0, levels.size(), target, orders));
+                }
+            } while (levels.size() == chunk.getPageSize());
+        } finally {
+            if (pending != null) {
+                pending.join();
+            }
+        }
+        return scanned;
+    }
+
+    private static ReplenishmentPlanDTO toDTO(Instant generatedAt, double target, long scanned, Map<String, BrandOrder> orders) {
+        List<SupplierOrderDTO> supplierOrders = new ArrayList<>(orders.size());
+        long beers = 0;
+        long units = 0;
+        for (Map.Entry<String, BrandOrder> entry : new TreeMap<>(orders).entrySet()) {
+            SupplierOrderDTO order = new SupplierOrderDTO(entry.getKey(), entry.getValue().beers.sum(), entry.getValue().units.sum());
+            supplierOrders.add(order);
+            beers += order.getBeers();
+            units += order.getUnits();
+        }
+        return new ReplenishmentPlanDTO(generatedAt, target, scanned, beers, units, supplierOrders);
+    }
+
+    static int unitsToReorder(StockLevel level, double target) {
+        return Math.max(0, (int) Math.round(level.getMax() * target) - level.getQuantity());
+    }
+
+    private static final class SuggestTask extends RecursiveAction {
+
+        private final List<StockLevel> levels;
+        private final int from;
+        private final int to;
+        private final double target;
+        private final Map<String, BrandOrder> orders;
+
+        SuggestTask(List<StockLevel> levels, int from, int to, double target, Map<String, BrandOrder> orders) {
+            this.levels = levels;
+            this.from = from;
+            this.to = to;
+            this.target = target;
+            this.orders = orders;
+        }
+
+        @Override
+        protected void compute() {
+            if (to - from > SPLIT_THRESHOLD) {
+                int middle = (from + to) >>> 1;
+                invokeAll(new SuggestTask(levels, from, middle, target, orders),
+                        new SuggestTask(levels, middle, to, target, orders));
+                return;
+            }
+            Map<String, long[]> local = new HashMap<>();
+            for (int i = from; i < to; i++) {
+                StockLevel level = levels.get(i);
+                int units = unitsToReorder(level, target);
+                if (units > 0) {
+                    long[] totals = local.computeIfAbsent(level.getBrand(), brand -> new long[2]);
+                    totals[0]++;
+                    totals[1] += units;
+                }
+            }
+            local.forEach((brand, totals) -> orders.computeIfAbsent(brand, key -> new BrandOrder()).add(totals[0], totals[1]));
+        }
+    }
+
+    private static final class BrandOrder {
+
+        private final LongAdder beers = new LongAdder();
+        private final LongAdder units = new LongAdder();
+
+        void add(long beerCount, long unitCount) {
+            beers.add(beerCount);
+            units.add(unitCount);
+        }
+    }
+}
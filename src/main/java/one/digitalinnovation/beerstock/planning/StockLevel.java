@@ -0,0 +1,18 @@
+package one.digitalinnovation.beerstock.planning;
+
+import lombok.AllArgsConstructor;
+import lombok.Data;
+
+/**
+ * The columns of a beer the replenishment planner needs, read with a constructor expression so a
+ * chunk of the table is loaded without managed entities or second-level cache traffic.
+ */
+@Data
+@AllArgsConstructor
+public class StockLevel {
+
+    private final Long id;
+    private final String brand;
+    private final int quantity;
+    private final int max;
+}
@@ -0,0 +1,35 @@
+package one.digitalinnovation.beerstock.replica;
+
+/**
+ * Lets code that must observe the latest committed state, such as a read-modify-write or a
+ * client that has just written, keep its read-only transactions on the primary.
+ */
+public final class ReadRouting {
+
+    private static final ThreadLocal<Integer> PRIMARY_PINS = ThreadLocal.withInitial(() -> 0);
+
+    private ReadRouting() {
+    }
+
+    public static boolean isPrimaryPinned() {
+        return PRIMARY_PINS.get() > 0;
+    }
+
+    public static Scope pinToPrimary() {
+        PRIMARY_PINS.set(PRIMARY_PINS.get() + 1);
+        return () -> {
+            int pins = PRIMARY_PINS.get() - 1;
+            if (pins == 0) {
+                PRIMARY_PINS.remove();
+            } else {
+                PRIMARY_PINS.set(pins);
+            }
+        };
+    }
+
+    public interface Scope extends AutoCloseable {
+
+        @Override
+        void close();
+    }
+}
@@ -0,0 +1,71 @@
+package one.digitalinnovation.beerstock.replica;
+
+import org.springframework.web.filter.OncePerRequestFilter;
+
+import javax.servlet.FilterChain;
+import javax.servlet.ServletException;
+import javax.servlet.http.HttpServletRequest;
+import javax.servlet.http.HttpServletResponse;
+import java.io.IOException;
+import java.time.Instant;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * Keeps a client on the primary from its first mutating request until the replica has caught up
+ * with it, so it always reads its own writes. Clients are told apart by a request header and
+ * fall back to their remote address.
+ */
+public class ReadYourWritesFilter extends OncePerRequestFilter {
+
+    private static final Set<String> READ_METHODS = Set.of("GET", "HEAD", "OPTIONS");
+    private static final int PRUNE_THRESHOLD = 10_000;
+
+    private final Map<String, Instant> lastWrites = new ConcurrentHashMap<>();
+    private final ReplicationStatus replicationStatus;
+    private final String clientHeader;
+
+    public ReadYourWritesFilter(ReplicationStatus replicationStatus, String clientHeader) {
+        this.replicationStatus = replicationStatus;
+        this.clientHeader = clientHeader;
+    }
+
+    @Override
+    protected void doFilterInternal(HttpServletRequest request, HttpServletResponse response, FilterChain filterChain)
+            throws ServletException, IOException {
+        String client = clientOf(request);
+        if (!READ_METHODS.contains(request.getMethod())) {
+            try (ReadRouting.Scope scope = ReadRouting.pinToPrimary()) {
+                filterChain.doFilter(request, response);
+            } finally {
+                recordWrite(client);
+            }
+            return;
+        }
+        Instant lastWrite = lastWrites.get(client);
+        if (lastWrite == null) {
+            filterChain.doFilter(request, response);
+        } else if (replicationStatus.getReplicatedUpTo().isAfter(lastWrite)) {
+            lastWrites.remove(client, lastWrite);
+            filterChain.doFilter(request, response);
+        } else {
+            try (ReadRouting.Scope scope = ReadRouting.pinToPrimary()) {
+                filterChain.doFilter(request, response);
+            }
+        }
+    }
+
+    private void recordWrite(String client) {
+        lastWrites.put(client, replicationStatus.now());
+        if (lastWrites.size() > PRUNE_THRESHOLD) {
+            Instant replicatedUpTo = replicationStatus.getReplicatedUpTo();
+            lastWrites.values().removeIf(replicatedUpTo::isAfter);
+        }
+    }
+
+    private String clientOf(HttpServletRequest request) {
+        String client = request.getHeader(clientHeader);
+        return client != null ? client : request.getRemoteAddr();
+    }
+}
@@ -0,0 +1,32 @@
+package one.digitalinnovation.beerstock.replica;
+
+import com.zaxxer.hikari.HikariDataSource;
+
+/**
+ * The primary and replica pools behind the routing datasource. They are kept out of the context as
+ * datasources of their own so that only the routing datasource is picked up by auto-configuration.
+ */
+public class ReplicaDataSources implements AutoCloseable {
+
+    private final HikariDataSource primary;
+    private final HikariDataSource replica;
+
+    public ReplicaDataSources(HikariDataSource primary, HikariDataSource replica) {
+        this.primary = primary;
+        this.replica = replica;
+    }
+
+    public HikariDataSource getPrimary() {
+        return primary;
+    }
+
+    public HikariDataSource getReplica() {
+        return replica;
+    }
+
+    @Override
+    public void close() {
+        primary.close();
+        replica.close();
+    }
+}
@@ -0,0 +1,52 @@
+package one.digitalinnovation.beerstock.replica;
+
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Metrics;
+import org.springframework.jdbc.datasource.lookup.AbstractRoutingDataSource;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import javax.sql.DataSource;
+import java.time.Duration;
+import java.util.Map;
+
+/**
+ * Sends connections of read-only transactions to the replica and everything else to the primary.
+ * Reads fall back to the primary while the replica lags more than the configured staleness or
+ * while the current thread is pinned to the primary. Must sit behind a lazy connection proxy so
+ * the decision is made after the transaction has declared itself read-only.
+ */
+public class ReplicaRoutingDataSource extends AbstractRoutingDataSource {
+
+    private static final String PRIMARY = "primary";
+    private static final String REPLICA = "replica";
+
+    private final ReplicationStatus replicationStatus;
+    private final Duration maxStaleness;
+    private final Counter primaryConnections = routedConnections(PRIMARY);
+    private final Counter replicaConnections = routedConnections(REPLICA);
+
+    public ReplicaRoutingDataSource(DataSource primary, DataSource replica,
+                                    ReplicationStatus replicationStatus, Duration maxStaleness) {
+        this.replicationStatus = replicationStatus;
+        this.maxStaleness = maxStaleness;
+        setTargetDataSources(Map.of(PRIMARY, primary, REPLICA, replica));
+        setDefaultTargetDataSource(primary);
+        afterPropertiesSet();
+    }
+
+    @Override
+    protected Object determineCurrentLookupKey() {
+        if (TransactionSynchronizationManager.isCurrentTransactionReadOnly()
+                && !ReadRouting.isPrimaryPinned()
+                && replicationStatus.isWithin(maxStaleness)) {
+            replicaConnections.increment();
+            return REPLICA;
+        }
+        primaryConnections.increment();
+        return PRIMARY;
+    }
+
+    private static Counter routedConnections(String target) {
+        return Metrics.counter("beerstock.datasource.routed.connections", "target", target);
+    }
+}
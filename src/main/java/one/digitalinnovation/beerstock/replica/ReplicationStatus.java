@@ -0,0 +1,36 @@
+package one.digitalinnovation.beerstock.replica;
+
+import java.time.Clock;
+import java.time.Duration;
+import java.time.Instant;
+
+/**
+ * The point in time up to which the replica is known to contain every commit of the primary.
+ * Whatever replicates the data reports progress here; until the first report the replica is
+ * treated as infinitely stale.
+ */
+public class ReplicationStatus {
+
+    private final Clock clock;
+    private volatile Instant replicatedUpTo = Instant.MIN;
+
+    public ReplicationStatus(Clock clock) {
+        this.clock = clock;
+    }
+
+    public Instant now() {
+        return clock.instant();
+    }
+
+    public Instant getReplicatedUpTo() {
+        return replicatedUpTo;
+    }
+
+    public void markReplicatedUpTo(Instant instant) {
+        replicatedUpTo = instant;
+    }
+
+    public boolean isWithin(Duration maxStaleness) {
+        return !replicatedUpTo.isBefore(now().minus(maxStaleness));
+    }
+}
@@ -0,0 +1,70 @@
+package one.digitalinnovation.beerstock.replica;
+
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.datasource.DataSourceTransactionManager;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import javax.annotation.PostConstruct;
+import javax.sql.DataSource;
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.stream.Collectors;
+
+/**
+ * Stands in for database replication when primary and replica are two local H2 instances. Copies
+ * the schema once and then, on every run, replaces the replica's rows with a fresh copy of the
+ * primary's in a single replica transaction, so replica readers never see a half applied copy.
+ */
+@Slf4j
+public class StandInReplicator {
+
+    private final JdbcTemplate primary;
+    private final JdbcTemplate replica;
+    private final TransactionTemplate replicaTransaction;
+    private final ReplicationStatus replicationStatus;
+
+    public StandInReplicator(DataSource primary, DataSource replica, ReplicationStatus replicationStatus) {
+        this.primary = new JdbcTemplate(primary);
+        this.replica = new JdbcTemplate(replica);
+        this.replicaTransaction = new TransactionTemplate(new DataSourceTransactionManager(replica));
+        this.replicationStatus = replicationStatus;
+    }
+
+    @PostConstruct
+    public void copySchema() {
+        primary.queryForList("SCRIPT NODATA", String.class).stream()
+                .filter(statement -> !statement.startsWith("--") && !statement.startsWith("CREATE USER"))
+                .forEach(replica::execute);
+        replicate();
+    }
+
+    @Scheduled(fixedDelayString = "${beerstock.replica.replication-interval:PT0.5S}")
+    public void replicate() {
+        Instant snapshotTakenAt = replicationStatus.now();
+        List<String> tables = primary.queryForList(
+                "select table_name from information_schema.tables where table_schema = 'PUBLIC' and table_type = 'TABLE'",
+                String.class);
+        Map<String, List<Map<String, Object>>> rowsByTable = tables.stream()
+                .collect(Collectors.toMap(table -> table, table -> primary.queryForList("select * from " + table)));
+        replicaTransaction.executeWithoutResult(status -> rowsByTable.forEach(this::replaceRows));
+        replicationStatus.markReplicatedUpTo(snapshotTakenAt);
+        log.debug("Replicated {} tables up to {}", tables.size(), snapshotTakenAt);
+    }
+
+    private void replaceRows(String table, List<Map<String, Object>> rows) {
+        replica.update("delete from " + table);
+        if (rows.isEmpty()) {
+            return;
+        }
+        List<String> columns = new ArrayList<>(rows.get(0).keySet());
+        String insert = "insert into " + table + " (" + String.join(", ", columns) + ") values ("
+                + columns.stream().map(column -> "?").collect(Collectors.joining(", ")) + ")";
+        replica.batchUpdate(insert, rows.stream()
+                .map(row -> columns.stream().map(row::get).toArray())
+                .collect(Collectors.toList()));
+    }
+}
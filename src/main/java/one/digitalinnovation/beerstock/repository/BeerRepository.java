@@ -1,11 +1,65 @@
 package one.digitalinnovation.beerstock.repository;
 
+import one.digitalinnovation.beerstock.config.HibernateCacheConfig;
 import one.digitalinnovation.beerstock.entity.Beer;
+import one.digitalinnovation.beerstock.planning.StockLevel;
+import one.digitalinnovation.beerstock.search.BeerLabel;
+import one.digitalinnovation.beerstock.stats.InventoryLevel;
+import org.hibernate.annotations.QueryHints;
+import org.springframework.data.domain.Pageable;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Lock;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+import org.springframework.transaction.annotation.Transactional;
 
+import javax.persistence.LockModeType;
+import javax.persistence.QueryHint;
+import java.util.Collection;
+import java.util.List;
 import java.util.Optional;
 
+@Transactional(readOnly = true)
 public interface BeerRepository extends JpaRepository<Beer, Long> {
 
+    @org.springframework.data.jpa.repository.QueryHints({
+            @QueryHint(name = QueryHints.CACHEABLE, value = "true"),
+            @QueryHint(name = QueryHints.CACHE_REGION, value = HibernateCacheConfig.BEER_BY_NAME_REGION)
+    })
     Optional<Beer> findByName(String name);
+
+    List<Beer> findByNameIn(Collection<String> names);
+
+    List<Beer> findByChangeSeqGreaterThanAndChangeSeqLessThanOrderByChangeSeq(long after, long before, Pageable pageable);
+
+    @Query("select new one.digitalinnovation.beerstock.planning.StockLevel(b.id, b.brand, b.quantity, b.max) "
+            + "from Beer b where b.id > :after order by b.id")
+    List<StockLevel> findStockLevelsAfter(@Param("after") long after, Pageable pageable);
+
+    @Query("select new one.digitalinnovation.beerstock.stats.InventoryLevel(b.id, b.type, b.brand, b.quantity, b.max, b.version) "
+            + "from Beer b where b.id > :after order by b.id")
+    List<InventoryLevel> findInventoryLevelsAfter(@Param("after") long after, Pageable pageable);
+
+    @Query("select new one.digitalinnovation.beerstock.search.BeerLabel(b.id, b.name, b.brand, b.version) "
+            + "from Beer b where b.id > :after order by b.id")
+    List<BeerLabel> findLabelsAfter(@Param("after") long after, Pageable pageable);
+
+    @Lock(LockModeType.PESSIMISTIC_WRITE)
+    @Query("select b from Beer b where b.id = :id")
+    Optional<Beer> findByIdForUpdate(@Param("id") Long id);
+
+    @Lock(LockModeType.PESSIMISTIC_WRITE)
+    @Query("select b from Beer b where b.id in :ids")
+    List<Beer> findByIdInForUpdate(@Param("ids") Collection<Long> ids);
+
+    @Transactional
+    @Modifying
+    @Query("delete from Beer b where b.id = :id")
+    int deleteBeerById(@Param("id") Long id);
+
+    @Transactional
+    @Modifying
+    @Query("delete from Beer b where b.id in :ids")
+    int deleteBeersByIdIn(@Param("ids") Collection<Long> ids);
 }
@@ -0,0 +1,26 @@
+package one.digitalinnovation.beerstock.repository;
+
+import one.digitalinnovation.beerstock.entity.BeerStock;
+import one.digitalinnovation.beerstock.entity.BeerStockId;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.util.Collection;
+import java.util.List;
+
+@Transactional(readOnly = true)
+public interface BeerStockRepository extends JpaRepository<BeerStock, BeerStockId> {
+
+    List<BeerStock> findByBeerIdOrderByLocation(Long beerId);
+
+    @Query("select coalesce(sum(s.quantity), 0) from BeerStock s where s.beerId = :beerId")
+    long sumQuantityByBeerId(@Param("beerId") Long beerId);
+
+    @Transactional
+    @Modifying
+    @Query("delete from BeerStock s where s.beerId in :beerIds")
+    int deleteByBeerIdIn(@Param("beerIds") Collection<Long> beerIds);
+}
@@ -0,0 +1,22 @@
+package one.digitalinnovation.beerstock.repository;
+
+import one.digitalinnovation.beerstock.entity.BeerTombstone;
+import org.springframework.data.domain.Pageable;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.util.List;
+
+@Transactional(readOnly = true)
+public interface BeerTombstoneRepository extends JpaRepository<BeerTombstone, Long> {
+
+    List<BeerTombstone> findByChangeSeqGreaterThanAndChangeSeqLessThanOrderByChangeSeq(long after, long before, Pageable pageable);
+
+    @Transactional
+    @Modifying
+    @Query("delete from BeerTombstone t where t.changeSeq < :before")
+    int deleteByChangeSeqLessThan(@Param("before") long before);
+}
@@ -0,0 +1,39 @@
+package one.digitalinnovation.beerstock.repository;
+
+import one.digitalinnovation.beerstock.entity.OutboxEvent;
+import org.springframework.data.domain.Pageable;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.time.Instant;
+import java.util.Collection;
+import java.util.List;
+
+@Transactional(readOnly = true)
+public interface OutboxEventRepository extends JpaRepository<OutboxEvent, Long> {
+
+    @Query("select e.id from OutboxEvent e where e.claimedUntil is null or e.claimedUntil < :now order by e.id")
+    List<Long> findClaimableIds(@Param("now") Instant now, Pageable pageable);
+
+    List<OutboxEvent> findByClaimTokenOrderById(String claimToken);
+
+    @Transactional
+    @Modifying
+    @Query("update OutboxEvent e set e.claimToken = :token, e.claimedUntil = :until "
+            + "where e.id in :ids and (e.claimedUntil is null or e.claimedUntil < :now)")
+    int claim(@Param("ids") Collection<Long> ids, @Param("token") String token,
+              @Param("until") Instant until, @Param("now") Instant now);
+
+    @Transactional
+    @Modifying
+    @Query("update OutboxEvent e set e.claimToken = null, e.claimedUntil = null where e.claimToken = :token")
+    int release(@Param("token") String token);
+
+    @Transactional
+    @Modifying
+    @Query("delete from OutboxEvent e where e.claimToken = :token")
+    int deleteByClaimToken(@Param("token") String token);
+}
@@ -0,0 +1,216 @@
+package one.digitalinnovation.beerstock.resilience;
+
+import io.micrometer.core.instrument.Metrics;
+import lombok.extern.slf4j.Slf4j;
+import one.digitalinnovation.beerstock.config.StaleReadsProperties;
+import one.digitalinnovation.beerstock.dto.BeerDTO;
+import one.digitalinnovation.beerstock.entity.Beer;
+import one.digitalinnovation.beerstock.event.BeerChangedEvent;
+import one.digitalinnovation.beerstock.exception.CatalogUnavailableException;
+import one.digitalinnovation.beerstock.mapper.BeerMapper;
+import one.digitalinnovation.beerstock.replica.ReadRouting;
+import one.digitalinnovation.beerstock.repository.BeerRepository;
+import one.digitalinnovation.beerstock.sharding.ShardRouter;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+import org.springframework.web.context.request.RequestAttributes;
+import org.springframework.web.context.request.RequestContextHolder;
+
+import javax.annotation.PreDestroy;
+import java.time.Clock;
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.Callable;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentSkipListMap;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.Future;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.function.Supplier;
+
+/**
+ * Bounds the latency of catalog reads when the database stalls. Reads run on a small pool and the
+ * caller waits at most the latency budget; past it, or while the circuit is open after repeated
+ * slow or failed reads, the answer comes from a last-known-good copy of the catalog instead. That
+ * copy is reloaded in the background and kept current from beer change events in between. A
+ * beer missing from that copy may have been created since, so it is reported as unavailable
+ * rather than not found.
+ */
+@Slf4j
+@Component
+public class StaleReadGuard {
+
+    public static final String STALE_AS_OF_ATTRIBUTE = StaleReadGuard.class.getName() + ".staleAsOf";
+
+    private final Map<Long, BeerDTO> catalog = new ConcurrentSkipListMap<>();
+    private final Map<String, Long> idsByName = new ConcurrentHashMap<>();
+    private final AtomicBoolean refreshing = new AtomicBoolean();
+    private final AtomicInteger consecutiveFailures = new AtomicInteger();
+    private final BeerMapper beerMapper = BeerMapper.INSTANCE;
+    private final Clock clock = Clock.systemUTC();
+    private final BeerRepository beerRepository;
+    private final ShardRouter shardRouter;
+    private final StaleReadsProperties properties;
+    private final ThreadPoolExecutor executor;
+    private volatile Instant loadedAt;
+    private volatile long openUntilNanos;
+
+    @Autowired
+    public StaleReadGuard(StaleReadsProperties properties, BeerRepository beerRepository, ShardRouter shardRouter) {
+        this.properties = properties;
+        this.beerRepository = beerRepository;
+        this.shardRouter = shardRouter;
+        AtomicInteger threads = new AtomicInteger();
+        this.executor = !properties.isEnabled() ? null : new ThreadPoolExecutor(
+                properties.getMaxConcurrentReads(), properties.getMaxConcurrentReads(),
+                0L, TimeUnit.MILLISECONDS,
+                new ArrayBlockingQueue<>(properties.getQueueCapacity()),
+                runnable -> {
+                    Thread thread = new Thread(runnable, "stale-read-" + threads.getAndIncrement());
+                    thread.setDaemon(true);
+                    return thread;
+                });
+    }
+
+    public <T> T read(Supplier<T> live, Supplier<T> stale) {
+        if (!properties.isEnabled() || loadedAt == null) {
+            return live.get();
+        }
+        if (System.nanoTime() - openUntilNanos < 0) {
+            return serveStale(stale, "open");
+        }
+        Future<T> result;
+        try {
+            result = executor.submit(pinnedLikeCaller(live));
+        } catch (RejectedExecutionException e) {
+            return serveStale(stale, "rejected");
+        }
+        try {
+            T value = result.get(properties.getLatencyBudget().toNanos(), TimeUnit.NANOSECONDS);
+            consecutiveFailures.set(0);
+            return value;
+        } catch (TimeoutException e) {
+            recordFailure();
+            return serveStale(stale, "timeout");
+        } catch (ExecutionException e) {
+            recordFailure();
+            log.debug("Catalog read failed, serving the last-known-good catalog", e.getCause());
+            return serveStale(stale, "error");
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            return serveStale(stale, "interrupted");
+        }
+    }
+
+    public Optional<BeerDTO> snapshotByName(String name) {
+        Long id = idsByName.get(name);
+        BeerDTO beer = id == null ? null : catalog.get(id);
+        if (beer == null) {
+            throw new CatalogUnavailableException(name);
+        }
+        return Optional.of(copyOf(beer));
+    }
+
+    public List<BeerDTO> snapshotCatalog() {
+        List<BeerDTO> beers = new ArrayList<>(catalog.size());
+        catalog.values().forEach(beer -> beers.add(copyOf(beer)));
+        return beers;
+    }
+
+    @EventListener(ApplicationReadyEvent.class)
+    @Scheduled(fixedDelayString = "${beerstock.stale-reads.refresh-interval:PT5S}")
+    public void refresh() {
+        if (properties.isEnabled() && refreshing.compareAndSet(false, true)) {
+            try {
+                executor.execute(this::reload);
+            } catch (RejectedExecutionException e) {
+                refreshing.set(false);
+            }
+        }
+    }
+
+    @EventListener
+    public void onBeerChanged(BeerChangedEvent event) {
+        if (!properties.isEnabled()) {
+            return;
+        }
+        BeerDTO current = event.getCurrent();
+        BeerDTO removed = current == null ? catalog.remove(event.getBeerId()) : catalog.put(current.getId(), copyOf(current));
+        if (removed != null && (current == null || !removed.getName().equals(current.getName()))) {
+            idsByName.remove(removed.getName(), removed.getId());
+        }
+        if (current != null) {
+            idsByName.put(current.getName(), current.getId());
+        }
+    }
+
+    @PreDestroy
+    public void shutdown() {
+        if (executor != null) {
+            executor.shutdownNow();
+        }
+    }
+
+    void reload() {
+        try {
+            List<Beer> beers = shardRouter.scatter(beerRepository::findAll);
+            Map<Long, BeerDTO> loaded = new ConcurrentSkipListMap<>();
+            beers.forEach(beer -> loaded.put(beer.getId(), beerMapper.toDTO(beer)));
+            catalog.keySet().retainAll(loaded.keySet());
+            catalog.putAll(loaded);
+            idsByName.clear();
+            loaded.values().forEach(beer -> idsByName.put(beer.getName(), beer.getId()));
+            loadedAt = clock.instant();
+            consecutiveFailures.set(0);
+            openUntilNanos = System.nanoTime();
+        } catch (RuntimeException e) {
+            log.warn("Could not refresh the last-known-good catalog", e);
+        } finally {
+            refreshing.set(false);
+        }
+    }
+
+    private <T> Callable<T> pinnedLikeCaller(Supplier<T> live) {
+        if (!ReadRouting.isPrimaryPinned()) {
+            return live::get;
+        }
+        return () -> {
+            try (ReadRouting.Scope primary = ReadRouting.pinToPrimary()) {
+                return live.get();
+            }
+        };
+    }
+
+    private void recordFailure() {
+        if (consecutiveFailures.incrementAndGet() >= properties.getFailureThreshold()) {
+            consecutiveFailures.set(0);
+            openUntilNanos = System.nanoTime() + properties.getOpenDuration().toNanos();
+            log.warn("Catalog reads are slow or failing, serving the last-known-good catalog for {}", properties.getOpenDuration());
+        }
+    }
+
+    private <T> T serveStale(Supplier<T> stale, String reason) {
+        Metrics.counter("beerstock.stale.reads", "reason", reason).increment();
+        RequestAttributes requestAttributes = RequestContextHolder.getRequestAttributes();
+        if (requestAttributes != null) {
+            requestAttributes.setAttribute(STALE_AS_OF_ATTRIBUTE, loadedAt, RequestAttributes.SCOPE_REQUEST);
+        }
+        return stale.get();
+    }
+
+    private BeerDTO copyOf(BeerDTO beerDTO) {
+        return new BeerDTO(beerDTO.getId(), beerDTO.getName(), beerDTO.getBrand(), beerDTO.getMax(), beerDTO.getQuantity(), beerDTO.getType());
+    }
+}
@@ -0,0 +1,18 @@
+package one.digitalinnovation.beerstock.search;
+
+import lombok.AllArgsConstructor;
+import lombok.Data;
+
+/**
+ * The columns of a beer the suggestion index needs, read with a constructor expression so a
+ * reload pages through the table without managed entities or second-level cache traffic.
+ */
+@Data
+@AllArgsConstructor
+public class BeerLabel {
+
+    private final Long id;
+    private final String name;
+    private final String brand;
+    private final long version;
+}
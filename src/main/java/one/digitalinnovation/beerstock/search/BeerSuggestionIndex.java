@@ -0,0 +1,192 @@
+package one.digitalinnovation.beerstock.search;
+
+import one.digitalinnovation.beerstock.dto.BeerDTO;
+import one.digitalinnovation.beerstock.dto.BeerSuggestionDTO;
+import one.digitalinnovation.beerstock.event.BeerChangedEvent;
+import one.digitalinnovation.beerstock.replica.ReadRouting;
+import one.digitalinnovation.beerstock.repository.BeerRepository;
+import one.digitalinnovation.beerstock.sharding.ShardRouter;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.data.domain.Pageable;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+
+import java.text.Normalizer;
+import java.util.ArrayList;
+import java.util.HashSet;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.NavigableMap;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentSkipListMap;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.regex.Pattern;
+
+/**
+ * Prefix index over beer names and brands. Keys are lower cased and stripped of accents, and
+ * suffixed with the beer id so equal names and brands of different beers can coexist; a prefix
+ * query is a range scan over the sorted keys that stops after the requested number of beers.
+ * Local changes are applied as they happen; changes made by other nodes are picked up by reloading
+ * the index from the primaries every reload interval, a page of names and brands at a time. Every
+ * beer is indexed with the entity version it was read at, and its keys are swapped while its entry
+ * is locked, so concurrent changes and reloads of the same beer apply in version order and a
+ * reload never brings back a beer deleted while it was scanning.
+ */
+@Component
+public class BeerSuggestionIndex {
+
+    private static final Pattern COMBINING_MARKS = Pattern.compile("\\p{M}+");
+    private static final char KEY_SEPARATOR = '\u0000';
+    private static final char MAX_CHAR = '\uffff';
+    private static final int RELOAD_CHUNK_SIZE = 1000;
+
+    private final NavigableMap<String, BeerSuggestionDTO> suggestions = new ConcurrentSkipListMap<>();
+    private final Map<Long, Indexed> indexedById = new ConcurrentHashMap<>();
+    private final AtomicLong reloadPasses = new AtomicLong();
+    private final BeerRepository beerRepository;
+    private final ShardRouter shardRouter;
+
+    @Autowired
+    public BeerSuggestionIndex(BeerRepository beerRepository, ShardRouter shardRouter) {
+        this.beerRepository = beerRepository;
+        this.shardRouter = shardRouter;
+    }
+
+    @EventListener(ApplicationReadyEvent.class)
+    public void load() {
+        reload();
+    }
+
+    @Scheduled(fixedDelayString = "${beerstock.suggestions.reload-interval:PT10M}",
+            initialDelayString = "${beerstock.suggestions.reload-interval:PT10M}")
+    public void reload() {
+        try (ReadRouting.Scope primary = ReadRouting.pinToPrimary()) {
+            reloadFromPrimary();
+        }
+    }
+
+    @EventListener
+    public void onBeerChanged(BeerChangedEvent event) {
+        BeerDTO current = event.getCurrent();
+        Indexed next = current == null
+                ? Indexed.deleted(reloadPasses.get())
+                : new Indexed(new BeerSuggestionDTO(current.getId(), current.getName(), current.getBrand()), event.getVersion());
+        index(event.getBeerId(), next, false);
+    }
+
+    public List<BeerSuggestionDTO> suggest(String prefix, int limit) {
+        String foldedPrefix = fold(prefix);
+        Map<Long, BeerSuggestionDTO> matches = new LinkedHashMap<>();
+        for (BeerSuggestionDTO suggestion : suggestions.subMap(foldedPrefix, true, foldedPrefix + MAX_CHAR, true).values()) {
+            if (matches.size() == limit) {
+                break;
+            }
+            matches.putIfAbsent(suggestion.getId(), suggestion);
+        }
+        return new ArrayList<>(matches.values());
+    }
+
+    public int size() {
+        return (int) indexedById.values().stream().filter(indexed -> indexed.suggestion != null).count();
+    }
+
+    private void reloadFromPrimary() {
+        long pass = reloadPasses.getAndIncrement();
+        Set<Long> found = new HashSet<>();
+        for (int shard = 0; shard < shardRouter.shardCount(); shard++) {
+            try (ShardRouter.Scope scope = shardRouter.use(shard)) {
+                reloadShard(found);
+            }
+        }
+        for (Map.Entry<Long, Indexed> entry : indexedById.entrySet()) {
+            Long id = entry.getKey();
+            Indexed indexed = entry.getValue();
+            if (indexed.suggestion == null) {
+                if (indexed.deletedInPass < pass) {
+                    indexedById.remove(id, indexed);
+                }
+            } else if (!found.contains(id) && !existsOnShard(id)) {
+                index(id, Indexed.deleted(pass), true);
+            }
+        }
+    }
+
+    private void reloadShard(Set<Long> found) {
+        Pageable chunk = PageRequest.of(0, RELOAD_CHUNK_SIZE);
+        long after = 0;
+        List<BeerLabel> labels;
+        do {
+            labels = beerRepository.findLabelsAfter(after, chunk);
+            for (BeerLabel label : labels) {
+                found.add(label.getId());
+                Indexed actual = new Indexed(new BeerSuggestionDTO(label.getId(), label.getName(), label.getBrand()), label.getVersion());
+                Indexed indexed = indexedById.get(label.getId());
+                if (indexed == null || indexed.version < actual.version) {
+                    index(label.getId(), actual, false);
+                } else if (indexed.version == actual.version && !actual.suggestion.equals(indexed.suggestion)) {
+                    index(label.getId(), actual, true);
+                }
+                after = label.getId();
+            }
+        } while (labels.size() == chunk.getPageSize());
+    }
+
+    private boolean existsOnShard(Long id) {
+        try (ShardRouter.Scope scope = shardRouter.use(shardRouter.shardForId(id))) {
+            return beerRepository.existsById(id);
+        }
+    }
+
+    private void index(Long id, Indexed next, boolean force) {
+        indexedById.compute(id, (key, previous) -> {
+            if (previous != null && !force && previous.version >= next.version) {
+                return previous;
+            }
+            if (previous != null && previous.suggestion != null) {
+                suggestions.remove(key(previous.suggestion.getName(), id));
+                suggestions.remove(key(previous.suggestion.getBrand(), id));
+            }
+            if (next.suggestion != null) {
+                suggestions.put(key(next.suggestion.getName(), id), next.suggestion);
+                suggestions.put(key(next.suggestion.getBrand(), id), next.suggestion);
+            }
+            return next;
+        });
+    }
+
+    static String fold(String text) {
+        String decomposed = Normalizer.normalize(text, Normalizer.Form.NFD);
+        return COMBINING_MARKS.matcher(decomposed).replaceAll("").toLowerCase(Locale.ROOT);
+    }
+
+    private static String key(String text, Long id) {
+        return fold(text) + KEY_SEPARATOR + id;
+    }
+
+    private static final class Indexed {
+
+        private final BeerSuggestionDTO suggestion;
+        private final long version;
+        private final long deletedInPass;
+
+        Indexed(BeerSuggestionDTO suggestion, long version) {
+            this(suggestion, version, 0);
+        }
+
+        private Indexed(BeerSuggestionDTO suggestion, long version, long deletedInPass) {
+            this.suggestion = suggestion;
+            this.version = version;
+            this.deletedInPass = deletedInPass;
+        }
+
+        static Indexed deleted(long pass) {
+            return new Indexed(null, BeerChangedEvent.DELETED_VERSION, pass);
+        }
+    }
+}
@@ -1,74 +1,439 @@
 package one.digitalinnovation.beerstock.service;
 
 import lombok.AllArgsConstructor;
+import one.digitalinnovation.beerstock.cache.BeerCache;
+import one.digitalinnovation.beerstock.dto.BeerChangesDTO;
 import one.digitalinnovation.beerstock.dto.BeerDTO;
+import one.digitalinnovation.beerstock.dto.BeerLookupResultDTO;
+import one.digitalinnovation.beerstock.dto.BeerStockDTO;
+import one.digitalinnovation.beerstock.dto.BeerSuggestionDTO;
+import one.digitalinnovation.beerstock.dto.InventoryStatsDTO;
+import one.digitalinnovation.beerstock.dto.ReplenishmentPlanDTO;
 import one.digitalinnovation.beerstock.entity.Beer;
+import one.digitalinnovation.beerstock.entity.BeerStock;
+import one.digitalinnovation.beerstock.entity.BeerStockId;
+import one.digitalinnovation.beerstock.entity.BeerTombstone;
+import one.digitalinnovation.beerstock.event.BeerChangedEvent;
 import one.digitalinnovation.beerstock.exception.BeerAlreadyRegisteredException;
 import one.digitalinnovation.beerstock.exception.BeerNotFoundException;
 import one.digitalinnovation.beerstock.exception.BeerStockExceededException;
+import one.digitalinnovation.beerstock.exception.ChangeFeedExpiredException;
+import one.digitalinnovation.beerstock.exception.InvalidLocationException;
+import one.digitalinnovation.beerstock.jfr.BeerOperationEvent;
 import one.digitalinnovation.beerstock.mapper.BeerMapper;
+import one.digitalinnovation.beerstock.outbox.BeerOutbox;
+import one.digitalinnovation.beerstock.planning.ReplenishmentPlanner;
+import one.digitalinnovation.beerstock.replica.ReadRouting;
 import one.digitalinnovation.beerstock.repository.BeerRepository;
+import one.digitalinnovation.beerstock.repository.BeerStockRepository;
+import one.digitalinnovation.beerstock.repository.BeerTombstoneRepository;
+import one.digitalinnovation.beerstock.resilience.StaleReadGuard;
+import one.digitalinnovation.beerstock.search.BeerSuggestionIndex;
+import one.digitalinnovation.beerstock.sharding.ShardRouter;
+import one.digitalinnovation.beerstock.stats.InventoryStatistics;
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.dao.DataIntegrityViolationException;
+import org.springframework.dao.OptimisticLockingFailureException;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.data.domain.Pageable;
 import org.springframework.stereotype.Service;
 
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.LinkedHashSet;
 import java.util.List;
+import java.util.Map;
 import java.util.Optional;
+import java.util.Set;
+import java.util.TreeMap;
+import java.util.function.UnaryOperator;
 import java.util.stream.Collectors;
 
 @Service
 @AllArgsConstructor(onConstructor = @__(@Autowired))
 public class BeerService {
 
+    private static final int MAX_STOCK_UPDATE_ATTEMPTS = 5;
+    private static final int LOOKUP_CHUNK_SIZE = 500;
+    private static final int MAX_SUGGESTIONS = 50;
+    private static final int MAX_CHANGES = 1000;
+
     private final BeerRepository beerRepository;
+    private final BeerTombstoneRepository beerTombstoneRepository;
+    private final BeerStockRepository beerStockRepository;
+    private final StockMutationLanes stockMutationLanes;
+    private final ChangeSequencer changeSequencer;
+    private final BeerOutbox beerOutbox;
+    private final BeerCache beerCache;
+    private final BeerSuggestionIndex beerSuggestionIndex;
+    private final InventoryStatistics inventoryStatistics;
+    private final ReplenishmentPlanner replenishmentPlanner;
+    private final ShardRouter shardRouter;
+    private final StaleReadGuard staleReadGuard;
+    private final ApplicationEventPublisher eventPublisher;
     private final BeerMapper beerMapper = BeerMapper.INSTANCE;
+    private final SingleFlight<String, Optional<Beer>> findByNameFlight = new SingleFlight<>("find-by-name", UnaryOperator.identity());
+    private final SingleFlight<String, Optional<Beer>> findByNamePrimaryFlight = new SingleFlight<>("find-by-name-primary", UnaryOperator.identity());
+    private final SingleFlight<Long, Optional<Beer>> findByIdFlight = new SingleFlight<>("find-by-id", beer -> beer.map(beerMapper::copyOf));
+    private final SingleFlight<Long, Optional<Beer>> findByIdPrimaryFlight = new SingleFlight<>("find-by-id-primary", beer -> beer.map(beerMapper::copyOf));
 
     public BeerDTO createBeer(BeerDTO beerDTO) throws BeerAlreadyRegisteredException {
-        verifyIfIsAlreadyRegistered(beerDTO.getName());
-        Beer beer = beerMapper.toModel(beerDTO);
-        Beer savedBeer = beerRepository.save(beer);
-        return beerMapper.toDTO(savedBeer);
+        BeerOperationEvent event = BeerOperationEvent.begin(BeerOperationEvent.CREATE, null, beerDTO.getName(), beerDTO.getQuantity());
+        try {
+            return event.completed(create(beerDTO));
+        } catch (RuntimeException | BeerAlreadyRegisteredException e) {
+            event.failed(e);
+            throw e;
+        }
     }
 
     public BeerDTO findByName(String name) throws BeerNotFoundException {
-        Beer foundBeer = beerRepository.findByName(name)
-                .orElseThrow(() -> new BeerNotFoundException(name));
-        return beerMapper.toDTO(foundBeer);
+        BeerOperationEvent event = BeerOperationEvent.begin(BeerOperationEvent.FIND_BY_NAME, null, name, 0);
+        try {
+            return event.completed(find(name));
+        } catch (RuntimeException | BeerNotFoundException e) {
+            event.failed(e);
+            throw e;
+        }
+    }
+
+    public BeerLookupResultDTO lookupByNames(List<String> names) {
+        Set<String> distinctNames = new LinkedHashSet<>(names);
+        Map<String, BeerDTO> foundBeers = new HashMap<>();
+        Map<Integer, List<String>> namesToQueryByShard = new TreeMap<>();
+        for (String name : distinctNames) {
+            Optional<BeerDTO> cachedBeer = beerCache.get(name);
+            if (cachedBeer.isPresent()) {
+                foundBeers.put(name, cachedBeer.get());
+            } else {
+                namesToQueryByShard.computeIfAbsent(shardRouter.shardForName(name), shard -> new ArrayList<>()).add(name);
+            }
+        }
+        namesToQueryByShard.forEach((shard, namesToQuery) -> {
+            try (ShardRouter.Scope scope = shardRouter.use(shard)) {
+                for (int from = 0; from < namesToQuery.size(); from += LOOKUP_CHUNK_SIZE) {
+                    List<String> chunk = namesToQuery.subList(from, Math.min(from + LOOKUP_CHUNK_SIZE, namesToQuery.size()));
+                    for (Beer beer : beerRepository.findByNameIn(chunk)) {
+                        beerCache.put(beer);
+                        foundBeers.put(beer.getName(), beerMapper.toDTO(beer));
+                    }
+                }
+            }
+        });
+        List<BeerDTO> beers = new ArrayList<>(foundBeers.size());
+        List<String> notFound = new ArrayList<>();
+        for (String name : distinctNames) {
+            BeerDTO beerDTO = foundBeers.get(name);
+            if (beerDTO != null) {
+                beers.add(beerDTO);
+            } else {
+                notFound.add(name);
+            }
+        }
+        return new BeerLookupResultDTO(beers, notFound);
+    }
+
+    public List<BeerSuggestionDTO> suggest(String prefix, int limit) {
+        return beerSuggestionIndex.suggest(prefix, Math.max(1, Math.min(limit, MAX_SUGGESTIONS)));
+    }
+
+    public InventoryStatsDTO stats() {
+        return inventoryStatistics.snapshot();
+    }
+
+    public ReplenishmentPlanDTO replenishmentPlan() {
+        return replenishmentPlanner.latest();
+    }
+
+    public BeerChangesDTO changesSince(long since, int limit) throws ChangeFeedExpiredException {
+        if (since > 0 && since < changeSequencer.retainedSince()) {
+            throw new ChangeFeedExpiredException(since);
+        }
+        Pageable page = PageRequest.of(0, Math.max(1, Math.min(limit, MAX_CHANGES)));
+        long visibleLimit = changeSequencer.visibleLimit();
+        List<Beer> changedBeers;
+        List<BeerTombstone> tombstones;
+        try (ReadRouting.Scope primary = ReadRouting.pinToPrimary()) {
+            changedBeers = shardRouter.scatter(() -> beerRepository
+                    .findByChangeSeqGreaterThanAndChangeSeqLessThanOrderByChangeSeq(since, visibleLimit, page));
+            tombstones = shardRouter.scatter(() -> beerTombstoneRepository
+                    .findByChangeSeqGreaterThanAndChangeSeqLessThanOrderByChangeSeq(since, visibleLimit, page));
+        }
+        changedBeers.sort(Comparator.comparingLong(Beer::getChangeSeq));
+        tombstones.sort(Comparator.comparingLong(BeerTombstone::getChangeSeq));
+        List<BeerDTO> changed = new ArrayList<>();
+        List<Long> deleted = new ArrayList<>();
+        long highWaterMark = since;
+        int beerIndex = 0;
+        int tombstoneIndex = 0;
+        while (changed.size() + deleted.size() < page.getPageSize()
+                && (beerIndex < changedBeers.size() || tombstoneIndex < tombstones.size())) {
+            Beer beer = beerIndex < changedBeers.size() ? changedBeers.get(beerIndex) : null;
+            BeerTombstone tombstone = tombstoneIndex < tombstones.size() ? tombstones.get(tombstoneIndex) : null;
+            if (tombstone == null || (beer != null && beer.getChangeSeq() < tombstone.getChangeSeq())) {
+                changed.add(beerMapper.toDTO(beer));
+                highWaterMark = beer.getChangeSeq();
+                beerIndex++;
+            } else {
+                deleted.add(tombstone.getBeerId());
+                highWaterMark = tombstone.getChangeSeq();
+                tombstoneIndex++;
+            }
+        }
+        boolean hasMore = beerIndex < changedBeers.size() || tombstoneIndex < tombstones.size()
+                || changedBeers.size() >= page.getPageSize() || tombstones.size() >= page.getPageSize();
+        return new BeerChangesDTO(changed, deleted, highWaterMark, hasMore);
     }
 
     public List<BeerDTO> listAll() {
-        return beerRepository.findAll()
+        return staleReadGuard.read(this::listAllLive, staleReadGuard::snapshotCatalog);
+    }
+
+    private List<BeerDTO> listAllLive() {
+        return shardRouter.scatter(beerRepository::findAll)
                 .stream()
+                .sorted(Comparator.comparing(Beer::getId))
                 .map(beerMapper::toDTO)
                 .collect(Collectors.toList());
     }
 
     public void deleteById(Long id) throws BeerNotFoundException {
-        verifyIfExists(id);
-        beerRepository.deleteById(id);
+        try (ChangeSequencer.Ticket changeSeq = changeSequencer.next()) {
+            shardRouter.inTransaction(shardRouter.shardForId(id), () -> {
+                if (beerRepository.deleteBeerById(id) == 0) {
+                    throw new BeerNotFoundException(id);
+                }
+                beerStockRepository.deleteByBeerIdIn(List.of(id));
+                beerOutbox.recordDeleted(id);
+                return beerTombstoneRepository.save(new BeerTombstone(id, changeSeq.getValue()));
+            });
+        }
+        eventPublisher.publishEvent(BeerChangedEvent.deleted(id));
+    }
+
+    public int deleteAllById(List<Long> ids) {
+        Map<Integer, List<Long>> idsByShard = new TreeMap<>();
+        for (Long id : new LinkedHashSet<>(ids)) {
+            idsByShard.computeIfAbsent(shardRouter.shardForId(id), shard -> new ArrayList<>()).add(id);
+        }
+        List<Long> deletedIds = new ArrayList<>();
+        for (Map.Entry<Integer, List<Long>> shardIds : idsByShard.entrySet()) {
+            deletedIds.addAll(deleteOnShard(shardIds.getKey(), shardIds.getValue()));
+        }
+        deletedIds.forEach(id -> eventPublisher.publishEvent(BeerChangedEvent.deleted(id)));
+        return deletedIds.size();
+    }
+
+    private List<Long> deleteOnShard(int shard, List<Long> ids) {
+        List<ChangeSequencer.Ticket> changeSeqs = new ArrayList<>();
+        try {
+            return shardRouter.inTransaction(shard, () -> {
+                List<Long> existingIds = beerRepository.findByIdInForUpdate(ids)
+                        .stream()
+                        .map(Beer::getId)
+                        .sorted()
+                        .collect(Collectors.toList());
+                if (existingIds.isEmpty()) {
+                    return existingIds;
+                }
+                List<BeerTombstone> tombstones = new ArrayList<>(existingIds.size());
+                for (Long existingId : existingIds) {
+                    ChangeSequencer.Ticket changeSeq = changeSequencer.next();
+                    changeSeqs.add(changeSeq);
+                    tombstones.add(new BeerTombstone(existingId, changeSeq.getValue()));
+                }
+                beerRepository.deleteBeersByIdIn(existingIds);
+                beerStockRepository.deleteByBeerIdIn(existingIds);
+                existingIds.forEach(beerOutbox::recordDeleted);
+                beerTombstoneRepository.saveAll(tombstones);
+                return existingIds;
+            });
+        } finally {
+            changeSeqs.forEach(ChangeSequencer.Ticket::close);
+        }
     }
+
     public BeerDTO increment(Long id, int quantityToIncrement) throws BeerNotFoundException, BeerStockExceededException {
-        Beer beerToIncrement = verifyIfExists(id);
-        int newQuantity = beerToIncrement.getQuantity() + quantityToIncrement;
-        if (newQuantity <= beerToIncrement.getMax()) {
-            beerToIncrement.setQuantity(newQuantity);
-            Beer incrementedBeer = beerRepository.save(beerToIncrement);
-            return beerMapper.toDTO(incrementedBeer);
+        BeerOperationEvent event = BeerOperationEvent.begin(BeerOperationEvent.INCREMENT, id, null, quantityToIncrement);
+        try {
+            return event.completed(incrementStock(id, quantityToIncrement));
+        } catch (RuntimeException | BeerNotFoundException | BeerStockExceededException e) {
+            event.failed(e);
+            throw e;
         }
-        throw new BeerStockExceededException(id, quantityToIncrement);
     }
 
     public BeerDTO decrement(Long id, int quantityToDecrement) throws BeerNotFoundException, BeerStockExceededException {
-        if (quantityToDecrement <= 0) {
-            quantityToDecrement *= -1;
+        BeerOperationEvent event = BeerOperationEvent.begin(BeerOperationEvent.DECREMENT, id, null, -Math.abs(quantityToDecrement));
+        try {
+            return event.completed(decrementStock(id, quantityToDecrement));
+        } catch (RuntimeException | BeerNotFoundException | BeerStockExceededException e) {
+            event.failed(e);
+            throw e;
+        }
+    }
+
+    public List<BeerStockDTO> listLocations(Long id) throws BeerNotFoundException {
+        try (ShardRouter.Scope scope = shardRouter.use(shardRouter.shardForId(id))) {
+            Beer beer = beerRepository.findById(id).orElseThrow(() -> new BeerNotFoundException(id));
+            return beerStockRepository.findByBeerIdOrderByLocation(id)
+                    .stream()
+                    .map(stock -> new BeerStockDTO(id, stock.getLocation(), stock.getQuantity(), beer.getQuantity()))
+                    .collect(Collectors.toList());
         }
-        Beer beerToDecrement = verifyIfExists(id);
-        int newQuantity = beerToDecrement.getQuantity() - quantityToDecrement;
-        if (newQuantity >= 0) {
-            beerToDecrement.setQuantity(newQuantity);
-            Beer decrementedBeer = beerRepository.save(beerToDecrement);
-            return beerMapper.toDTO(decrementedBeer);
+    }
+
+    public BeerStockDTO incrementAt(Long id, String location, int quantityToIncrement)
+            throws BeerNotFoundException, BeerStockExceededException, InvalidLocationException {
+        return adjustAt(id, location, quantityToIncrement);
+    }
+
+    public BeerStockDTO decrementAt(Long id, String location, int quantityToDecrement)
+            throws BeerNotFoundException, BeerStockExceededException, InvalidLocationException {
+        return adjustAt(id, location, -Math.abs(quantityToDecrement));
+    }
+
+    private BeerDTO create(BeerDTO beerDTO) throws BeerAlreadyRegisteredException {
+        Beer beer = beerMapper.toModel(beerDTO);
+        Beer savedBeer;
+        try (ChangeSequencer.Ticket changeSeq = changeSequencer.next();
+             ReadRouting.Scope primary = ReadRouting.pinToPrimary()) {
+            beer.setChangeSeq(changeSeq.getValue());
+            savedBeer = shardRouter.inTransaction(shardRouter.shardForName(beerDTO.getName()), () -> {
+                verifyIfIsAlreadyRegistered(beerDTO.getName());
+                Beer created = beerRepository.save(beer);
+                beerOutbox.recordCreated(created);
+                return created;
+            });
         }
-        throw new BeerStockExceededException(id, quantityToDecrement);
+        BeerDTO savedBeerDTO = beerMapper.toDTO(savedBeer);
+        eventPublisher.publishEvent(BeerChangedEvent.created(savedBeerDTO, savedBeer.getVersion()));
+        return savedBeerDTO;
+    }
+
+    private BeerDTO find(String name) throws BeerNotFoundException {
+        Optional<BeerDTO> cachedBeer = beerCache.get(name);
+        if (cachedBeer.isPresent()) {
+            return cachedBeer.get();
+        }
+        return staleReadGuard.read(() -> findByNameLive(name), () -> staleReadGuard.snapshotByName(name))
+                .orElseThrow(() -> new BeerNotFoundException(name));
+    }
+
+    private BeerDTO incrementStock(Long id, int quantityToIncrement) throws BeerNotFoundException, BeerStockExceededException {
+        if (stockMutationLanes.isEnabled()) {
+            return stockMutationLanes.apply(id, quantityToIncrement);
+        }
+        return retryOnConflict(id, () -> {
+            Beer beerToIncrement = verifyIfExists(id);
+            int newQuantity = beerToIncrement.getQuantity() + quantityToIncrement;
+            if (newQuantity <= beerToIncrement.getMax()) {
+                return updateQuantity(beerToIncrement, newQuantity);
+            }
+            throw new BeerStockExceededException(id, quantityToIncrement);
+        });
+    }
+
+    private BeerDTO decrementStock(Long id, int quantityToDecrement) throws BeerNotFoundException, BeerStockExceededException {
+        int quantity = Math.abs(quantityToDecrement);
+        if (stockMutationLanes.isEnabled()) {
+            return stockMutationLanes.apply(id, -quantity);
+        }
+        return retryOnConflict(id, () -> {
+            Beer beerToDecrement = verifyIfExists(id);
+            int newQuantity = beerToDecrement.getQuantity() - quantity;
+            if (newQuantity >= 0 && newQuantity >= beerStockRepository.sumQuantityByBeerId(id)) {
+                return updateQuantity(beerToDecrement, newQuantity);
+            }
+            throw new BeerStockExceededException(id, quantity);
+        });
+    }
+
+    private BeerStockDTO adjustAt(Long id, String location, int delta)
+            throws BeerNotFoundException, BeerStockExceededException, InvalidLocationException {
+        if (location.isBlank() || location.length() > BeerStock.MAX_LOCATION_LENGTH) {
+            throw new InvalidLocationException(location, BeerStock.MAX_LOCATION_LENGTH);
+        }
+        for (int attempt = 1; ; attempt++) {
+            try (ChangeSequencer.Ticket changeSeq = changeSequencer.next()) {
+                BeerStock[] adjustedStock = new BeerStock[1];
+                Beer beer = shardRouter.inTransaction(shardRouter.shardForId(id), () -> {
+                    Optional<Beer> optBeer = beerRepository.findByIdForUpdate(id);
+                    if (optBeer.isEmpty()) {
+                        return null;
+                    }
+                    Beer adjustedBeer = optBeer.get();
+                    int newQuantity = adjustedBeer.getQuantity() + delta;
+                    BeerStock stock = beerStockRepository.findById(new BeerStockId(id, location))
+                            .orElseGet(() -> new BeerStock(id, location, 0, null));
+                    if (stock.getQuantity() + delta < 0 || newQuantity < 0 || newQuantity > adjustedBeer.getMax()) {
+                        throw new BeerStockExceededException(id, Math.abs(delta));
+                    }
+                    stock.setQuantity(stock.getQuantity() + delta);
+                    adjustedStock[0] = beerStockRepository.save(stock);
+                    adjustedBeer.setQuantity(newQuantity);
+                    adjustedBeer.setChangeSeq(changeSeq.getValue());
+                    beerRepository.saveAndFlush(adjustedBeer);
+                    beerOutbox.recordUpdated(adjustedBeer, newQuantity - delta);
+                    return adjustedBeer;
+                });
+                if (beer == null) {
+                    throw new BeerNotFoundException(id);
+                }
+                BeerDTO adjustedBeerDTO = beerMapper.toDTO(beer);
+                BeerDTO previousBeerDTO = beerMapper.toDTO(beer);
+                previousBeerDTO.setQuantity(beer.getQuantity() - delta);
+                eventPublisher.publishEvent(BeerChangedEvent.updated(previousBeerDTO, adjustedBeerDTO, beer.getVersion()));
+                return new BeerStockDTO(id, location, adjustedStock[0].getQuantity(), beer.getQuantity());
+            } catch (OptimisticLockingFailureException | DataIntegrityViolationException e) {
+                if (attempt == MAX_STOCK_UPDATE_ATTEMPTS) {
+                    throw e;
+                }
+            }
+        }
+    }
+
+    private BeerDTO retryOnConflict(Long id, StockUpdate stockUpdate) throws BeerNotFoundException, BeerStockExceededException {
+        for (int attempt = 1; ; attempt++) {
+            try (ShardRouter.Scope scope = shardRouter.use(shardRouter.shardForId(id));
+                 ReadRouting.Scope primary = ReadRouting.pinToPrimary()) {
+                return stockUpdate.apply();
+            } catch (OptimisticLockingFailureException e) {
+                if (attempt == MAX_STOCK_UPDATE_ATTEMPTS) {
+                    throw e;
+                }
+            }
+        }
+    }
+
+    private BeerDTO updateQuantity(Beer beer, int newQuantity) {
+        BeerDTO previousBeerDTO = beerMapper.toDTO(beer);
+        beer.setQuantity(newQuantity);
+        Beer updatedBeer;
+        try (ChangeSequencer.Ticket changeSeq = changeSequencer.next()) {
+            beer.setChangeSeq(changeSeq.getValue());
+            updatedBeer = shardRouter.inTransaction(shardRouter.shardForId(beer.getId()), () -> {
+                Beer savedBeer = beerRepository.saveAndFlush(beer);
+                beerOutbox.recordUpdated(savedBeer, previousBeerDTO.getQuantity());
+                return savedBeer;
+            });
+        }
+        BeerDTO updatedBeerDTO = beerMapper.toDTO(updatedBeer);
+        eventPublisher.publishEvent(BeerChangedEvent.updated(previousBeerDTO, updatedBeerDTO, updatedBeer.getVersion()));
+        return updatedBeerDTO;
+    }
+
+    private Optional<BeerDTO> findByNameLive(String name) {
+        SingleFlight<String, Optional<Beer>> flight = ReadRouting.isPrimaryPinned() ? findByNamePrimaryFlight : findByNameFlight;
+        Optional<Beer> foundBeer = flight.execute(name, () -> {
+            try (ShardRouter.Scope scope = shardRouter.use(shardRouter.shardForName(name))) {
+                return beerRepository.findByName(name);
+            }
+        });
+        foundBeer.ifPresent(beerCache::put);
+        return foundBeer.map(beerMapper::toDTO);
     }
 
     private void verifyIfIsAlreadyRegistered(String name) throws BeerAlreadyRegisteredException {
@@ -79,8 +444,15 @@ public class BeerService {
     }
 
     private Beer verifyIfExists(Long id) throws BeerNotFoundException {
-        return beerRepository.findById(id)
+        SingleFlight<Long, Optional<Beer>> flight = ReadRouting.isPrimaryPinned() ? findByIdPrimaryFlight : findByIdFlight;
+        return flight.execute(id, () -> beerRepository.findById(id))
                 .orElseThrow(() -> new BeerNotFoundException(id));
     }
 
+    @FunctionalInterface
+    private interface StockUpdate {
+
+        BeerDTO apply() throws BeerNotFoundException, BeerStockExceededException;
+    }
+
 }
@@ -0,0 +1,103 @@
+package one.digitalinnovation.beerstock.service;
+
+import one.digitalinnovation.beerstock.config.ChangeFeedProperties;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.stereotype.Component;
+
+import java.time.Clock;
+import java.time.Duration;
+import java.time.Instant;
+import java.util.TreeSet;
+
+/**
+ * Hands out change sequence numbers and tracks the writes that hold one but have not finished.
+ * A number is the time it was handed out, in milliseconds, followed by a counter and the id of
+ * the node, so every node numbers its writes on its own without a database round trip or a lock
+ * shared with the others, and the numbers of all nodes still sort roughly by time. Every number
+ * below {@link #visibleLimit()} belongs to a write that has committed or given up: the writes of
+ * this process are tracked until they finish, and those of other nodes are assumed to finish
+ * within the safety lag, which must therefore exceed the longest write plus the clock skew
+ * between nodes. Tombstones older than the retention may be compacted away, so a client whose
+ * high-water mark is below {@link #retainedSince()} has to start over with a full sync.
+ */
+@Component
+public class ChangeSequencer {
+
+    private static final long EPOCH_MILLIS = Instant.parse("2020-01-01T00:00:00Z").toEpochMilli();
+    private static final int COUNTER_BITS = 12;
+    private static final int NODE_BITS = 8;
+    private static final int MAX_NODE_ID = (1 << NODE_BITS) - 1;
+
+    private final TreeSet<Long> pending = new TreeSet<>();
+    private final Clock clock;
+    private final long nodeId;
+    private final Duration safetyLag;
+    private final Duration tombstoneRetention;
+    private long lastTick;
+
+    @Autowired
+    public ChangeSequencer(ChangeFeedProperties properties) {
+        this(properties, Clock.systemUTC());
+    }
+
+    ChangeSequencer(ChangeFeedProperties properties, Clock clock) {
+        if (properties.getNodeId() < 0 || properties.getNodeId() > MAX_NODE_ID) {
+            throw new IllegalStateException("beerstock.change-feed.node-id must be between 0 and " + MAX_NODE_ID);
+        }
+        this.clock = clock;
+        this.nodeId = properties.getNodeId();
+        this.safetyLag = properties.getSafetyLag();
+        this.tombstoneRetention = properties.getTombstoneRetention();
+    }
+
+    public Ticket next() {
+        long now = clock.millis();
+        long value;
+        synchronized (this) {
+            lastTick = Math.max(lastTick + 1, tickAt(now));
+            value = lastTick << NODE_BITS | nodeId;
+            pending.add(value);
+        }
+        return new Ticket(value);
+    }
+
+    public long visibleLimit() {
+        long now = clock.millis();
+        long settled = tickAt(now - safetyLag.toMillis() + 1) << NODE_BITS;
+        synchronized (this) {
+            long unissued = Math.max(lastTick + 1, tickAt(now)) << NODE_BITS;
+            long limit = Math.min(settled, unissued);
+            return pending.isEmpty() ? limit : Math.min(limit, pending.first());
+        }
+    }
+
+    public long retainedSince() {
+        return tickAt(clock.millis() - tombstoneRetention.toMillis()) << NODE_BITS;
+    }
+
+    private static long tickAt(long millis) {
+        return Math.max(0, millis - EPOCH_MILLIS) << COUNTER_BITS;
+    }
+
+    private synchronized void finish(long value) {
+        pending.remove(value);
+    }
+
+    public final class Ticket implements AutoCloseable {
+
+        private final long value;
+
+        private Ticket(long value) {
+            this.value = value;
+        }
+
+        public long getValue() {
+            return value;
+        }
+
+        @Override
+        public void close() {
+            finish(value);
+        }
+    }
+}
@@ -0,0 +1,64 @@
+package one.digitalinnovation.beerstock.service;
+
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Metrics;
+
+import java.util.Map;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.function.Supplier;
+import java.util.function.UnaryOperator;
+
+/**
+ * Collapses concurrent loads of the same key into one: the first caller runs the loader and every
+ * caller arriving while it is in flight waits for that result instead of running its own.
+ * Waiting callers receive the result through the given copier, so only the first caller holds
+ * the loaded instance itself.
+ */
+public class SingleFlight<K, V> {
+
+    private static final String METRIC_NAME = "beerstock.single.flight.requests";
+
+    private final Map<K, CompletableFuture<V>> inFlight = new ConcurrentHashMap<>();
+    private final UnaryOperator<V> copier;
+    private final Counter executed;
+    private final Counter coalesced;
+
+    public SingleFlight(String name, UnaryOperator<V> copier) {
+        this.copier = copier;
+        this.executed = Metrics.counter(METRIC_NAME, "name", name, "result", "executed");
+        this.coalesced = Metrics.counter(METRIC_NAME, "name", name, "result", "coalesced");
+    }
+
+    public V execute(K key, Supplier<V> loader) {
+        CompletableFuture<V> call = new CompletableFuture<>();
+        CompletableFuture<V> existingCall = inFlight.putIfAbsent(key, call);
+        if (existingCall != null) {
+            coalesced.increment();
+            return copier.apply(await(existingCall));
+        }
+        executed.increment();
+        try {
+            V value = loader.get();
+            call.complete(value);
+            return value;
+        } catch (RuntimeException e) {
+            call.completeExceptionally(e);
+            throw e;
+        } finally {
+            inFlight.remove(key, call);
+        }
+    }
+
+    private V await(CompletableFuture<V> call) {
+        try {
+            return call.join();
+        } catch (CompletionException e) {
+            if (e.getCause() instanceof RuntimeException) {
+                throw (RuntimeException) e.getCause();
+            }
+            throw e;
+        }
+    }
+}
@@ -0,0 +1,251 @@
+package one.digitalinnovation.beerstock.service;
+
+import one.digitalinnovation.beerstock.config.StockLanesProperties;
+import one.digitalinnovation.beerstock.dto.BeerDTO;
+import one.digitalinnovation.beerstock.entity.Beer;
+import one.digitalinnovation.beerstock.event.BeerChangedEvent;
+import one.digitalinnovation.beerstock.exception.BeerNotFoundException;
+import one.digitalinnovation.beerstock.exception.BeerStockExceededException;
+import one.digitalinnovation.beerstock.mapper.BeerMapper;
+import one.digitalinnovation.beerstock.outbox.BeerOutbox;
+import one.digitalinnovation.beerstock.repository.BeerRepository;
+import one.digitalinnovation.beerstock.repository.BeerStockRepository;
+import one.digitalinnovation.beerstock.sharding.ShardRouter;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.dao.OptimisticLockingFailureException;
+import org.springframework.stereotype.Component;
+
+import javax.annotation.PreDestroy;
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.atomic.AtomicBoolean;
+
+/**
+ * Routes every stock mutation of a beer to a single-writer lane picked by hashing its id.
+ * Mutations of different beers run in parallel, mutations of the same beer are applied in
+ * arrival order, and the deltas queued for a beer while its lane was busy are written at once.
+ * Writers outside the lanes, such as location adjustments, still update the same row, so a batch
+ * reads the beer under a row lock to wait for them, and is re-read and applied again if one that
+ * does not take the lock wins the optimistic check. A batch that fails in any other way fails
+ * all of its deltas without stalling the lane.
+ */
+@Component
+public class StockMutationLanes {
+
+    private static final int MAX_ATTEMPTS = 5;
+
+    private final BeerRepository beerRepository;
+    private final BeerStockRepository beerStockRepository;
+    private final ShardRouter shardRouter;
+    private final ChangeSequencer changeSequencer;
+    private final BeerOutbox beerOutbox;
+    private final ApplicationEventPublisher eventPublisher;
+    private final BeerMapper beerMapper = BeerMapper.INSTANCE;
+    private final boolean enabled;
+    private final Lane[] lanes;
+
+    @Autowired
+    public StockMutationLanes(BeerRepository beerRepository,
+                              BeerStockRepository beerStockRepository,
+                              ShardRouter shardRouter,
+                              ChangeSequencer changeSequencer,
+                              BeerOutbox beerOutbox,
+                              ApplicationEventPublisher eventPublisher,
+                              StockLanesProperties properties) {
+        this.beerRepository = beerRepository;
+        this.beerStockRepository = beerStockRepository;
+        this.shardRouter = shardRouter;
+        this.changeSequencer = changeSequencer;
+        this.beerOutbox = beerOutbox;
+        this.eventPublisher = eventPublisher;
+        this.enabled = properties.isEnabled();
+        this.lanes = new Lane[enabled ? Math.max(1, properties.getLanes()) : 0];
+        for (int i = 0; i < lanes.length; i++) {
+            lanes[i] = new Lane(i);
+        }
+    }
+
+    public boolean isEnabled() {
+        return enabled;
+    }
+
+    public BeerDTO apply(Long id, int delta) throws BeerNotFoundException, BeerStockExceededException {
+        try {
+            return submit(id, delta).join();
+        } catch (CompletionException e) {
+            Throwable cause = e.getCause();
+            if (cause instanceof BeerNotFoundException) {
+                throw (BeerNotFoundException) cause;
+            }
+            if (cause instanceof BeerStockExceededException) {
+                throw (BeerStockExceededException) cause;
+            }
+            if (cause instanceof RuntimeException) {
+                throw (RuntimeException) cause;
+            }
+            if (cause instanceof Error) {
+                throw (Error) cause;
+            }
+            throw e;
+        }
+    }
+
+    public CompletableFuture<BeerDTO> submit(Long id, int delta) {
+        PendingDelta pendingDelta = new PendingDelta(id, delta);
+        lanes[Math.floorMod(id.hashCode(), lanes.length)].enqueue(pendingDelta);
+        return pendingDelta.result;
+    }
+
+    @PreDestroy
+    public void shutdown() {
+        for (Lane lane : lanes) {
+            lane.executor.shutdown();
+        }
+    }
+
+    private void applyBatch(Long id, List<PendingDelta> batch) {
+        List<Runnable> completions = new ArrayList<>(batch.size());
+        List<BeerChangedEvent> events = new ArrayList<>(1);
+        try (ChangeSequencer.Ticket changeSeq = changeSequencer.next()) {
+            applyWithRetry(id, batch, changeSeq.getValue(), completions, events);
+        } catch (RuntimeException e) {
+            batch.forEach(pending -> pending.result.completeExceptionally(e));
+            return;
+        }
+        try {
+            events.forEach(eventPublisher::publishEvent);
+        } finally {
+            completions.forEach(Runnable::run);
+        }
+    }
+
+    private void applyWithRetry(Long id, List<PendingDelta> batch, long changeSeq,
+                                List<Runnable> completions, List<BeerChangedEvent> events) {
+        for (int attempt = 1; ; attempt++) {
+            try {
+                apply(id, batch, changeSeq, completions, events);
+                return;
+            } catch (OptimisticLockingFailureException e) {
+                if (attempt == MAX_ATTEMPTS) {
+                    throw e;
+                }
+            }
+        }
+    }
+
+    private void apply(Long id, List<PendingDelta> batch, long changeSeq,
+                       List<Runnable> completions, List<BeerChangedEvent> events) {
+        shardRouter.inTransaction(shardRouter.shardForId(id), () -> {
+            completions.clear();
+            events.clear();
+            Optional<Beer> optBeer = beerRepository.findByIdForUpdate(id);
+            if (optBeer.isEmpty()) {
+                BeerNotFoundException notFound = new BeerNotFoundException(id);
+                batch.forEach(pending -> completions.add(() -> pending.result.completeExceptionally(notFound)));
+                return null;
+            }
+            Beer beer = optBeer.get();
+            BeerDTO previousBeerDTO = beerMapper.toDTO(beer);
+            int quantity = beer.getQuantity();
+            long located = batch.stream().anyMatch(pending -> pending.delta < 0) ? beerStockRepository.sumQuantityByBeerId(id) : 0;
+            boolean changed = false;
+            for (PendingDelta pending : batch) {
+                int newQuantity = quantity + pending.delta;
+                if (newQuantity < 0 || newQuantity > beer.getMax() || (pending.delta < 0 && newQuantity < located)) {
+                    BeerStockExceededException exceeded = new BeerStockExceededException(id, Math.abs(pending.delta));
+                    completions.add(() -> pending.result.completeExceptionally(exceeded));
+                    continue;
+                }
+                quantity = newQuantity;
+                changed = true;
+                BeerDTO beerDTO = beerMapper.toDTO(beer);
+                beerDTO.setQuantity(quantity);
+                completions.add(() -> pending.result.complete(beerDTO));
+            }
+            if (changed) {
+                beer.setQuantity(quantity);
+                beer.setChangeSeq(changeSeq);
+                beerRepository.saveAndFlush(beer);
+                beerOutbox.recordUpdated(beer, previousBeerDTO.getQuantity());
+                events.add(BeerChangedEvent.updated(previousBeerDTO, beerMapper.toDTO(beer), beer.getVersion()));
+            }
+            return null;
+        });
+    }
+
+    private static class PendingDelta {
+
+        private final Long id;
+        private final int delta;
+        private final CompletableFuture<BeerDTO> result = new CompletableFuture<>();
+
+        PendingDelta(Long id, int delta) {
+            this.id = id;
+            this.delta = delta;
+        }
+    }
+
+    private class Lane {
+
+        private final ConcurrentLinkedQueue<PendingDelta> queue = new ConcurrentLinkedQueue<>();
+        private final AtomicBoolean scheduled = new AtomicBoolean();
+        private final ExecutorService executor;
+
+        Lane(int index) {
+            this.executor = Executors.newSingleThreadExecutor(runnable -> {
+                Thread thread = new Thread(runnable, "stock-lane-" + index);
+                thread.setDaemon(true);
+                return thread;
+            });
+        }
+
+        void enqueue(PendingDelta pendingDelta) {
+            queue.add(pendingDelta);
+            schedule();
+        }
+
+        private void schedule() {
+            if (scheduled.compareAndSet(false, true)) {
+                executor.execute(this::drain);
+            }
+        }
+
+        private void drain() {
+            Error error = null;
+            try {
+                Map<Long, List<PendingDelta>> batches = new LinkedHashMap<>();
+                PendingDelta pending;
+                while ((pending = queue.poll()) != null) {
+                    batches.computeIfAbsent(pending.id, key -> new ArrayList<>()).add(pending);
+                }
+                for (Map.Entry<Long, List<PendingDelta>> batch : batches.entrySet()) {
+                    try {
+                        applyBatch(batch.getKey(), batch.getValue());
+                    } catch (Throwable e) {
+                        batch.getValue().forEach(failed -> failed.result.completeExceptionally(e));
+                        if (e instanceof Error && error == null) {
+                            error = (Error) e;
+                        }
+                    }
+                }
+            } finally {
+                scheduled.set(false);
+                if (!queue.isEmpty()) {
+                    schedule();
+                }
+            }
+            if (error != null) {
+                throw error;
+            }
+        }
+    }
+}
@@ -0,0 +1,44 @@
+package one.digitalinnovation.beerstock.service;
+
+import lombok.extern.slf4j.Slf4j;
+import one.digitalinnovation.beerstock.repository.BeerTombstoneRepository;
+import one.digitalinnovation.beerstock.sharding.ShardRouter;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+
+/**
+ * Removes the tombstones of beers deleted longer ago than the change feed retention from every
+ * shard, so the table only holds the deletes a client that is still allowed to sync
+ * incrementally can ask for.
+ */
+@Slf4j
+@Component
+public class TombstoneCompactor {
+
+    private final BeerTombstoneRepository beerTombstoneRepository;
+    private final ChangeSequencer changeSequencer;
+    private final ShardRouter shardRouter;
+
+    @Autowired
+    public TombstoneCompactor(BeerTombstoneRepository beerTombstoneRepository, ChangeSequencer changeSequencer,
+                              ShardRouter shardRouter) {
+        this.beerTombstoneRepository = beerTombstoneRepository;
+        this.changeSequencer = changeSequencer;
+        this.shardRouter = shardRouter;
+    }
+
+    @Scheduled(fixedDelayString = "${beerstock.change-feed.compaction-interval:PT1H}",
+            initialDelayString = "${beerstock.change-feed.compaction-interval:PT1H}")
+    public int compact() {
+        long retainedSince = changeSequencer.retainedSince();
+        int removed = 0;
+        for (int shard = 0; shard < shardRouter.shardCount(); shard++) {
+            removed += shardRouter.inTransaction(shard, () -> beerTombstoneRepository.deleteByChangeSeqLessThan(retainedSince));
+        }
+        if (removed > 0) {
+            log.info("Compacted {} beer tombstones older than the change feed retention", removed);
+        }
+        return removed;
+    }
+}
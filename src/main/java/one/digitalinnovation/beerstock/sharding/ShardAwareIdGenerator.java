@@ -0,0 +1,39 @@
+package one.digitalinnovation.beerstock.sharding;
+
+import org.hibernate.MappingException;
+import org.hibernate.engine.config.spi.ConfigurationService;
+import org.hibernate.engine.spi.SharedSessionContractImplementor;
+import org.hibernate.id.enhanced.SequenceStyleGenerator;
+import org.hibernate.service.ServiceRegistry;
+import org.hibernate.type.Type;
+
+import java.io.Serializable;
+import java.util.Properties;
+
+/**
+ * Draws ids from a sequence of the shard the current thread is bound to and interleaves them, so
+ * that every id is unique across shards and {@link ShardRouter#shardForId} finds the shard again.
+ * With a single shard the ids are the plain sequence values.
+ */
+public class ShardAwareIdGenerator extends SequenceStyleGenerator {
+
+    private int shardCount = 1;
+
+    @Override
+    public void configure(Type type, Properties params, ServiceRegistry serviceRegistry) throws MappingException {
+        super.configure(type, params, serviceRegistry);
+        Object configuredShardCount = serviceRegistry.getService(ConfigurationService.class)
+                .getSettings()
+                .get(ShardRouter.SHARD_COUNT_SETTING);
+        if (configuredShardCount != null) {
+            shardCount = Integer.parseInt(configuredShardCount.toString());
+        }
+    }
+
+    @Override
+    public Serializable generate(SharedSessionContractImplementor session, Object object) {
+        long sequenceValue = ((Number) super.generate(session, object)).longValue();
+        Integer shard = ShardRouter.currentShard();
+        return ShardRouter.shardedId(sequenceValue, shard == null ? ShardRouter.SEQUENCE_SHARD : shard, shardCount);
+    }
+}
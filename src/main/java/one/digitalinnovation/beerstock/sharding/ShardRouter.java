@@ -0,0 +1,134 @@
+package one.digitalinnovation.beerstock.sharding;
+
+import org.springframework.transaction.support.TransactionOperations;
+
+import javax.annotation.PreDestroy;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.function.Supplier;
+
+/**
+ * Decides which shard holds a beer and binds the current thread to it, so that repository calls
+ * made while the binding is open run against that shard's datasource. A beer is placed on the
+ * shard picked by hashing its name, and its id is generated on that shard with the shard number
+ * encoded in it, so both a name and an id resolve to their shard without a lookup table.
+ */
+public class ShardRouter {
+
+    public static final String SHARD_COUNT_SETTING = "beerstock.sharding.shard-count";
+    public static final int SEQUENCE_SHARD = 0;
+
+    private static final ThreadLocal<Integer> CURRENT_SHARD = new ThreadLocal<>();
+
+    private final int shardCount;
+    private final TransactionOperations transactionOperations;
+    private final ExecutorService scatterExecutor;
+
+    public ShardRouter(int shardCount, TransactionOperations transactionOperations) {
+        this.shardCount = shardCount;
+        this.transactionOperations = transactionOperations;
+        AtomicInteger threads = new AtomicInteger();
+        this.scatterExecutor = shardCount == 1 ? null : Executors.newFixedThreadPool(shardCount, runnable -> {
+            Thread thread = new Thread(runnable, "shard-scatter-" + threads.getAndIncrement());
+            thread.setDaemon(true);
+            return thread;
+        });
+    }
+
+    public static Integer currentShard() {
+        return CURRENT_SHARD.get();
+    }
+
+    public static long shardedId(long sequenceValue, int shard, int shardCount) {
+        return (sequenceValue - 1) * shardCount + shard + 1;
+    }
+
+    public int shardCount() {
+        return shardCount;
+    }
+
+    public int shardForId(Long id) {
+        return (int) Math.floorMod(id - 1, (long) shardCount);
+    }
+
+    public int shardForName(String name) {
+        return Math.floorMod(name.hashCode(), shardCount);
+    }
+
+    public Scope use(int shard) {
+        Integer previous = CURRENT_SHARD.get();
+        CURRENT_SHARD.set(shard);
+        return () -> {
+            if (previous == null) {
+                CURRENT_SHARD.remove();
+            } else {
+                CURRENT_SHARD.set(previous);
+            }
+        };
+    }
+
+    @SuppressWarnings("unchecked")
+    public <T, E extends Exception> T inTransaction(int shard, ShardWork<T, E> work) throws E {
+        try (Scope scope = use(shard)) {
+            return transactionOperations.execute(status -> {
+                try {
+                    return work.call();
+                } catch (RuntimeException e) {
+                    throw e;
+                } catch (Exception e) {
+                    throw new CheckedWorkException(e);
+                }
+            });
+        } catch (CheckedWorkException e) {
+            throw (E) e.getCause();
+        }
+    }
+
+    public <T> List<T> scatter(Supplier<List<T>> query) {
+        if (shardCount == 1) {
+            return new ArrayList<>(query.get());
+        }
+        List<CompletableFuture<List<T>>> results = new ArrayList<>(shardCount);
+        for (int shard = 0; shard < shardCount; shard++) {
+            int target = shard;
+            results.add(CompletableFuture.supplyAsync(() -> {
+                try (Scope scope = use(target)) {
+                    return query.get();
+                }
+            }, scatterExecutor));
+        }
+        List<T> merged = new ArrayList<>();
+        results.forEach(result -> merged.addAll(result.join()));
+        return merged;
+    }
+
+    @PreDestroy
+    public void shutdown() {
+        if (scatterExecutor != null) {
+            scatterExecutor.shutdown();
+        }
+    }
+
+    public interface Scope extends AutoCloseable {
+
+        @Override
+        void close();
+    }
+
+    @FunctionalInterface
+    public interface ShardWork<T, E extends Exception> {
+
+        T call() throws E;
+    }
+
+    private static class CheckedWorkException extends RuntimeException {
+
+        CheckedWorkException(Exception cause) {
+            super(cause);
+        }
+    }
+}
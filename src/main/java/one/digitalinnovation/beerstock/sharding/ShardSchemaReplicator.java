@@ -0,0 +1,39 @@
+package one.digitalinnovation.beerstock.sharding;
+
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.jdbc.core.JdbcTemplate;
+
+import javax.annotation.PostConstruct;
+import javax.sql.DataSource;
+import java.util.List;
+
+/**
+ * Hibernate creates the schema through the default shard only. This copies the resulting tables,
+ * indexes and sequences to the other shards with H2's SCRIPT command, which is enough for the in
+ * memory shards used locally; shards on other databases are expected to be migrated up front.
+ */
+@Slf4j
+public class ShardSchemaReplicator {
+
+    private final List<DataSource> shards;
+
+    public ShardSchemaReplicator(List<DataSource> shards) {
+        this.shards = shards;
+    }
+
+    @PostConstruct
+    public void replicate() {
+        List<String> statements = new JdbcTemplate(shards.get(ShardRouter.SEQUENCE_SHARD))
+                .queryForList("SCRIPT NODATA", String.class);
+        for (int shard = 0; shard < shards.size(); shard++) {
+            if (shard == ShardRouter.SEQUENCE_SHARD) {
+                continue;
+            }
+            JdbcTemplate jdbcTemplate = new JdbcTemplate(shards.get(shard));
+            statements.stream()
+                    .filter(statement -> !statement.startsWith("--") && !statement.startsWith("CREATE USER"))
+                    .forEach(jdbcTemplate::execute);
+            log.info("Replicated schema to shard {}", shard);
+        }
+    }
+}
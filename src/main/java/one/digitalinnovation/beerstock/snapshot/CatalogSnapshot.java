@@ -0,0 +1,115 @@
+package one.digitalinnovation.beerstock.snapshot;
+
+import lombok.Getter;
+import org.springframework.core.io.AbstractResource;
+import org.springframework.core.io.Resource;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.MediaType;
+import org.springframework.http.ResponseEntity;
+
+import java.io.ByteArrayInputStream;
+import java.io.InputStream;
+import java.nio.ByteBuffer;
+
+/**
+ * The catalog as the list endpoint renders it, serialized once per catalog generation. The buffers
+ * are heap arrays or read-only file mappings and are never written after the snapshot is built;
+ * every response streams from its own duplicate, so requests never touch each other's position.
+ */
+public class CatalogSnapshot {
+
+    private static final String GZIP = "gzip";
+
+    @Getter
+    private final long generation;
+
+    @Getter
+    private final int beers;
+
+    @Getter
+    private final long builtAtNanos;
+
+    private final ByteBuffer json;
+
+    private final ByteBuffer gzipped;
+
+    CatalogSnapshot(long generation, int beers, long builtAtNanos, ByteBuffer json, ByteBuffer gzipped) {
+        this.generation = generation;
+        this.beers = beers;
+        this.builtAtNanos = builtAtNanos;
+        this.json = json;
+        this.gzipped = gzipped;
+    }
+
+    public ResponseEntity<Resource> toResponse(String acceptEncoding) {
+        boolean compressed = gzipped != null && acceptsGzip(acceptEncoding);
+        ByteBuffer body = (compressed ? gzipped : json).duplicate();
+        ResponseEntity.BodyBuilder response = ResponseEntity.ok()
+                .contentType(MediaType.APPLICATION_JSON)
+                .contentLength(body.remaining());
+        if (gzipped != null) {
+            response.header(HttpHeaders.VARY, HttpHeaders.ACCEPT_ENCODING);
+        }
+        if (compressed) {
+            response.header(HttpHeaders.CONTENT_ENCODING, GZIP);
+        }
+        return response.body(new ByteBufferResource(body));
+    }
+
+    static boolean acceptsGzip(String acceptEncoding) {
+        if (acceptEncoding == null) {
+            return false;
+        }
+        for (String coding : acceptEncoding.split(",")) {
+            String[] parts = coding.trim().split(";");
+            if (parts[0].trim().equalsIgnoreCase(GZIP)) {
+                return parts.length == 1 || !parts[1].trim().matches("q\\s*=\\s*0(\\.0*)?");
+            }
+        }
+        return false;
+    }
+
+    private static final class ByteBufferResource extends AbstractResource {
+
+        private final ByteBuffer buffer;
+
+        ByteBufferResource(ByteBuffer buffer) {
+            this.buffer = buffer;
+        }
+
+        @Override
+        public String getDescription() {
+            return "catalog snapshot";
+        }
+
+        @Override
+        public long contentLength() {
+            return buffer.remaining();
+        }
+
+        @Override
+        public InputStream getInputStream() {
+            if (buffer.hasArray()) {
+                return new ByteArrayInputStream(buffer.array(), buffer.arrayOffset() + buffer.position(), buffer.remaining());
+            }
+            ByteBuffer source = buffer.duplicate();
+            return new InputStream() {
+
+                @Override
+                public int read() {
+                    return source.hasRemaining() ? source.get() & 0xff : -1;
+                }
+
+                @Override
+                public int read(byte[] bytes, int offset, int length) {
+                    if (!source.hasRemaining()) {
+                        return -1;
+                    }
+                    int count = Math.min(length, source.remaining());
+                    source.get(bytes, offset, count);
+                    return count;
+                }
+            };
+        }
+    }
+}
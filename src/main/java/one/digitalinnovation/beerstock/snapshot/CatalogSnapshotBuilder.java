@@ -0,0 +1,179 @@
+package one.digitalinnovation.beerstock.snapshot;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import io.micrometer.core.instrument.Metrics;
+import io.micrometer.core.instrument.Timer;
+import lombok.extern.slf4j.Slf4j;
+import one.digitalinnovation.beerstock.cache.BeerInvalidation;
+import one.digitalinnovation.beerstock.cache.BeerInvalidationBus;
+import one.digitalinnovation.beerstock.config.CatalogSnapshotProperties;
+import one.digitalinnovation.beerstock.dto.BeerDTO;
+import one.digitalinnovation.beerstock.entity.Beer;
+import one.digitalinnovation.beerstock.event.BeerChangedEvent;
+import one.digitalinnovation.beerstock.mapper.BeerMapper;
+import one.digitalinnovation.beerstock.replica.ReadRouting;
+import one.digitalinnovation.beerstock.repository.BeerRepository;
+import one.digitalinnovation.beerstock.sharding.ShardRouter;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.stereotype.Component;
+
+import javax.annotation.PreDestroy;
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.nio.file.StandardCopyOption;
+import java.nio.file.StandardOpenOption;
+import java.time.Duration;
+import java.util.Comparator;
+import java.util.List;
+import java.util.Optional;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.ScheduledFuture;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.stream.Collectors;
+import java.util.zip.GZIPOutputStream;
+
+/**
+ * Keeps a pre-serialized copy of the catalog for the list endpoint. Every beer change bumps the
+ * catalog generation, which retires the current snapshot at once, and schedules a rebuild once
+ * changes have been quiet for the settle delay. A snapshot is only served while its generation is
+ * still the current one, so until the rebuild lands the endpoint renders the catalog live. Changes
+ * made on other nodes arrive through the invalidation bus when it spans the cluster; as that is not
+ * guaranteed, a snapshot is also rebuilt once it reaches the max age and never served past it.
+ */
+@Slf4j
+@Component
+public class CatalogSnapshotBuilder {
+
+    private static final Duration RETRY_DELAY = Duration.ofSeconds(5);
+
+    private final AtomicLong generation = new AtomicLong();
+    private final Timer rebuilds = Metrics.timer("beerstock.catalog.snapshot.rebuild");
+    private final BeerMapper beerMapper = BeerMapper.INSTANCE;
+    private final CatalogSnapshotProperties properties;
+    private final BeerRepository beerRepository;
+    private final ShardRouter shardRouter;
+    private final ObjectMapper objectMapper;
+    private final ScheduledExecutorService scheduler;
+    private ScheduledFuture<?> pendingRebuild;
+    private volatile CatalogSnapshot current;
+
+    @Autowired
+    public CatalogSnapshotBuilder(CatalogSnapshotProperties properties, BeerRepository beerRepository,
+                                  ShardRouter shardRouter, ObjectMapper objectMapper, BeerInvalidationBus invalidationBus) {
+        this.properties = properties;
+        this.beerRepository = beerRepository;
+        this.shardRouter = shardRouter;
+        this.objectMapper = objectMapper;
+        this.scheduler = !properties.isEnabled() ? null : Executors.newSingleThreadScheduledExecutor(runnable -> {
+            Thread thread = new Thread(runnable, "catalog-snapshot");
+            thread.setDaemon(true);
+            return thread;
+        });
+        invalidationBus.subscribe(this::onInvalidation);
+    }
+
+    public Optional<CatalogSnapshot> current() {
+        CatalogSnapshot snapshot = current;
+        return snapshot != null && snapshot.getGeneration() == generation.get()
+                && System.nanoTime() - snapshot.getBuiltAtNanos() < properties.getMaxAge().toNanos()
+                ? Optional.of(snapshot) : Optional.empty();
+    }
+
+    @EventListener(ApplicationReadyEvent.class)
+    public void load() {
+        if (properties.isEnabled()) {
+            scheduleRebuild(Duration.ZERO);
+        }
+    }
+
+    @EventListener
+    public void onBeerChanged(BeerChangedEvent event) {
+        retire();
+    }
+
+    void onInvalidation(BeerInvalidation invalidation) {
+        retire();
+    }
+
+    private void retire() {
+        if (properties.isEnabled()) {
+            generation.incrementAndGet();
+            scheduleRebuild(properties.getSettleDelay());
+        }
+    }
+
+    @PreDestroy
+    public void shutdown() {
+        if (scheduler != null) {
+            scheduler.shutdownNow();
+        }
+    }
+
+    void rebuild() {
+        long building = generation.get();
+        try (ReadRouting.Scope primary = ReadRouting.pinToPrimary()) {
+            long started = System.nanoTime();
+            List<BeerDTO> beers = shardRouter.scatter(beerRepository::findAll)
+                    .stream()
+                    .sorted(Comparator.comparing(Beer::getId))
+                    .map(beerMapper::toDTO)
+                    .collect(Collectors.toList());
+            byte[] json = objectMapper.writeValueAsBytes(beers);
+            byte[] gzipped = properties.isGzip() ? gzip(json) : null;
+            CatalogSnapshot snapshot = properties.getMappedFile() == null
+                    ? new CatalogSnapshot(building, beers.size(), started, ByteBuffer.wrap(json), gzipped == null ? null : ByteBuffer.wrap(gzipped))
+                    : new CatalogSnapshot(building, beers.size(), started, map(Paths.get(properties.getMappedFile()), json),
+                    gzipped == null ? null : map(Paths.get(properties.getMappedFile() + ".gz"), gzipped));
+            current = snapshot;
+            scheduleRefresh(building);
+            rebuilds.record(System.nanoTime() - started, TimeUnit.NANOSECONDS);
+            log.debug("Rebuilt the catalog snapshot for generation {}: {} beers, {} bytes", building, beers.size(), json.length);
+        } catch (IOException | RuntimeException e) {
+            log.warn("Could not rebuild the catalog snapshot, listing beers live until it succeeds", e);
+            scheduleRebuild(RETRY_DELAY);
+        }
+    }
+
+    private synchronized void scheduleRefresh(long built) {
+        if (generation.get() == built) {
+            scheduleRebuild(properties.getMaxAge());
+        }
+    }
+
+    private synchronized void scheduleRebuild(Duration delay) {
+        if (pendingRebuild != null) {
+            pendingRebuild.cancel(false);
+        }
+        pendingRebuild = scheduler.schedule(this::rebuild, delay.toNanos(), TimeUnit.NANOSECONDS);
+    }
+
+    private static byte[] gzip(byte[] json) throws IOException {
+        ByteArrayOutputStream compressed = new ByteArrayOutputStream(json.length / 4 + 64);
+        try (GZIPOutputStream out = new GZIPOutputStream(compressed)) {
+            out.write(json);
+        }
+        return compressed.toByteArray();
+    }
+
+    private static ByteBuffer map(Path file, byte[] content) throws IOException {
+        Path absolute = file.toAbsolutePath();
+        if (absolute.getParent() != null) {
+            Files.createDirectories(absolute.getParent());
+        }
+        Path written = Files.createTempFile(absolute.getParent(), absolute.getFileName().toString(), ".tmp");
+        Files.write(written, content);
+        Files.move(written, absolute, StandardCopyOption.REPLACE_EXISTING, StandardCopyOption.ATOMIC_MOVE);
+        try (FileChannel channel = FileChannel.open(absolute, StandardOpenOption.READ)) {
+            return channel.map(FileChannel.MapMode.READ_ONLY, 0, content.length);
+        }
+    }
+}
@@ -0,0 +1,21 @@
+package one.digitalinnovation.beerstock.stats;
+
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import one.digitalinnovation.beerstock.enums.BeerType;
+
+/**
+ * The columns of a beer the inventory statistics need, read with a constructor expression so a
+ * reconcile pass pages through the table without managed entities or second-level cache traffic.
+ */
+@Data
+@AllArgsConstructor
+public class InventoryLevel {
+
+    private final Long id;
+    private final BeerType type;
+    private final String brand;
+    private final int quantity;
+    private final int max;
+    private final long version;
+}
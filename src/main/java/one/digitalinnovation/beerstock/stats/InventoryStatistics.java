@@ -0,0 +1,236 @@
+package one.digitalinnovation.beerstock.stats;
+
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Metrics;
+import lombok.extern.slf4j.Slf4j;
+import one.digitalinnovation.beerstock.dto.BeerDTO;
+import one.digitalinnovation.beerstock.dto.InventoryAggregateDTO;
+import one.digitalinnovation.beerstock.dto.InventoryStatsDTO;
+import one.digitalinnovation.beerstock.enums.BeerType;
+import one.digitalinnovation.beerstock.event.BeerChangedEvent;
+import one.digitalinnovation.beerstock.replica.ReadRouting;
+import one.digitalinnovation.beerstock.repository.BeerRepository;
+import one.digitalinnovation.beerstock.sharding.ShardRouter;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.data.domain.Pageable;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+
+import java.util.EnumMap;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.SortedMap;
+import java.util.TreeMap;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * Inventory totals per beer type and per brand, kept up to date from beer change events instead of
+ * scanning the catalog. The last seen state of every beer is remembered with its entity version,
+ * so the matching aggregate cells can be adjusted on updates and deletes and a late or repeated
+ * event is ignored. A periodic pass compares that state with the database, a page of stock levels
+ * at a time, and repairs any drift.
+ */
+@Slf4j
+@Component
+public class InventoryStatistics {
+
+    private static final int RECONCILE_CHUNK_SIZE = 1000;
+
+    private final Aggregate total = new Aggregate();
+    private final Aggregate[] byType = new Aggregate[BeerType.values().length];
+    private final Map<String, Aggregate> byBrand = new ConcurrentHashMap<>();
+    private final Map<Long, Holding> holdings = new ConcurrentHashMap<>();
+    private final AtomicLong reconcilePasses = new AtomicLong();
+    private final Counter corrections = Metrics.counter("beerstock.stats.reconcile.corrections");
+    private final BeerRepository beerRepository;
+    private final ShardRouter shardRouter;
+
+    @Autowired
+    public InventoryStatistics(BeerRepository beerRepository, ShardRouter shardRouter) {
+        this.beerRepository = beerRepository;
+        this.shardRouter = shardRouter;
+        for (int i = 0; i < byType.length; i++) {
+            byType[i] = new Aggregate();
+        }
+    }
+
+    @EventListener(ApplicationReadyEvent.class)
+    public void load() {
+        reconcile();
+    }
+
+    @EventListener
+    public void onBeerChanged(BeerChangedEvent event) {
+        BeerDTO current = event.getCurrent();
+        Holding next = current == null
+                ? Holding.deleted(reconcilePasses.get())
+                : new Holding(current.getType(), current.getBrand(), current.getQuantity(), current.getMax(), event.getVersion());
+        track(event.getBeerId(), next, false);
+    }
+
+    @Scheduled(fixedDelayString = "${beerstock.stats.reconcile-interval:PT5M}",
+            initialDelayString = "${beerstock.stats.reconcile-interval:PT5M}")
+    public void verify() {
+        int repaired = reconcile();
+        if (repaired > 0) {
+            log.warn("Inventory statistics drifted from the database, repaired {} beers", repaired);
+            corrections.increment(repaired);
+        }
+    }
+
+    public InventoryStatsDTO snapshot() {
+        Map<BeerType, InventoryAggregateDTO> types = new EnumMap<>(BeerType.class);
+        for (BeerType type : BeerType.values()) {
+            types.put(type, byType[type.ordinal()].toDTO());
+        }
+        SortedMap<String, InventoryAggregateDTO> brands = new TreeMap<>();
+        byBrand.forEach((brand, aggregate) -> {
+            InventoryAggregateDTO brandDTO = aggregate.toDTO();
+            if (brandDTO.getBeers() > 0) {
+                brands.put(brand, brandDTO);
+            }
+        });
+        return new InventoryStatsDTO(total.toDTO(), types, brands);
+    }
+
+    int reconcile() {
+        try (ReadRouting.Scope primary = ReadRouting.pinToPrimary()) {
+            return reconcileWithPrimary();
+        }
+    }
+
+    private int reconcileWithPrimary() {
+        long pass = reconcilePasses.getAndIncrement();
+        int repaired = 0;
+        Set<Long> found = new HashSet<>();
+        for (int shard = 0; shard < shardRouter.shardCount(); shard++) {
+            try (ShardRouter.Scope scope = shardRouter.use(shard)) {
+                repaired += reconcileShard(found);
+            }
+        }
+        for (Map.Entry<Long, Holding> entry : holdings.entrySet()) {
+            Long id = entry.getKey();
+            Holding tracked = entry.getValue();
+            if (tracked.deleted) {
+                if (tracked.deletedInPass < pass) {
+                    holdings.remove(id, tracked);
+                }
+            } else if (!found.contains(id) && !existsOnShard(id)) {
+                track(id, Holding.deleted(pass), true);
+                repaired++;
+            }
+        }
+        return repaired;
+    }
+
+    private int reconcileShard(Set<Long> found) {
+        Pageable chunk = PageRequest.of(0, RECONCILE_CHUNK_SIZE);
+        int repaired = 0;
+        long after = 0;
+        List<InventoryLevel> levels;
+        do {
+            levels = beerRepository.findInventoryLevelsAfter(after, chunk);
+            for (InventoryLevel level : levels) {
+                found.add(level.getId());
+                Holding actual = new Holding(level.getType(), level.getBrand(), level.getQuantity(), level.getMax(), level.getVersion());
+                Holding tracked = holdings.get(level.getId());
+                if (tracked == null || tracked.version < actual.version) {
+                    track(level.getId(), actual, false);
+                    repaired++;
+                } else if (tracked.version == actual.version && !tracked.sameAs(actual)) {
+                    track(level.getId(), actual, true);
+                    repaired++;
+                }
+                after = level.getId();
+            }
+        } while (levels.size() == chunk.getPageSize());
+        return repaired;
+    }
+
+    private boolean existsOnShard(Long id) {
+        try (ShardRouter.Scope scope = shardRouter.use(shardRouter.shardForId(id))) {
+            return beerRepository.existsById(id);
+        }
+    }
+
+    private void track(Long id, Holding next, boolean force) {
+        holdings.compute(id, (key, previous) -> {
+            if (previous != null && !force && previous.version >= next.version) {
+                return previous;
+            }
+            if (previous != null && !previous.deleted) {
+                apply(previous, -1);
+            }
+            if (!next.deleted) {
+                apply(next, 1);
+            }
+            return next;
+        });
+    }
+
+    private void apply(Holding holding, int sign) {
+        total.add(holding, sign);
+        byType[holding.type.ordinal()].add(holding, sign);
+        byBrand.computeIfAbsent(holding.brand, brand -> new Aggregate()).add(holding, sign);
+    }
+
+    private static final class Holding {
+
+        private final BeerType type;
+        private final String brand;
+        private final int quantity;
+        private final int max;
+        private final long version;
+        private final boolean deleted;
+        private final long deletedInPass;
+
+        Holding(BeerType type, String brand, int quantity, int max, long version) {
+            this(type, brand, quantity, max, version, false, 0);
+        }
+
+        private Holding(BeerType type, String brand, int quantity, int max, long version, boolean deleted, long deletedInPass) {
+            this.type = type;
+            this.brand = brand;
+            this.quantity = quantity;
+            this.max = max;
+            this.version = version;
+            this.deleted = deleted;
+            this.deletedInPass = deletedInPass;
+        }
+
+        static Holding deleted(long pass) {
+            return new Holding(null, null, 0, 0, BeerChangedEvent.DELETED_VERSION, true, pass);
+        }
+
+        boolean sameAs(Holding other) {
+            return type == other.type && brand.equals(other.brand) && quantity == other.quantity && max == other.max;
+        }
+    }
+
+    private static final class Aggregate {
+
+        private final LongAdder beers = new LongAdder();
+        private final LongAdder units = new LongAdder();
+        private final LongAdder capacity = new LongAdder();
+
+        void add(Holding holding, int sign) {
+            beers.add(sign);
+            units.add((long) sign * holding.quantity);
+            capacity.add((long) sign * holding.max);
+        }
+
+        InventoryAggregateDTO toDTO() {
+            long unitsSum = units.sum();
+            long capacitySum = capacity.sum();
+            return new InventoryAggregateDTO(beers.sum(), unitsSum, capacitySum,
+                    capacitySum == 0 ? 0 : (double) unitsSum / capacitySum);
+        }
+    }
+}
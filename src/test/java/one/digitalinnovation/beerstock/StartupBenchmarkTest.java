@@ -0,0 +1,64 @@
+package one.digitalinnovation.beerstock;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import org.junit.jupiter.api.Tag;
+import org.junit.jupiter.api.Test;
+import org.springframework.boot.builder.SpringApplicationBuilder;
+import org.springframework.boot.web.context.WebServerApplicationContext;
+import org.springframework.context.ConfigurableApplicationContext;
+
+import java.io.File;
+import java.net.URI;
+import java.net.http.HttpClient;
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+
+import static org.hamcrest.MatcherAssert.assertThat;
+import static org.hamcrest.Matchers.lessThan;
+
+/**
+ * Time from starting the application with the {@code fast-start} profile to the first successful
+ * list request, written to {@code target/startup-benchmark.json}. Inside a test JVM that has
+ * already loaded other contexts the figure says little, so the test only runs in the
+ * {@code benchmark} profile, alone in its JVM. The budget, overridable with
+ * {@code -Dstartup.budgetMillis=<millis>}, leaves roughly half again the time a cold JVM took
+ * when it was set.
+ */
+@Tag("startup")
+public class StartupBenchmarkTest {
+
+    private static final String PROFILE = "fast-start";
+    private static final long BUDGET_MILLIS = Long.getLong("startup.budgetMillis", 30_000L);
+    private static final File REPORT = new File("target/startup-benchmark.json");
+
+    @Test
+    void whenFastStartProfileIsActiveThenTimeToFirstListRequestIsRecorded() throws Exception {
+        // given
+        long start = System.nanoTime();
+
+        // when
+        try (ConfigurableApplicationContext context = new SpringApplicationBuilder(BeerstockApplication.class)
+                .profiles(PROFILE)
+                .run("--server.port=0", "--spring.datasource.url=jdbc:h2:mem:startup-benchmark;DB_CLOSE_DELAY=-1")) {
+            int port = ((WebServerApplicationContext) context).getWebServer().getPort();
+            HttpRequest listBeers = HttpRequest.newBuilder(URI.create("http://localhost:" + port + "/api/v1/beers")).GET().build();
+            HttpClient httpClient = HttpClient.newHttpClient();
+            while (httpClient.send(listBeers, HttpResponse.BodyHandlers.discarding()).statusCode() != 200) {
+                TimeUnit.MILLISECONDS.sleep(10);
+            }
+            long timeToFirstListMillis = TimeUnit.NANOSECONDS.toMillis(System.nanoTime() - start);
+
+            // then
+            Map<String, Object> report = new LinkedHashMap<>();
+            report.put("profile", PROFILE);
+            report.put("timeToFirstListMillis", timeToFirstListMillis);
+            report.put("budgetMillis", BUDGET_MILLIS);
+            REPORT.getParentFile().mkdirs();
+            new ObjectMapper().writeValue(REPORT, report);
+            assertThat(timeToFirstListMillis, lessThan(BUDGET_MILLIS));
+        }
+    }
+}
@@ -0,0 +1,134 @@
+package one.digitalinnovation.beerstock.actuator;
+
+import jdk.jfr.Recording;
+import jdk.jfr.consumer.RecordedEvent;
+import jdk.jfr.consumer.RecordingFile;
+import one.digitalinnovation.beerstock.dto.BeerDTO;
+import one.digitalinnovation.beerstock.enums.BeerType;
+import one.digitalinnovation.beerstock.jfr.BeerOperationEvent;
+import one.digitalinnovation.beerstock.service.BeerService;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.web.servlet.AutoConfigureMockMvc;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.test.context.DynamicPropertyRegistry;
+import org.springframework.test.context.DynamicPropertySource;
+import org.springframework.test.web.servlet.MockMvc;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.List;
+import java.util.stream.Collectors;
+import java.util.stream.Stream;
+
+import static org.hamcrest.MatcherAssert.assertThat;
+import static org.hamcrest.Matchers.equalTo;
+import static org.hamcrest.Matchers.greaterThan;
+import static org.hamcrest.Matchers.hasSize;
+import static org.hamcrest.Matchers.is;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.post;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.jsonPath;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
+
+@SpringBootTest(properties = {
+        "spring.datasource.url=jdbc:h2:mem:flight-recorder;DB_CLOSE_DELAY=-1",
+        "beerstock.flight-recorder.settings=default",
+        "management.endpoints.web.exposure.include=health,flightrecorder"
+})
+@AutoConfigureMockMvc
+public class FlightRecorderActuatorTest {
+
+    private static final String FLIGHT_RECORDER_PATH = "/actuator/flightrecorder";
+
+    @TempDir
+    static Path dumpDirectory;
+
+    @Autowired
+    private BeerService beerService;
+
+    @Autowired
+    private MockMvc mockMvc;
+
+    private BeerDTO beer;
+
+    @DynamicPropertySource
+    static void dumpDirectory(DynamicPropertyRegistry registry) {
+        registry.add("beerstock.flight-recorder.dump-directory", dumpDirectory::toString);
+    }
+
+    @BeforeEach
+    void setUp() throws Exception {
+        beerService.deleteAllById(beerService.listAll().stream().map(BeerDTO::getId).collect(Collectors.toList()));
+        beer = beerService.createBeer(new BeerDTO(null, "Colorado", "Colorado", 50, 10, BeerType.IPA));
+    }
+
+    @Test
+    void whenIncrementRunsDuringARecordingThenItsEventIsCommittedWithDatabaseTime() throws Exception {
+        // given
+        Path file = Files.createTempFile("beerstock-increment", ".jfr");
+        try (Recording recording = new Recording()) {
+            recording.enable(BeerOperationEvent.class);
+            recording.start();
+
+            // when
+            beerService.increment(beer.getId(), 5);
+            recording.stop();
+            recording.dump(file);
+
+            // then
+            List<RecordedEvent> increments = readIncrements(file);
+            assertThat(increments, hasSize(1));
+            assertThat(increments.get(0).getLong("beerId"), is(equalTo(beer.getId())));
+            assertThat(increments.get(0).getString("beerName"), is(equalTo(beer.getName())));
+            assertThat(increments.get(0).getInt("delta"), is(equalTo(5)));
+            assertThat(increments.get(0).getString("outcome"), is(equalTo("OK")));
+            assertThat(increments.get(0).getLong("databaseTime"), is(greaterThan(0L)));
+        } finally {
+            Files.delete(file);
+        }
+    }
+
+    @Test
+    void whenTheEndpointIsDrivenOverHttpThenTheRecordingIsStartedStoppedAndDumped() throws Exception {
+        // given
+        mockMvc.perform(post(FLIGHT_RECORDER_PATH + "/start"))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.state", is("RUNNING")));
+
+        // when
+        beerService.increment(beer.getId(), 5);
+        mockMvc.perform(post(FLIGHT_RECORDER_PATH + "/stop"))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.state", is("STOPPED")));
+        mockMvc.perform(get(FLIGHT_RECORDER_PATH))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.state", is("STOPPED")))
+                .andExpect(jsonPath("$.settings", is("default")));
+        byte[] dump = mockMvc.perform(get(FLIGHT_RECORDER_PATH + "/dump"))
+                .andExpect(status().isOk())
+                .andReturn().getResponse().getContentAsByteArray();
+
+        // then
+        Path file = Files.createTempFile("beerstock-dump", ".jfr");
+        try {
+            Files.write(file, dump);
+            assertThat(readIncrements(file), hasSize(1));
+        } finally {
+            Files.delete(file);
+        }
+        try (Stream<Path> staged = Files.list(dumpDirectory)) {
+            assertThat(staged.count(), is(equalTo(0L)));
+        }
+    }
+
+    private static List<RecordedEvent> readIncrements(Path file) throws IOException {
+        return RecordingFile.readAllEvents(file).stream()
+                .filter(event -> event.getEventType().getName().equals(BeerOperationEvent.NAME))
+                .filter(event -> event.getString("operation").equals(BeerOperationEvent.INCREMENT))
+                .collect(Collectors.toList());
+    }
+}
@@ -0,0 +1,120 @@
+package one.digitalinnovation.beerstock.actuator;
+
+import jdk.jfr.consumer.RecordedEvent;
+import jdk.jfr.consumer.RecordingFile;
+import one.digitalinnovation.beerstock.builder.BeerDTOBuilder;
+import one.digitalinnovation.beerstock.config.FlightRecorderProperties;
+import one.digitalinnovation.beerstock.exception.BeerNotFoundException;
+import one.digitalinnovation.beerstock.jfr.BeerOperationEvent;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+import org.springframework.core.io.Resource;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.util.List;
+import java.util.stream.Collectors;
+import java.util.stream.Stream;
+
+import static org.hamcrest.MatcherAssert.assertThat;
+import static org.hamcrest.Matchers.contains;
+import static org.hamcrest.Matchers.equalTo;
+import static org.hamcrest.Matchers.is;
+import static org.hamcrest.Matchers.nullValue;
+
+public class FlightRecorderEndpointTest {
+
+    @TempDir
+    Path dumpDirectory;
+
+    private FlightRecorderEndpoint flightRecorderEndpoint;
+
+    @BeforeEach
+    void setUp() {
+        FlightRecorderProperties properties = new FlightRecorderProperties();
+        properties.setSettings("default");
+        properties.setDumpDirectory(dumpDirectory.toString());
+        flightRecorderEndpoint = new FlightRecorderEndpoint(properties);
+    }
+
+    @AfterEach
+    void tearDown() {
+        flightRecorderEndpoint.close();
+    }
+
+    @Test
+    void whenNoRecordingWasStartedThenThereIsNothingToDump() throws Exception {
+        // then
+        assertThat(flightRecorderEndpoint.status().get("state"), is(equalTo("NONE")));
+        assertThat(flightRecorderEndpoint.dump("dump"), is(nullValue()));
+    }
+
+    @Test
+    void whenBeerOperationsRunDuringARecordingThenTheDumpContainsThem() throws Exception {
+        // given
+        flightRecorderEndpoint.control("start");
+
+        // when
+        BeerOperationEvent.begin(BeerOperationEvent.INCREMENT, 1L, null, 5)
+                .completed(BeerDTOBuilder.builder().build().toBeerDTO());
+        BeerOperationEvent.begin(BeerOperationEvent.FIND_BY_NAME, null, "Colorado", 0)
+                .failed(new BeerNotFoundException("Colorado"));
+        Resource dump = flightRecorderEndpoint.dump("dump");
+
+        // then
+        List<RecordedEvent> events = readAllEvents(dump).stream()
+                .filter(event -> event.getEventType().getName().equals(BeerOperationEvent.NAME))
+                .collect(Collectors.toList());
+        assertThat(events.stream().map(event -> event.getString("operation")).collect(Collectors.toList()),
+                contains(BeerOperationEvent.INCREMENT, BeerOperationEvent.FIND_BY_NAME));
+        assertThat(events.get(0).getLong("beerId"), is(equalTo(1L)));
+        assertThat(events.get(0).getString("beerName"), is(equalTo("Brahma")));
+        assertThat(events.get(0).getInt("delta"), is(equalTo(5)));
+        assertThat(events.get(0).getString("outcome"), is(equalTo("OK")));
+        assertThat(events.get(1).getString("outcome"), is(equalTo("BeerNotFoundException")));
+        assertThat(events.get(0).hasField("databaseTimeAtStart"), is(false));
+    }
+
+    @Test
+    void whenTheRecordingIsStoppedThenItCanStillBeDumped() throws Exception {
+        // given
+        flightRecorderEndpoint.control("start");
+
+        // when
+        flightRecorderEndpoint.control("stop");
+
+        // then
+        assertThat(flightRecorderEndpoint.status().get("state"), is(equalTo("STOPPED")));
+        assertThat(flightRecorderEndpoint.dump("dump").exists(), is(true));
+    }
+
+    @Test
+    void whenTheDumpHasBeenStreamedThenItsFileIsRemoved() throws Exception {
+        // given
+        flightRecorderEndpoint.control("start");
+
+        // when
+        Resource dump = flightRecorderEndpoint.dump("dump");
+        readAllEvents(dump);
+
+        // then
+        try (Stream<Path> files = Files.list(dumpDirectory)) {
+            assertThat(files.count(), is(equalTo(0L)));
+        }
+    }
+
+    private List<RecordedEvent> readAllEvents(Resource dump) throws IOException {
+        Path copy = Files.createTempFile("beerstock-dump", ".jfr");
+        try (InputStream in = dump.getInputStream()) {
+            Files.copy(in, copy, StandardCopyOption.REPLACE_EXISTING);
+            return RecordingFile.readAllEvents(copy);
+        } finally {
+            Files.delete(copy);
+        }
+    }
+}
@@ -0,0 +1,146 @@
+package one.digitalinnovation.beerstock.cache;
+
+import one.digitalinnovation.beerstock.builder.BeerDTOBuilder;
+import one.digitalinnovation.beerstock.config.BeerCacheProperties;
+import one.digitalinnovation.beerstock.dto.BeerDTO;
+import one.digitalinnovation.beerstock.entity.Beer;
+import one.digitalinnovation.beerstock.event.BeerChangedEvent;
+import one.digitalinnovation.beerstock.mapper.BeerMapper;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import java.util.Optional;
+
+import static org.hamcrest.MatcherAssert.assertThat;
+import static org.hamcrest.Matchers.equalTo;
+import static org.hamcrest.Matchers.is;
+
+public class BeerCacheTest {
+
+    private BeerMapper beerMapper = BeerMapper.INSTANCE;
+
+    private LoopbackInvalidationBus invalidationBus;
+
+    private BeerCache beerCache;
+
+    @BeforeEach
+    void setUp() {
+        BeerCacheProperties properties = new BeerCacheProperties();
+        properties.setEnabled(true);
+        invalidationBus = new LoopbackInvalidationBus();
+        beerCache = new BeerCache(invalidationBus, properties);
+    }
+
+    @Test
+    void whenBeerIsPutThenItIsReturnedByName() {
+        // given
+        BeerDTO beerDTO = BeerDTOBuilder.builder().build().toBeerDTO();
+
+        // when
+        beerCache.put(beerWithVersion(beerDTO, 1));
+
+        // then
+        assertThat(beerCache.get(beerDTO.getName()), is(equalTo(Optional.of(beerDTO))));
+    }
+
+    @Test
+    void whenNewerVersionIsAnnouncedThenEntryIsDropped() {
+        // given
+        BeerDTO beerDTO = BeerDTOBuilder.builder().build().toBeerDTO();
+        beerCache.put(beerWithVersion(beerDTO, 1));
+
+        // when
+        invalidationBus.publish(new BeerInvalidation(beerDTO.getId(), 2));
+
+        // then
+        assertThat(beerCache.get(beerDTO.getName()), is(equalTo(Optional.empty())));
+    }
+
+    @Test
+    void whenLateReadIsPutAfterInvalidationThenItIsIgnored() {
+        // given
+        BeerDTO beerDTO = BeerDTOBuilder.builder().build().toBeerDTO();
+
+        // when
+        invalidationBus.publish(new BeerInvalidation(beerDTO.getId(), 2));
+        beerCache.put(beerWithVersion(beerDTO, 1));
+
+        // then
+        assertThat(beerCache.get(beerDTO.getName()), is(equalTo(Optional.empty())));
+    }
+
+    @Test
+    void whenLateInvalidationArrivesThenNewerEntryIsKept() {
+        // given
+        BeerDTO beerDTO = BeerDTOBuilder.builder().build().toBeerDTO();
+        beerCache.put(beerWithVersion(beerDTO, 3));
+
+        // when
+        invalidationBus.publish(new BeerInvalidation(beerDTO.getId(), 2));
+
+        // then
+        assertThat(beerCache.get(beerDTO.getName()), is(equalTo(Optional.of(beerDTO))));
+    }
+
+    @Test
+    void whenBeerIsDeletedThenItIsNeverCachedAgain() {
+        // given
+        BeerDTO beerDTO = BeerDTOBuilder.builder().build().toBeerDTO();
+        beerCache.put(beerWithVersion(beerDTO, 1));
+
+        // when
+        beerCache.onBeerChanged(BeerChangedEvent.deleted(beerDTO.getId()));
+        beerCache.put(beerWithVersion(beerDTO, 1));
+
+        // then
+        assertThat(beerCache.get(beerDTO.getName()), is(equalTo(Optional.empty())));
+    }
+
+    @Test
+    void whenCacheIsFullThenLeastRecentlyUsedBeerIsEvicted() {
+        // given
+        beerCache = new BeerCache(invalidationBus, properties(2));
+        BeerDTO first = BeerDTOBuilder.builder().id(1L).name("First").build().toBeerDTO();
+        BeerDTO second = BeerDTOBuilder.builder().id(2L).name("Second").build().toBeerDTO();
+        BeerDTO third = BeerDTOBuilder.builder().id(3L).name("Third").build().toBeerDTO();
+        beerCache.put(beerWithVersion(first, 1));
+        beerCache.put(beerWithVersion(second, 1));
+        beerCache.get(first.getName());
+
+        // when
+        beerCache.put(beerWithVersion(third, 1));
+
+        // then
+        assertThat(beerCache.size(), is(equalTo(2)));
+        assertThat(beerCache.get(first.getName()), is(equalTo(Optional.of(first))));
+        assertThat(beerCache.get(second.getName()), is(equalTo(Optional.empty())));
+        assertThat(beerCache.get(third.getName()), is(equalTo(Optional.of(third))));
+    }
+
+    @Test
+    void whenManyBeersAreInvalidatedThenTrackedVersionsStayBounded() {
+        // given
+        beerCache = new BeerCache(invalidationBus, properties(2));
+
+        // when
+        for (long id = 1; id <= 10; id++) {
+            invalidationBus.publish(new BeerInvalidation(id, 1));
+        }
+
+        // then
+        assertThat(beerCache.trackedVersions(), is(equalTo(2)));
+    }
+
+    private BeerCacheProperties properties(int maxEntries) {
+        BeerCacheProperties properties = new BeerCacheProperties();
+        properties.setEnabled(true);
+        properties.setMaxEntries(maxEntries);
+        return properties;
+    }
+
+    private Beer beerWithVersion(BeerDTO beerDTO, long version) {
+        Beer beer = beerMapper.toModel(beerDTO);
+        beer.setVersion(version);
+        return beer;
+    }
+}
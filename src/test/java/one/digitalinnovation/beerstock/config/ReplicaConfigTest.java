@@ -0,0 +1,35 @@
+package one.digitalinnovation.beerstock.config;
+
+import org.junit.jupiter.api.Test;
+import org.springframework.boot.autoconfigure.AutoConfigurations;
+import org.springframework.boot.autoconfigure.context.ConfigurationPropertiesAutoConfiguration;
+import org.springframework.boot.test.context.runner.ApplicationContextRunner;
+
+import static org.hamcrest.MatcherAssert.assertThat;
+import static org.hamcrest.Matchers.containsString;
+import static org.hamcrest.Matchers.is;
+
+public class ReplicaConfigTest {
+
+    private final ApplicationContextRunner contextRunner = new ApplicationContextRunner()
+            .withConfiguration(AutoConfigurations.of(ConfigurationPropertiesAutoConfiguration.class))
+            .withUserConfiguration(ReplicaConfig.class, ShardingProperties.class);
+
+    @Test
+    void whenReplicasAndShardingAreBothEnabledThenStartupFails() {
+        contextRunner
+                .withPropertyValues("beerstock.replica.enabled=true", "beerstock.sharding.enabled=true")
+                .run(context -> {
+                    assertThat(context.getStartupFailure() != null, is(true));
+                    assertThat(rootCause(context.getStartupFailure()).getMessage(), containsString("beerstock.sharding.enabled"));
+                });
+    }
+
+    private static Throwable rootCause(Throwable failure) {
+        Throwable cause = failure;
+        while (cause.getCause() != null) {
+            cause = cause.getCause();
+        }
+        return cause;
+    }
+}
@@ -1,13 +1,28 @@
 package one.digitalinnovation.beerstock.controller;
 
 import one.digitalinnovation.beerstock.builder.BeerDTOBuilder;
+import one.digitalinnovation.beerstock.dto.BeerChangesDTO;
 import one.digitalinnovation.beerstock.dto.BeerDTO;
+import one.digitalinnovation.beerstock.dto.BeerLookupDTO;
+import one.digitalinnovation.beerstock.dto.BeerLookupResultDTO;
+import one.digitalinnovation.beerstock.dto.BeerStockDTO;
+import one.digitalinnovation.beerstock.dto.BeerSuggestionDTO;
+import one.digitalinnovation.beerstock.dto.InventoryAggregateDTO;
+import one.digitalinnovation.beerstock.dto.InventoryStatsDTO;
 import one.digitalinnovation.beerstock.dto.QuantityDTO;
+import one.digitalinnovation.beerstock.dto.ReplenishmentPlanDTO;
+import one.digitalinnovation.beerstock.dto.SupplierOrderDTO;
 import one.digitalinnovation.beerstock.entity.Beer;
+import one.digitalinnovation.beerstock.enums.BeerType;
 import one.digitalinnovation.beerstock.exception.BeerAlreadyRegisteredException;
 import one.digitalinnovation.beerstock.exception.BeerNotFoundException;
 import one.digitalinnovation.beerstock.exception.BeerStockExceededException;
+import one.digitalinnovation.beerstock.exception.CatalogUnavailableException;
+import one.digitalinnovation.beerstock.json.BeerJsonModule;
+import one.digitalinnovation.beerstock.resilience.StaleReadGuard;
 import one.digitalinnovation.beerstock.service.BeerService;
+import one.digitalinnovation.beerstock.snapshot.CatalogSnapshot;
+import one.digitalinnovation.beerstock.snapshot.CatalogSnapshotBuilder;
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.Test;
 import org.junit.jupiter.api.extension.ExtendWith;
@@ -16,14 +31,29 @@ import org.mockito.Mock;
 import org.mockito.Mockito;
 import org.mockito.junit.jupiter.MockitoExtension;
 import org.springframework.data.web.PageableHandlerMethodArgumentResolver;
+import org.springframework.http.HttpHeaders;
+import org.springframework.core.io.ByteArrayResource;
 import org.springframework.http.MediaType;
+import org.springframework.http.ResponseEntity;
+import org.springframework.http.converter.ResourceHttpMessageConverter;
+import org.springframework.http.converter.StringHttpMessageConverter;
+import org.springframework.http.converter.json.Jackson2ObjectMapperBuilder;
+import org.springframework.http.converter.json.MappingJackson2HttpMessageConverter;
 import org.springframework.test.web.servlet.MockMvc;
 import org.springframework.test.web.servlet.request.MockMvcRequestBuilders;
 import org.springframework.test.web.servlet.setup.MockMvcBuilders;
+import org.springframework.web.context.request.RequestAttributes;
+import org.springframework.web.context.request.RequestContextHolder;
 import org.springframework.web.servlet.view.json.MappingJackson2JsonView;
 
+import java.nio.charset.StandardCharsets;
+import java.time.Instant;
 import java.util.Collections;
 import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.stream.Collectors;
+import java.util.stream.LongStream;
 
 import static one.digitalinnovation.beerstock.utils.JsonConvertionUtils.asJsonString;
 import static org.hamcrest.core.Is.is;
@@ -34,6 +64,8 @@ import static org.mockito.Mockito.when;
 import static org.springframework.mock.http.server.reactive.MockServerHttpRequest.patch;
 import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.*;
 import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.post;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.content;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.header;
 import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.jsonPath;
 import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
 
@@ -45,12 +77,20 @@ public class BeerControllerTest {
     private static final long INVALID_BEER_ID = 2l;
     private static final String BEER_API_SUBPATH_INCREMENT_URL = "/increment";
     private static final String BEER_API_SUBPATH_DECREMENT_URL = "/decrement";
+    private static final String BEER_API_SUBPATH_LOOKUP_URL = "/lookup";
+    private static final String BEER_API_SUBPATH_SUGGEST_URL = "/suggest";
+    private static final String BEER_API_SUBPATH_CHANGES_URL = "/changes";
+    private static final String BEER_API_SUBPATH_STATS_URL = "/stats";
+    private static final String BEER_API_SUBPATH_REPLENISHMENT_PLAN_URL = "/replenishment-plan";
 
     private MockMvc mockMvc;
 
     @Mock
     private BeerService beerService;
 
+    @Mock
+    private CatalogSnapshotBuilder catalogSnapshotBuilder;
+
     @InjectMocks
     private BeerController beerController;
 
@@ -59,6 +99,9 @@ public class BeerControllerTest {
         mockMvc = MockMvcBuilders.standaloneSetup(beerController)
                 .setCustomArgumentResolvers(new PageableHandlerMethodArgumentResolver())
                 .setViewResolvers((s, locale) -> new MappingJackson2JsonView())
+                .setControllerAdvice(new StaleResponseAdvice())
+                .setMessageConverters(new StringHttpMessageConverter(), new ResourceHttpMessageConverter(), new MappingJackson2HttpMessageConverter(
+                        Jackson2ObjectMapperBuilder.json().modulesToInstall(new BeerJsonModule()).build()))
                 .build();
     }
 
@@ -111,6 +154,77 @@ public class BeerControllerTest {
 
     }
 
+    @Test
+    void whenGETSuggestIsCalledThenStatusOkAndMatchingBeersAreReturned() throws Exception {
+        // given
+        BeerDTO beerDTO = BeerDTOBuilder.builder().build().toBeerDTO();
+        BeerSuggestionDTO suggestionDTO = new BeerSuggestionDTO(beerDTO.getId(), beerDTO.getName(), beerDTO.getBrand());
+
+        // when
+        when(beerService.suggest("bra", 5)).thenReturn(List.of(suggestionDTO));
+
+        // then
+        mockMvc.perform(get(BEER_API_URL_PATH + BEER_API_SUBPATH_SUGGEST_URL)
+                .param("q", "bra")
+                .param("limit", "5"))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$[0].name", is(beerDTO.getName())))
+                .andExpect(jsonPath("$[0].brand", is(beerDTO.getBrand())));
+    }
+
+    @Test
+    void whenGETStatsIsCalledThenStatusOkAndAggregatesAreReturned() throws Exception {
+        // given
+        InventoryAggregateDTO aggregateDTO = new InventoryAggregateDTO(1, 10, 50, 0.2);
+        InventoryStatsDTO statsDTO = new InventoryStatsDTO(aggregateDTO, Map.of(BeerType.LAGER, aggregateDTO), Map.of("Ambev", aggregateDTO));
+
+        // when
+        when(beerService.stats()).thenReturn(statsDTO);
+
+        // then
+        mockMvc.perform(get(BEER_API_URL_PATH + BEER_API_SUBPATH_STATS_URL))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.total.units", is(10)))
+                .andExpect(jsonPath("$.byType.LAGER.capacity", is(50)))
+                .andExpect(jsonPath("$.byBrand.Ambev.fillRatio", is(0.2)));
+    }
+
+    @Test
+    void whenGETReplenishmentPlanIsCalledThenStatusOkAndSupplierOrdersAreReturned() throws Exception {
+        // given
+        ReplenishmentPlanDTO planDTO = new ReplenishmentPlanDTO(Instant.now(), 0.8, 3, 2, 30,
+                List.of(new SupplierOrderDTO("Ambev", 2, 30)));
+
+        // when
+        when(beerService.replenishmentPlan()).thenReturn(planDTO);
+
+        // then
+        mockMvc.perform(get(BEER_API_URL_PATH + BEER_API_SUBPATH_REPLENISHMENT_PLAN_URL))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.unitsToOrder", is(30)))
+                .andExpect(jsonPath("$.orders[0].brand", is("Ambev")))
+                .andExpect(jsonPath("$.orders[0].beers", is(2)));
+    }
+
+    @Test
+    void whenGETChangesIsCalledThenStatusOkAndChangesSinceHighWaterMarkAreReturned() throws Exception {
+        // given
+        BeerDTO beerDTO = BeerDTOBuilder.builder().build().toBeerDTO();
+        BeerChangesDTO changesDTO = new BeerChangesDTO(List.of(beerDTO), List.of(INVALID_BEER_ID), 12L, false);
+
+        // when
+        when(beerService.changesSince(10L, 1000)).thenReturn(changesDTO);
+
+        // then
+        mockMvc.perform(get(BEER_API_URL_PATH + BEER_API_SUBPATH_CHANGES_URL)
+                .param("since", "10"))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.changed[0].name", is(beerDTO.getName())))
+                .andExpect(jsonPath("$.deleted[0]", is((int) INVALID_BEER_ID)))
+                .andExpect(jsonPath("$.highWaterMark", is(12)))
+                .andExpect(jsonPath("$.hasMore", is(false)));
+    }
+
     @Test
     void whenGETIsCalledWithAnInvalidNameThenStatusNotFoundIsReturned() throws Exception {
         // given
@@ -124,6 +238,46 @@ public class BeerControllerTest {
                 .andExpect(status().isNotFound());
     }
 
+    @Test
+    void whenGETIsCalledWithANameMissingFromTheStaleCatalogThenStatusServiceUnavailableIsReturned() throws Exception {
+        // given
+        BeerDTO beerDTO = BeerDTOBuilder.builder().build().toBeerDTO();
+
+        // when
+        when(beerService.findByName(beerDTO.getName())).thenThrow(new CatalogUnavailableException(beerDTO.getName()));
+
+        // then
+        mockMvc.perform(get(BEER_API_URL_PATH + "/" + beerDTO.getName()))
+                .andExpect(status().isServiceUnavailable());
+    }
+
+    @Test
+    void whenPOSTLookupIsCalledThenStatusOkAndFoundBeersAndMissingNamesAreReturned() throws Exception {
+        // given
+        BeerDTO beerDTO = BeerDTOBuilder.builder().build().toBeerDTO();
+        List<String> names = List.of(beerDTO.getName(), "Unknown");
+        BeerLookupResultDTO expectedResult = new BeerLookupResultDTO(List.of(beerDTO), List.of("Unknown"));
+
+        // when
+        when(beerService.lookupByNames(names)).thenReturn(expectedResult);
+
+        // then
+        mockMvc.perform(post(BEER_API_URL_PATH + BEER_API_SUBPATH_LOOKUP_URL)
+                .contentType(MediaType.APPLICATION_JSON)
+                .content(asJsonString(new BeerLookupDTO(names))))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.beers[0].name", is(beerDTO.getName())))
+                .andExpect(jsonPath("$.notFound[0]", is("Unknown")));
+    }
+
+    @Test
+    void whenPOSTLookupIsCalledWithoutNamesThenAnErrorIsReturned() throws Exception {
+        mockMvc.perform(post(BEER_API_URL_PATH + BEER_API_SUBPATH_LOOKUP_URL)
+                .contentType(MediaType.APPLICATION_JSON)
+                .content(asJsonString(new BeerLookupDTO(Collections.emptyList()))))
+                .andExpect(status().isBadRequest());
+    }
+
     @Test
     void whenGETListIsCalledWithBeersThenReturnStatusOkAndListOfAllBeers() throws Exception {
         // given
@@ -141,6 +295,44 @@ public class BeerControllerTest {
                 .andExpect(jsonPath("$[0].type", is(expectedBeerList.get(0).getType().toString())));
     }
 
+    @Test
+    void whenGETListIsCalledWithACurrentSnapshotThenTheSnapshotBytesAreWritten() throws Exception {
+        // given
+        CatalogSnapshot snapshot = mock(CatalogSnapshot.class);
+
+        // when
+        when(catalogSnapshotBuilder.current()).thenReturn(Optional.of(snapshot));
+        when(snapshot.toResponse(null)).thenReturn(ResponseEntity.ok()
+                .contentType(MediaType.APPLICATION_JSON)
+                .body(new ByteArrayResource("[]".getBytes(StandardCharsets.UTF_8))));
+
+        // then
+        mockMvc.perform(get(BEER_API_URL_PATH))
+                .andExpect(status().isOk())
+                .andExpect(content().string("[]"));
+        verify(beerService, never()).listAll();
+    }
+
+    @Test
+    void whenGETListIsServedFromTheSnapshotThenTheResponseIsMarkedStale() throws Exception {
+        // given
+        List<BeerDTO> expectedBeerList = List.of(BeerDTOBuilder.builder().build().toBeerDTO());
+
+        // when
+        when(beerService.listAll()).thenAnswer(invocation -> {
+            RequestContextHolder.currentRequestAttributes().setAttribute(StaleReadGuard.STALE_AS_OF_ATTRIBUTE,
+                    Instant.now().minusSeconds(30), RequestAttributes.SCOPE_REQUEST);
+            return expectedBeerList;
+        });
+
+        // then
+        mockMvc.perform(get(BEER_API_URL_PATH))
+                .andExpect(status().isOk())
+                .andExpect(header().string(HttpHeaders.WARNING, StaleResponseAdvice.STALE_WARNING))
+                .andExpect(header().string(HttpHeaders.AGE, "30"))
+                .andExpect(jsonPath("$[0].name", is(expectedBeerList.get(0).getName())));
+    }
+
     @Test
     void whenGETListIsCalledWithoutBeersThenReturnStatusOkAndEmptyList() throws Exception {
         // when
@@ -148,7 +340,8 @@ public class BeerControllerTest {
 
         // then
         mockMvc.perform(get(BEER_API_URL_PATH))
-                .andExpect(status().isOk());
+                .andExpect(status().isOk())
+                .andExpect(header().doesNotExist(HttpHeaders.WARNING));
     }
 
     @Test
@@ -171,6 +364,32 @@ public class BeerControllerTest {
                 .andExpect(status().isNotFound());
     }
 
+    @Test
+    void whenDELETEIsCalledWithIdsThenReturnStatusNoContent() throws Exception {
+        // when
+        when(beerService.deleteAllById(List.of(VALID_BEER_ID, INVALID_BEER_ID))).thenReturn(1);
+
+        //then
+        mockMvc.perform(delete(BEER_API_URL_PATH)
+                .param("ids", VALID_BEER_ID + "," + INVALID_BEER_ID))
+                .andExpect(status().isNoContent());
+        verify(beerService, times(1)).deleteAllById(List.of(VALID_BEER_ID, INVALID_BEER_ID));
+    }
+
+    @Test
+    void whenDELETEIsCalledWithTooManyIdsThenReturnStatusBadRequest() throws Exception {
+        // given
+        String ids = LongStream.rangeClosed(1, 1001)
+                .mapToObj(Long::toString)
+                .collect(Collectors.joining(","));
+
+        //then
+        mockMvc.perform(delete(BEER_API_URL_PATH)
+                .param("ids", ids))
+                .andExpect(status().isBadRequest());
+        verify(beerService, never()).deleteAllById(anyList());
+    }
+
     @Test
     void whenPATCHIsCalledWithValidIdAndIncrementThenReturnStatusOkAndBeerDto() throws Exception {
         // given
@@ -297,4 +516,35 @@ public class BeerControllerTest {
                 .content(asJsonString(quantityDTO)))
                 .andExpect(status().isBadRequest());
     }
+
+    @Test
+    void whenPATCHIsCalledToIncrementAtALocationThenOkStatusIsReturned() throws Exception {
+        // given
+        QuantityDTO quantityDTO = QuantityDTO.builder()
+                .quantity(10)
+                .build();
+        BeerStockDTO beerStockDTO = new BeerStockDTO(VALID_BEER_ID, "recife", 10, 20);
+
+        // when
+        when(beerService.incrementAt(VALID_BEER_ID, "recife", quantityDTO.getQuantity())).thenReturn(beerStockDTO);
+
+        // then
+        mockMvc.perform(MockMvcRequestBuilders.patch(BEER_API_URL_PATH + "/" + VALID_BEER_ID + "/locations/recife/increment")
+                .contentType(MediaType.APPLICATION_JSON)
+                .content(asJsonString(quantityDTO)))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.location", is("recife")))
+                .andExpect(jsonPath("$.quantity", is(10)))
+                .andExpect(jsonPath("$.totalQuantity", is(20)));
+    }
+
+    @Test
+    void whenGETLocationsIsCalledWithInvalidIdThenNotFoundStatusIsReturned() throws Exception {
+        // when
+        when(beerService.listLocations(INVALID_BEER_ID)).thenThrow(BeerNotFoundException.class);
+
+        // then
+        mockMvc.perform(get(BEER_API_URL_PATH + "/" + INVALID_BEER_ID + "/locations"))
+                .andExpect(status().isNotFound());
+    }
 }
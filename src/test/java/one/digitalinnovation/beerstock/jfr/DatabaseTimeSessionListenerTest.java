@@ -0,0 +1,51 @@
+package one.digitalinnovation.beerstock.jfr;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.concurrent.TimeUnit;
+
+import static org.hamcrest.MatcherAssert.assertThat;
+import static org.hamcrest.Matchers.greaterThanOrEqualTo;
+import static org.hamcrest.Matchers.lessThan;
+
+public class DatabaseTimeSessionListenerTest {
+
+    private static final long PAUSE_NANOS = TimeUnit.MILLISECONDS.toNanos(200);
+
+    @Test
+    void whenConnectionIsAcquiredInsidePrepareThenItsTimeIsCountedOnce() throws InterruptedException {
+        // given
+        DatabaseTimeSessionListener listener = new DatabaseTimeSessionListener();
+        long before = DatabaseTime.current();
+
+        // when
+        listener.jdbcPrepareStatementStart();
+        listener.jdbcConnectionAcquisitionStart();
+        TimeUnit.NANOSECONDS.sleep(PAUSE_NANOS);
+        listener.jdbcConnectionAcquisitionEnd();
+        listener.jdbcPrepareStatementEnd();
+
+        // then
+        long counted = DatabaseTime.current() - before;
+        assertThat(counted, greaterThanOrEqualTo(PAUSE_NANOS));
+        assertThat(counted, lessThan(2 * PAUSE_NANOS));
+    }
+
+    @Test
+    void whenCallbacksFollowEachOtherThenEachIntervalIsCounted() throws InterruptedException {
+        // given
+        DatabaseTimeSessionListener listener = new DatabaseTimeSessionListener();
+        long before = DatabaseTime.current();
+
+        // when
+        listener.jdbcPrepareStatementStart();
+        TimeUnit.NANOSECONDS.sleep(PAUSE_NANOS);
+        listener.jdbcPrepareStatementEnd();
+        listener.jdbcExecuteStatementStart();
+        TimeUnit.NANOSECONDS.sleep(PAUSE_NANOS);
+        listener.jdbcExecuteStatementEnd();
+
+        // then
+        assertThat(DatabaseTime.current() - before, greaterThanOrEqualTo(2 * PAUSE_NANOS));
+    }
+}
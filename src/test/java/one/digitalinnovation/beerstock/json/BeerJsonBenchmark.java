@@ -0,0 +1,76 @@
+package one.digitalinnovation.beerstock.json;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.ObjectReader;
+import com.fasterxml.jackson.databind.ObjectWriter;
+import one.digitalinnovation.beerstock.dto.BeerDTO;
+import one.digitalinnovation.beerstock.enums.BeerType;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import org.springframework.http.converter.json.Jackson2ObjectMapperBuilder;
+
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Compares the reflective bean serializers with {@link BeerJsonModule} on the list response and on
+ * a single create request body. Run with {@code mvn -Pbenchmark -DskipTests test}; results are
+ * written to {@code target/jmh-result.json}.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 5, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(value = 1, jvmArgsAppend = "-XX:+UseParallelGC")
+public class BeerJsonBenchmark {
+
+    @Param({"reflective", "module"})
+    private String serializers;
+
+    @Param({"100", "1000"})
+    private int beers;
+
+    private ObjectWriter listWriter;
+    private ObjectReader beerReader;
+    private List<BeerDTO> catalog;
+    private byte[] createBody;
+
+    @Setup
+    public void setUp() throws IOException {
+        Jackson2ObjectMapperBuilder builder = Jackson2ObjectMapperBuilder.json();
+        if (serializers.equals("module")) {
+            builder.modulesToInstall(new BeerJsonModule());
+        }
+        ObjectMapper objectMapper = builder.build();
+        catalog = new ArrayList<>(beers);
+        BeerType[] types = BeerType.values();
+        for (int i = 1; i <= beers; i++) {
+            catalog.add(new BeerDTO((long) i, "Beer " + i, "Brand " + i % 37, 100 + i % 400, i % 100, types[i % types.length]));
+        }
+        listWriter = objectMapper.writerFor(objectMapper.getTypeFactory().constructCollectionType(List.class, BeerDTO.class));
+        beerReader = objectMapper.readerFor(BeerDTO.class);
+        createBody = objectMapper.writeValueAsBytes(catalog.get(0));
+    }
+
+    @Benchmark
+    public byte[] writeCatalog() throws IOException {
+        return listWriter.writeValueAsBytes(catalog);
+    }
+
+    @Benchmark
+    public BeerDTO readBeer() throws IOException {
+        return beerReader.readValue(createBody);
+    }
+}
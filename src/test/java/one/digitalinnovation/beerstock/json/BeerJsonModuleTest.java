@@ -0,0 +1,85 @@
+package one.digitalinnovation.beerstock.json;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.exc.InvalidFormatException;
+import one.digitalinnovation.beerstock.builder.BeerDTOBuilder;
+import one.digitalinnovation.beerstock.dto.BeerDTO;
+import one.digitalinnovation.beerstock.dto.QuantityDTO;
+import one.digitalinnovation.beerstock.enums.BeerType;
+import org.junit.jupiter.api.Test;
+import org.springframework.http.converter.json.Jackson2ObjectMapperBuilder;
+
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.hamcrest.MatcherAssert.assertThat;
+import static org.hamcrest.Matchers.equalTo;
+import static org.hamcrest.Matchers.is;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+
+public class BeerJsonModuleTest {
+
+    private final ObjectMapper reflective = Jackson2ObjectMapperBuilder.json().build();
+    private final ObjectMapper objectMapper = Jackson2ObjectMapperBuilder.json().modulesToInstall(new BeerJsonModule()).build();
+
+    @Test
+    void whenBeerIsWrittenThenTheJsonShapeIsUnchanged() throws Exception {
+        // given
+        BeerDTO beerDTO = BeerDTOBuilder.builder().build().toBeerDTO();
+
+        // when
+        String json = objectMapper.writeValueAsString(beerDTO);
+
+        // then
+        assertThat(json, is(equalTo("{\"id\":1,\"name\":\"Brahma\",\"brand\":\"Ambev\",\"max\":50,\"quantity\":10,\"type\":\"LAGER\"}")));
+        assertThat(json, is(equalTo(reflective.writeValueAsString(beerDTO))));
+    }
+
+    @Test
+    void whenEveryTypeAndMissingFieldsAreWrittenThenTheOutputMatchesTheBeanSerializer() throws Exception {
+        // given
+        List<Object> values = new ArrayList<>();
+        for (BeerType type : BeerType.values()) {
+            values.add(BeerDTOBuilder.builder().id((long) type.ordinal()).name("Beer \"" + type + "\" é").type(type).build().toBeerDTO());
+        }
+        values.add(new BeerDTO());
+        values.add(new QuantityDTO(10));
+        values.add(new QuantityDTO());
+
+        // then
+        assertThat(objectMapper.writeValueAsString(values), is(equalTo(reflective.writeValueAsString(values))));
+    }
+
+    @Test
+    void whenBeerIsReadThenUnknownFieldsAreIgnoredAndNumbersAreCoerced() throws Exception {
+        // given
+        String json = "{\"name\":\"Brahma\",\"brand\":\"Ambev\",\"max\":\"50\",\"quantity\":10,\"type\":\"LAGER\",\"tags\":[{\"a\":1}]}";
+
+        // when
+        BeerDTO beerDTO = objectMapper.readValue(json, BeerDTO.class);
+
+        // then
+        assertThat(beerDTO, is(equalTo(reflective.readValue(json, BeerDTO.class))));
+        assertThat(beerDTO, is(equalTo(BeerDTOBuilder.builder().id(null).build().toBeerDTO())));
+    }
+
+    @Test
+    void whenQuantityIsReadThenItMatchesTheBeanDeserializer() throws Exception {
+        // given
+        String json = "{\"quantity\":30}";
+
+        // then
+        assertThat(objectMapper.readValue(json, QuantityDTO.class), is(equalTo(reflective.readValue(json, QuantityDTO.class))));
+        assertThat(objectMapper.readValue("{}", QuantityDTO.class), is(equalTo(new QuantityDTO())));
+    }
+
+    @Test
+    void whenTypeIsUnknownThenReadingFailsLikeTheBeanDeserializer() {
+        // given
+        String json = "{\"name\":\"Brahma\",\"type\":\"PILSEN\"}";
+
+        // then
+        assertThrows(InvalidFormatException.class, () -> reflective.readValue(json, BeerDTO.class));
+        assertThrows(InvalidFormatException.class, () -> objectMapper.readValue(json, BeerDTO.class));
+    }
+}
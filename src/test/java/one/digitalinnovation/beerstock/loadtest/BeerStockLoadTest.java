@@ -0,0 +1,37 @@
+package one.digitalinnovation.beerstock.loadtest;
+
+import one.digitalinnovation.beerstock.BeerstockApplication;
+import org.junit.jupiter.api.Tag;
+import org.junit.jupiter.api.Test;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.boot.web.server.LocalServerPort;
+
+import java.nio.file.Path;
+import java.util.Map;
+
+import static org.hamcrest.MatcherAssert.assertThat;
+import static org.hamcrest.Matchers.is;
+import static org.hamcrest.Matchers.notNullValue;
+
+@Tag("load")
+@SpringBootTest(classes = BeerstockApplication.class, webEnvironment = SpringBootTest.WebEnvironment.RANDOM_PORT)
+public class BeerStockLoadTest {
+
+    @LocalServerPort
+    private int port;
+
+    @Test
+    void whenStockTrafficIsReplayedThenReportIsWritten() throws Exception {
+        // given
+        LoadTestSettings settings = new LoadTestSettings();
+        LoadTestHarness harness = new LoadTestHarness(settings, port);
+        harness.seed();
+
+        // when
+        Map<String, Object> report = harness.run();
+
+        // then
+        harness.writeReport(report, Path.of(settings.getOutput()));
+        assertThat(report.get("operations"), is(notNullValue()));
+    }
+}
@@ -0,0 +1,53 @@
+package one.digitalinnovation.beerstock.loadtest;
+
+import java.util.Arrays;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.LongAdder;
+
+public class LatencyRecorder {
+
+    private final Map<String, LongAdder> errors = new ConcurrentHashMap<>();
+    private long[] latencies = new long[1024];
+    private int count;
+
+    public synchronized void recordSuccess(long latencyNanos) {
+        if (count == latencies.length) {
+            latencies = Arrays.copyOf(latencies, count * 2);
+        }
+        latencies[count++] = latencyNanos;
+    }
+
+    public void recordError(String cause) {
+        errors.computeIfAbsent(cause, key -> new LongAdder()).increment();
+    }
+
+    public synchronized Map<String, Object> summary(double elapsedSeconds) {
+        long[] sorted = Arrays.copyOf(latencies, count);
+        Arrays.sort(sorted);
+        Map<String, Long> errorCounts = new LinkedHashMap<>();
+        errors.forEach((cause, adder) -> errorCounts.put(cause, adder.sum()));
+        long errorCount = errorCounts.values().stream().mapToLong(Long::longValue).sum();
+
+        Map<String, Object> summary = new LinkedHashMap<>();
+        summary.put("requests", count + errorCount);
+        summary.put("successes", count);
+        summary.put("errors", errorCount);
+        summary.put("throughputPerSecond", count / elapsedSeconds);
+        summary.put("p50Millis", percentileMillis(sorted, 0.50));
+        summary.put("p99Millis", percentileMillis(sorted, 0.99));
+        summary.put("p999Millis", percentileMillis(sorted, 0.999));
+        summary.put("maxMillis", sorted.length == 0 ? 0.0 : sorted[sorted.length - 1] / 1_000_000.0);
+        summary.put("errorBreakdown", errorCounts);
+        return summary;
+    }
+
+    private static double percentileMillis(long[] sorted, double percentile) {
+        if (sorted.length == 0) {
+            return 0.0;
+        }
+        int index = (int) Math.ceil(percentile * sorted.length) - 1;
+        return sorted[Math.max(index, 0)] / 1_000_000.0;
+    }
+}
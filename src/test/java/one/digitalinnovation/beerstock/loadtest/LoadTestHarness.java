@@ -0,0 +1,193 @@
+package one.digitalinnovation.beerstock.loadtest;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.SerializationFeature;
+import one.digitalinnovation.beerstock.dto.BeerDTO;
+import one.digitalinnovation.beerstock.dto.QuantityDTO;
+import one.digitalinnovation.beerstock.enums.BeerType;
+
+import java.io.IOException;
+import java.net.URI;
+import java.net.http.HttpClient;
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.EnumMap;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Random;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.TimeUnit;
+
+import static one.digitalinnovation.beerstock.utils.JsonConvertionUtils.asJsonString;
+
+/**
+ * Open model load generator: requests are started at exponentially distributed arrival times no
+ * matter how many are still outstanding, and latency is measured from the intended start time so
+ * a stalled server shows up in the percentiles instead of slowing the generator down.
+ */
+public class LoadTestHarness {
+
+    public enum Operation {
+        FIND_BY_NAME,
+        LIST,
+        INCREMENT,
+        DECREMENT
+    }
+
+    private static final String BEER_API_URL_PATH = "/api/v1/beers";
+
+    private final ObjectMapper objectMapper = new ObjectMapper();
+    private final HttpClient httpClient = HttpClient.newBuilder()
+            .version(HttpClient.Version.HTTP_1_1)
+            .connectTimeout(Duration.ofSeconds(5))
+            .build();
+    private final Map<Operation, LatencyRecorder> recorders = new EnumMap<>(Operation.class);
+    private final LoadTestSettings settings;
+    private final String baseUrl;
+    private final Random random;
+    private final ZipfDistribution popularity;
+    private final double[] cumulativeMix;
+    private final List<BeerDTO> beers = new ArrayList<>();
+
+    public LoadTestHarness(LoadTestSettings settings, int port) {
+        this.settings = settings;
+        this.baseUrl = "http://localhost:" + port + BEER_API_URL_PATH;
+        this.random = new Random(settings.getSeed());
+        this.popularity = new ZipfDistribution(settings.getBeers(), settings.getZipfExponent());
+        this.cumulativeMix = cumulativeMix(settings.getMix());
+        for (Operation operation : Operation.values()) {
+            recorders.put(operation, new LatencyRecorder());
+        }
+    }
+
+    public void seed() throws IOException, InterruptedException {
+        BeerType[] types = BeerType.values();
+        for (int i = 0; i < settings.getBeers(); i++) {
+            BeerDTO beerDTO = BeerDTO.builder()
+                    .name(String.format("beer-%06d", i))
+                    .brand(String.format("brand-%03d", i % 100))
+                    .max(500)
+                    .quantity(50)
+                    .type(types[i % types.length])
+                    .build();
+            HttpResponse<String> response = httpClient.send(jsonRequest(URI.create(baseUrl), "POST", asJsonString(beerDTO)),
+                    HttpResponse.BodyHandlers.ofString());
+            if (response.statusCode() == 400) {
+                response = httpClient.send(HttpRequest.newBuilder(URI.create(baseUrl + "/" + beerDTO.getName())).GET().build(),
+                        HttpResponse.BodyHandlers.ofString());
+                expectStatus(response, 200, beerDTO);
+            } else {
+                expectStatus(response, 201, beerDTO);
+            }
+            beers.add(objectMapper.readValue(response.body(), BeerDTO.class));
+        }
+    }
+
+    public Map<String, Object> run() throws InterruptedException {
+        List<CompletableFuture<Void>> inFlight = new ArrayList<>();
+        long start = System.nanoTime();
+        long end = start + TimeUnit.SECONDS.toNanos(settings.getDurationSeconds());
+        long nextArrival = start;
+        double meanIntervalNanos = TimeUnit.SECONDS.toNanos(1) / settings.getArrivalRatePerSecond();
+        while (nextArrival < end) {
+            long sleepNanos = nextArrival - System.nanoTime();
+            if (sleepNanos > 0) {
+                TimeUnit.NANOSECONDS.sleep(sleepNanos);
+            }
+            inFlight.add(fire(nextOperation(), nextBeer(), nextArrival));
+            nextArrival += (long) (-Math.log(1 - random.nextDouble()) * meanIntervalNanos);
+        }
+        CompletableFuture.allOf(inFlight.toArray(new CompletableFuture[0])).join();
+        double elapsedSeconds = (System.nanoTime() - start) / 1_000_000_000.0;
+
+        Map<String, Object> operations = new LinkedHashMap<>();
+        recorders.forEach((operation, recorder) -> operations.put(operation.name(), recorder.summary(elapsedSeconds)));
+        Map<String, Object> report = new LinkedHashMap<>();
+        report.put("settings", settings);
+        report.put("elapsedSeconds", elapsedSeconds);
+        report.put("requestsStarted", inFlight.size());
+        report.put("operations", operations);
+        return report;
+    }
+
+    public void writeReport(Map<String, Object> report, Path output) throws IOException {
+        Files.createDirectories(output.toAbsolutePath().getParent());
+        objectMapper.writer(SerializationFeature.INDENT_OUTPUT).writeValue(output.toFile(), report);
+    }
+
+    private CompletableFuture<Void> fire(Operation operation, BeerDTO beer, long intendedStart) {
+        LatencyRecorder recorder = recorders.get(operation);
+        return httpClient.sendAsync(request(operation, beer), HttpResponse.BodyHandlers.discarding())
+                .handle((response, error) -> {
+                    if (error != null) {
+                        recorder.recordError(error.getClass().getSimpleName());
+                    } else if (response.statusCode() >= 400) {
+                        recorder.recordError("HTTP " + response.statusCode());
+                    } else {
+                        recorder.recordSuccess(System.nanoTime() - intendedStart);
+                    }
+                    return null;
+                });
+    }
+
+    private HttpRequest request(Operation operation, BeerDTO beer) {
+        switch (operation) {
+            case FIND_BY_NAME:
+                return HttpRequest.newBuilder(URI.create(baseUrl + "/" + beer.getName())).GET().build();
+            case LIST:
+                return HttpRequest.newBuilder(URI.create(baseUrl)).GET().build();
+            case INCREMENT:
+                return jsonRequest(URI.create(baseUrl + "/" + beer.getId() + "/increment"), "PATCH", quantity());
+            default:
+                return jsonRequest(URI.create(baseUrl + "/" + beer.getId() + "/decrement"), "PATCH", quantity());
+        }
+    }
+
+    private static void expectStatus(HttpResponse<String> response, int expected, BeerDTO beerDTO) {
+        if (response.statusCode() != expected) {
+            throw new IllegalStateException(String.format("Seeding beer %s failed with HTTP %d: %s",
+                    beerDTO.getName(), response.statusCode(), response.body()));
+        }
+    }
+
+    private HttpRequest jsonRequest(URI uri, String method, String body) {
+        return HttpRequest.newBuilder(uri)
+                .header("Content-Type", "application/json")
+                .method(method, HttpRequest.BodyPublishers.ofString(body))
+                .build();
+    }
+
+    private String quantity() {
+        return asJsonString(QuantityDTO.builder().quantity(1).build());
+    }
+
+    private Operation nextOperation() {
+        double draw = random.nextDouble();
+        for (int i = 0; i < cumulativeMix.length; i++) {
+            if (draw < cumulativeMix[i]) {
+                return Operation.values()[i];
+            }
+        }
+        return Operation.values()[cumulativeMix.length - 1];
+    }
+
+    private BeerDTO nextBeer() {
+        return beers.get(popularity.sample(random));
+    }
+
+    private static double[] cumulativeMix(Map<Operation, Integer> mix) {
+        double total = mix.values().stream().mapToInt(Integer::intValue).sum();
+        double[] cumulative = new double[Operation.values().length];
+        double sum = 0;
+        for (Operation operation : Operation.values()) {
+            sum += mix.getOrDefault(operation, 0) / total;
+            cumulative[operation.ordinal()] = sum;
+        }
+        return cumulative;
+    }
+}
@@ -0,0 +1,31 @@
+package one.digitalinnovation.beerstock.loadtest;
+
+import lombok.Data;
+
+import java.util.EnumMap;
+import java.util.Map;
+
+@Data
+public class LoadTestSettings {
+
+    private int beers = Integer.getInteger("loadtest.beers", 1_000);
+
+    private double zipfExponent = Double.parseDouble(System.getProperty("loadtest.zipfExponent", "1.1"));
+
+    private double arrivalRatePerSecond = Double.parseDouble(System.getProperty("loadtest.rate", "500"));
+
+    private int durationSeconds = Integer.getInteger("loadtest.durationSeconds", 30);
+
+    private long seed = Long.getLong("loadtest.seed", 42L);
+
+    private String output = System.getProperty("loadtest.output", "target/load-test-report.json");
+
+    private Map<LoadTestHarness.Operation, Integer> mix = new EnumMap<>(LoadTestHarness.Operation.class);
+
+    public LoadTestSettings() {
+        mix.put(LoadTestHarness.Operation.FIND_BY_NAME, Integer.getInteger("loadtest.mix.findByName", 60));
+        mix.put(LoadTestHarness.Operation.LIST, Integer.getInteger("loadtest.mix.list", 5));
+        mix.put(LoadTestHarness.Operation.INCREMENT, Integer.getInteger("loadtest.mix.increment", 20));
+        mix.put(LoadTestHarness.Operation.DECREMENT, Integer.getInteger("loadtest.mix.decrement", 15));
+    }
+}
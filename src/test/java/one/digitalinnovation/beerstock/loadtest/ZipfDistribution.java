@@ -0,0 +1,26 @@
+package one.digitalinnovation.beerstock.loadtest;
+
+import java.util.Arrays;
+import java.util.Random;
+
+public class ZipfDistribution {
+
+    private final double[] cumulativeProbabilities;
+
+    public ZipfDistribution(int size, double exponent) {
+        cumulativeProbabilities = new double[size];
+        double sum = 0;
+        for (int rank = 1; rank <= size; rank++) {
+            sum += 1 / Math.pow(rank, exponent);
+            cumulativeProbabilities[rank - 1] = sum;
+        }
+        for (int i = 0; i < size; i++) {
+            cumulativeProbabilities[i] /= sum;
+        }
+    }
+
+    public int sample(Random random) {
+        int index = Arrays.binarySearch(cumulativeProbabilities, random.nextDouble());
+        return Math.min(index < 0 ? -index - 1 : index, cumulativeProbabilities.length - 1);
+    }
+}
@@ -0,0 +1,137 @@
+package one.digitalinnovation.beerstock.outbox;
+
+import one.digitalinnovation.beerstock.dto.BeerDTO;
+import one.digitalinnovation.beerstock.dto.StockChangeDTO;
+import one.digitalinnovation.beerstock.entity.OutboxEvent;
+import one.digitalinnovation.beerstock.enums.BeerType;
+import one.digitalinnovation.beerstock.event.BeerChangedEvent;
+import one.digitalinnovation.beerstock.exception.BeerStockExceededException;
+import one.digitalinnovation.beerstock.repository.OutboxEventRepository;
+import one.digitalinnovation.beerstock.service.BeerService;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.mockito.ArgumentCaptor;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.boot.test.mock.mockito.MockBean;
+
+import java.io.IOException;
+import java.time.Instant;
+import java.time.temporal.ChronoUnit;
+import java.util.List;
+import java.util.stream.Collectors;
+
+import static org.hamcrest.MatcherAssert.assertThat;
+import static org.hamcrest.Matchers.contains;
+import static org.hamcrest.Matchers.empty;
+import static org.hamcrest.Matchers.equalTo;
+import static org.hamcrest.Matchers.hasSize;
+import static org.hamcrest.Matchers.is;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.mockito.ArgumentMatchers.anyList;
+import static org.mockito.Mockito.clearInvocations;
+import static org.mockito.Mockito.doThrow;
+import static org.mockito.Mockito.reset;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+
+@SpringBootTest(properties = {
+        "spring.datasource.url=jdbc:h2:mem:outbox-relay;DB_CLOSE_DELAY=-1",
+        "beerstock.outbox.enabled=true",
+        "beerstock.outbox.poll-interval=PT1H"
+})
+public class OutboxRelayTest {
+
+    @Autowired
+    private BeerService beerService;
+
+    @Autowired
+    private OutboxRelay outboxRelay;
+
+    @Autowired
+    private OutboxEventRepository outboxEventRepository;
+
+    @MockBean
+    private OutboxSink outboxSink;
+
+    private BeerDTO beer;
+
+    @BeforeEach
+    void setUp() throws Exception {
+        beerService.deleteAllById(beerService.listAll().stream().map(BeerDTO::getId).collect(Collectors.toList()));
+        outboxEventRepository.deleteAll();
+        beer = beerService.createBeer(new BeerDTO(null, "Colorado", "Colorado", 100, 10, BeerType.IPA));
+        clearInvocations(outboxSink);
+    }
+
+    @Test
+    void whenStockChangesThenRelayDeliversThemInOrderAndEmptiesTheOutbox() throws Exception {
+        // given
+        beerService.increment(beer.getId(), 5);
+        beerService.decrement(beer.getId(), 3);
+
+        // when
+        int relayed = outboxRelay.drain();
+
+        // then
+        List<StockChangeDTO> changes = deliveredChanges(1);
+        assertThat(relayed, is(equalTo(3)));
+        assertThat(changes.stream().map(StockChangeDTO::getKind).collect(Collectors.toList()),
+                contains(BeerChangedEvent.Kind.CREATED, BeerChangedEvent.Kind.UPDATED, BeerChangedEvent.Kind.UPDATED));
+        assertThat(changes.stream().map(StockChangeDTO::getQuantity).collect(Collectors.toList()), contains(10, 15, 12));
+        assertThat(changes.get(2).getPreviousQuantity(), is(equalTo(15)));
+        assertThat(outboxEventRepository.count(), is(equalTo(0L)));
+    }
+
+    @Test
+    void whenStockUpdateIsRejectedThenNothingIsWrittenToTheOutbox() {
+        // when
+        assertThrows(BeerStockExceededException.class, () -> beerService.decrement(beer.getId(), 50));
+
+        // then
+        assertThat(outboxEventRepository.findAll(), hasSize(1));
+    }
+
+    @Test
+    void whenSinkFailsThenChangesAreReleasedAndDeliveredOnTheNextDrain() throws Exception {
+        // given
+        doThrow(new IOException("sink unavailable")).when(outboxSink).deliver(anyList());
+        outboxRelay.drain();
+        assertThat(outboxEventRepository.findAll().get(0).getClaimToken(), is((String) null));
+
+        // when
+        reset(outboxSink);
+        int relayed = outboxRelay.drain();
+
+        // then
+        assertThat(relayed, is(equalTo(1)));
+        assertThat(outboxEventRepository.findAll(), is(empty()));
+    }
+
+    @Test
+    void whenChangesAreClaimedByAnotherRelayThenTheyAreSkippedUntilTheLeaseExpires() throws IOException {
+        // given
+        OutboxEvent claimed = outboxEventRepository.findAll().get(0);
+        claimed.setClaimToken("other-relay");
+        claimed.setClaimedUntil(Instant.now().plus(1, ChronoUnit.HOURS));
+        outboxEventRepository.save(claimed);
+
+        // when
+        int skipped = outboxRelay.drain();
+        claimed.setClaimedUntil(Instant.now().minus(1, ChronoUnit.SECONDS));
+        outboxEventRepository.save(claimed);
+        int relayed = outboxRelay.drain();
+
+        // then
+        assertThat(skipped, is(equalTo(0)));
+        assertThat(relayed, is(equalTo(1)));
+        verify(outboxSink, times(1)).deliver(anyList());
+    }
+
+    @SuppressWarnings("unchecked")
+    private List<StockChangeDTO> deliveredChanges(int batches) throws IOException {
+        ArgumentCaptor<List<StockChangeDTO>> captor = ArgumentCaptor.forClass(List.class);
+        verify(outboxSink, times(batches)).deliver(captor.capture());
+        return captor.getAllValues().stream().flatMap(List::stream).collect(Collectors.toList());
+    }
+}
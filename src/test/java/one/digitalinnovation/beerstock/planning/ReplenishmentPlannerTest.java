@@ -0,0 +1,173 @@
+package one.digitalinnovation.beerstock.planning;
+
+import one.digitalinnovation.beerstock.config.ReplenishmentProperties;
+import one.digitalinnovation.beerstock.dto.ReplenishmentPlanDTO;
+import one.digitalinnovation.beerstock.dto.SupplierOrderDTO;
+import one.digitalinnovation.beerstock.repository.BeerRepository;
+import one.digitalinnovation.beerstock.sharding.ShardRouter;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.data.domain.Pageable;
+import org.springframework.transaction.support.TransactionOperations;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.stream.Collectors;
+
+import static org.hamcrest.MatcherAssert.assertThat;
+import static org.hamcrest.Matchers.contains;
+import static org.hamcrest.Matchers.empty;
+import static org.hamcrest.Matchers.equalTo;
+import static org.hamcrest.Matchers.is;
+import static org.hamcrest.Matchers.sameInstance;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyLong;
+import static org.mockito.Mockito.doAnswer;
+import static org.mockito.Mockito.lenient;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+@ExtendWith(MockitoExtension.class)
+public class ReplenishmentPlannerTest {
+
+    @Mock
+    private BeerRepository beerRepository;
+
+    private final ReplenishmentProperties properties = new ReplenishmentProperties();
+
+    private final List<StockLevel> table = new ArrayList<>();
+
+    private ReplenishmentPlanner replenishmentPlanner;
+
+    @BeforeEach
+    void setUp() {
+        properties.setChunkSize(700);
+        properties.setParallelism(4);
+        replenishmentPlanner = new ReplenishmentPlanner(beerRepository, new ShardRouter(1, TransactionOperations.withoutTransaction()), properties);
+        lenient().when(beerRepository.findStockLevelsAfter(anyLong(), any(Pageable.class))).thenAnswer(invocation -> {
+            long after = invocation.getArgument(0);
+            Pageable page = invocation.getArgument(1);
+            return table.stream()
+                    .filter(level -> level.getId() > after)
+                    .limit(page.getPageSize())
+                    .collect(Collectors.toList());
+        });
+    }
+
+    @AfterEach
+    void tearDown() {
+        replenishmentPlanner.shutdown();
+    }
+
+    @Test
+    void whenTableIsPlannedThenShortfallsAreSummedPerBrandAcrossChunks() {
+        // given
+        for (long id = 1; id <= 2000; id++) {
+            table.add(new StockLevel(id, id % 2 == 0 ? "Ambev" : "Heineken", id % 4 == 0 ? 50 : 10, 50));
+        }
+
+        // when
+        ReplenishmentPlanDTO plan = replenishmentPlanner.plan(0.8);
+
+        // then
+        assertThat(plan.getBeersScanned(), is(equalTo(2000L)));
+        assertThat(plan.getOrders(), contains(new SupplierOrderDTO("Ambev", 500, 15000), new SupplierOrderDTO("Heineken", 1000, 30000)));
+        assertThat(plan.getBeersToReorder(), is(equalTo(1500L)));
+        assertThat(plan.getUnitsToOrder(), is(equalTo(45000L)));
+        verify(beerRepository, times(3)).findStockLevelsAfter(anyLong(), any(Pageable.class));
+    }
+
+    @Test
+    void whenNightlyPlanHasRunThenLatestReturnsItWithoutScanningAgain() {
+        // given
+        table.add(new StockLevel(1L, "Ambev", 5, 10));
+        replenishmentPlanner.planNightly();
+
+        // when
+        ReplenishmentPlanDTO first = replenishmentPlanner.latest();
+        ReplenishmentPlanDTO second = replenishmentPlanner.latest();
+
+        // then
+        assertThat(first, is(sameInstance(second)));
+        assertThat(first.getUnitsToOrder(), is(equalTo(3L)));
+        verify(beerRepository, times(1)).findStockLevelsAfter(anyLong(), any(Pageable.class));
+    }
+
+    @Test
+    void whenPlansAreRequestedConcurrentlyThenScansRunOneAtATimeAndEqualTargetsShareOne() throws Exception {
+        // given
+        table.add(new StockLevel(1L, "Ambev", 5, 10));
+        AtomicInteger running = new AtomicInteger();
+        AtomicInteger mostRunning = new AtomicInteger();
+        CountDownLatch firstScanStarted = new CountDownLatch(1);
+        CountDownLatch releaseFirstScan = new CountDownLatch(1);
+        doAnswer(invocation -> {
+            mostRunning.accumulateAndGet(running.incrementAndGet(), Math::max);
+            firstScanStarted.countDown();
+            releaseFirstScan.await(5, TimeUnit.SECONDS);
+            running.decrementAndGet();
+            return table;
+        }).when(beerRepository).findStockLevelsAfter(anyLong(), any(Pageable.class));
+
+        // when
+        CompletableFuture<ReplenishmentPlanDTO> first = replenishmentPlanner.submit(0.8);
+        assertThat(firstScanStarted.await(5, TimeUnit.SECONDS), is(true));
+        CompletableFuture<ReplenishmentPlanDTO> sameTarget = replenishmentPlanner.submit(0.8);
+        CompletableFuture<ReplenishmentPlanDTO> otherTarget = replenishmentPlanner.submit(0.5);
+        releaseFirstScan.countDown();
+
+        // then
+        assertThat(sameTarget.get(5, TimeUnit.SECONDS), is(sameInstance(first.get(5, TimeUnit.SECONDS))));
+        assertThat(otherTarget.get(5, TimeUnit.SECONDS).getTargetFillRatio(), is(equalTo(0.5)));
+        assertThat(mostRunning.get(), is(equalTo(1)));
+        verify(beerRepository, times(2)).findStockLevelsAfter(anyLong(), any(Pageable.class));
+    }
+
+    @Test
+    void whenConfiguredTargetIsOutOfRangeThenTheClampedPlanIsStillKeptAsLatest() {
+        // given
+        properties.setTargetFillRatio(1.5);
+        table.add(new StockLevel(1L, "Ambev", 5, 10));
+
+        // when
+        ReplenishmentPlanDTO plan = replenishmentPlanner.plan(2.0);
+
+        // then
+        assertThat(plan.getTargetFillRatio(), is(equalTo(1.0)));
+        assertThat(replenishmentPlanner.latest(), is(sameInstance(plan)));
+        verify(beerRepository, times(1)).findStockLevelsAfter(anyLong(), any(Pageable.class));
+    }
+
+    @Test
+    void whenTargetIsNotAFiniteNumberThenNothingIsScanned() {
+        // then
+        assertThrows(IllegalArgumentException.class, () -> replenishmentPlanner.plan(Double.NaN));
+        assertThrows(IllegalArgumentException.class, () -> replenishmentPlanner.plan(Double.POSITIVE_INFINITY));
+        verify(beerRepository, never()).findStockLevelsAfter(anyLong(), any(Pageable.class));
+    }
+
+    @Test
+    void whenBeersAreAtOrAboveTargetThenNoSupplierOrderIsPlanned() {
+        // given
+        table.add(new StockLevel(1L, "Ambev", 45, 50));
+        table.add(new StockLevel(2L, "Ambev", 40, 50));
+
+        // when
+        ReplenishmentPlanDTO plan = replenishmentPlanner.plan(0.8);
+
+        // then
+        assertThat(plan.getBeersScanned(), is(equalTo(2L)));
+        assertThat(plan.getOrders(), is(empty()));
+    }
+}
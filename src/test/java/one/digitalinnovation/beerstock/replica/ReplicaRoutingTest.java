@@ -0,0 +1,107 @@
+package one.digitalinnovation.beerstock.replica;
+
+import one.digitalinnovation.beerstock.dto.BeerDTO;
+import one.digitalinnovation.beerstock.enums.BeerType;
+import one.digitalinnovation.beerstock.exception.BeerAlreadyRegisteredException;
+import one.digitalinnovation.beerstock.exception.BeerNotFoundException;
+import one.digitalinnovation.beerstock.exception.BeerStockExceededException;
+import one.digitalinnovation.beerstock.service.BeerService;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.web.servlet.AutoConfigureMockMvc;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.http.MediaType;
+import org.springframework.test.context.ActiveProfiles;
+import org.springframework.test.web.servlet.MockMvc;
+
+import java.time.Duration;
+import java.time.Instant;
+
+import static one.digitalinnovation.beerstock.utils.JsonConvertionUtils.asJsonString;
+import static org.hamcrest.MatcherAssert.assertThat;
+import static org.hamcrest.Matchers.equalTo;
+import static org.hamcrest.Matchers.is;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.post;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
+
+@SpringBootTest(properties = {
+        "spring.datasource.url=jdbc:h2:mem:replica-routing-primary;DB_CLOSE_DELAY=-1",
+        "beerstock.replica.url=jdbc:h2:mem:replica-routing-replica;DB_CLOSE_DELAY=-1",
+        "beerstock.replica.max-staleness=PT1H",
+        "beerstock.replica.replication-interval=PT1H"
+})
+@AutoConfigureMockMvc
+@ActiveProfiles("replica")
+public class ReplicaRoutingTest {
+
+    private static final String BEER_API_URL_PATH = "/api/v1/beers";
+
+    @Autowired
+    private BeerService beerService;
+
+    @Autowired
+    private StandInReplicator standInReplicator;
+
+    @Autowired
+    private ReplicationStatus replicationStatus;
+
+    @Autowired
+    private MockMvc mockMvc;
+
+    @Test
+    void whenReplicaIsBehindThenReadsSeeTheReplicatedStateAndWritesTheLatest()
+            throws BeerAlreadyRegisteredException, BeerNotFoundException, BeerStockExceededException {
+        // given
+        BeerDTO beer = beerService.createBeer(new BeerDTO(null, "Replicated", "Ambev", 50, 10, BeerType.LAGER));
+
+        // when
+        assertThrows(BeerNotFoundException.class, () -> beerService.findByName(beer.getName()));
+        BeerDTO incrementedBeer = beerService.increment(beer.getId(), 5);
+        standInReplicator.replicate();
+
+        // then
+        assertThat(incrementedBeer.getQuantity(), is(equalTo(15)));
+        assertThat(beerService.findByName(beer.getName()).getQuantity(), is(equalTo(15)));
+    }
+
+    @Test
+    void whenReplicaLagsMoreThanTheToleranceThenReadsGoToThePrimary()
+            throws BeerAlreadyRegisteredException, BeerNotFoundException {
+        // given
+        BeerDTO beer = beerService.createBeer(new BeerDTO(null, "Lagging", "Ambev", 50, 10, BeerType.LAGER));
+
+        // when
+        replicationStatus.markReplicatedUpTo(Instant.now().minus(Duration.ofHours(2)));
+
+        // then
+        try {
+            assertThat(beerService.findByName(beer.getName()), is(equalTo(beer)));
+        } finally {
+            standInReplicator.replicate();
+        }
+    }
+
+    @Test
+    void whenClientHasJustWrittenThenItsReadsStayOnThePrimary() throws Exception {
+        // given
+        BeerDTO beer = new BeerDTO(null, "Sticky", "Ambev", 50, 10, BeerType.LAGER);
+
+        // when
+        mockMvc.perform(post(BEER_API_URL_PATH)
+                .header("X-Client-Id", "writer")
+                .contentType(MediaType.APPLICATION_JSON)
+                .content(asJsonString(beer)))
+                .andExpect(status().isCreated());
+
+        // then
+        mockMvc.perform(get(BEER_API_URL_PATH + "/" + beer.getName()).header("X-Client-Id", "writer"))
+                .andExpect(status().isOk());
+        mockMvc.perform(get(BEER_API_URL_PATH + "/" + beer.getName()).header("X-Client-Id", "reader"))
+                .andExpect(status().isNotFound());
+        standInReplicator.replicate();
+        mockMvc.perform(get(BEER_API_URL_PATH + "/" + beer.getName()).header("X-Client-Id", "reader"))
+                .andExpect(status().isOk());
+    }
+}
@@ -0,0 +1,139 @@
+package one.digitalinnovation.beerstock.resilience;
+
+import one.digitalinnovation.beerstock.builder.BeerDTOBuilder;
+import one.digitalinnovation.beerstock.config.StaleReadsProperties;
+import one.digitalinnovation.beerstock.dto.BeerDTO;
+import one.digitalinnovation.beerstock.exception.CatalogUnavailableException;
+import one.digitalinnovation.beerstock.mapper.BeerMapper;
+import one.digitalinnovation.beerstock.repository.BeerRepository;
+import one.digitalinnovation.beerstock.sharding.ShardRouter;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.transaction.support.TransactionOperations;
+
+import java.time.Duration;
+import java.util.Collections;
+import java.util.List;
+import java.util.Optional;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.hamcrest.MatcherAssert.assertThat;
+import static org.hamcrest.Matchers.contains;
+import static org.hamcrest.Matchers.equalTo;
+import static org.hamcrest.Matchers.is;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.mockito.Mockito.when;
+
+@ExtendWith(MockitoExtension.class)
+public class StaleReadGuardTest {
+
+    @Mock
+    private BeerRepository beerRepository;
+
+    private StaleReadGuard staleReadGuard;
+
+    private final BeerDTO brahma = BeerDTOBuilder.builder().build().toBeerDTO();
+    private final CountDownLatch databaseStalled = new CountDownLatch(1);
+
+    @BeforeEach
+    void setUp() {
+        StaleReadsProperties properties = new StaleReadsProperties();
+        properties.setEnabled(true);
+        properties.setLatencyBudget(Duration.ofMillis(50));
+        properties.setFailureThreshold(2);
+        properties.setOpenDuration(Duration.ofMinutes(1));
+        staleReadGuard = new StaleReadGuard(properties, beerRepository, new ShardRouter(1, TransactionOperations.withoutTransaction()));
+    }
+
+    @AfterEach
+    void tearDown() {
+        databaseStalled.countDown();
+        staleReadGuard.shutdown();
+    }
+
+    @Test
+    void whenNoSnapshotIsLoadedThenTheLiveReadIsAwaited() {
+        // when
+        List<BeerDTO> beers = staleReadGuard.read(this::stalledRead, staleReadGuard::snapshotCatalog);
+
+        // then
+        assertThat(beers, contains(brahma));
+    }
+
+    @Test
+    void whenTheLiveReadIsWithinBudgetThenItIsServed() {
+        // given
+        loadSnapshot();
+
+        // when
+        List<BeerDTO> beers = staleReadGuard.read(Collections::emptyList, staleReadGuard::snapshotCatalog);
+
+        // then
+        assertThat(beers.isEmpty(), is(true));
+    }
+
+    @Test
+    void whenTheLiveReadExceedsTheBudgetThenTheSnapshotIsServed() {
+        // given
+        loadSnapshot();
+
+        // when
+        Optional<BeerDTO> beer = staleReadGuard.read(() -> {
+            stalledRead();
+            return Optional.empty();
+        }, () -> staleReadGuard.snapshotByName(brahma.getName()));
+
+        // then
+        assertThat(beer, is(equalTo(Optional.of(brahma))));
+    }
+
+    @Test
+    void whenTheLiveReadExceedsTheBudgetAndTheBeerIsNotInTheSnapshotThenItIsUnavailable() {
+        // given
+        loadSnapshot();
+
+        // then
+        assertThrows(CatalogUnavailableException.class, () -> staleReadGuard.read(() -> {
+            stalledRead();
+            return Optional.empty();
+        }, () -> staleReadGuard.snapshotByName("Unknown")));
+    }
+
+    @Test
+    void whenReadsKeepFailingThenTheCircuitOpensAndTheDatabaseIsNotCalled() {
+        // given
+        loadSnapshot();
+        AtomicInteger liveReads = new AtomicInteger();
+
+        // when
+        for (int i = 0; i < 5; i++) {
+            staleReadGuard.read(() -> {
+                liveReads.incrementAndGet();
+                throw new IllegalStateException("connection refused");
+            }, staleReadGuard::snapshotCatalog);
+        }
+
+        // then
+        assertThat(liveReads.get(), is(equalTo(2)));
+    }
+
+    private void loadSnapshot() {
+        when(beerRepository.findAll()).thenReturn(List.of(BeerMapper.INSTANCE.toModel(brahma)));
+        staleReadGuard.reload();
+    }
+
+    private List<BeerDTO> stalledRead() {
+        try {
+            databaseStalled.await(200, TimeUnit.MILLISECONDS);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+        return List.of(brahma);
+    }
+}
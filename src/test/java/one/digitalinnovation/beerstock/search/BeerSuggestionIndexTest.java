@@ -0,0 +1,186 @@
+package one.digitalinnovation.beerstock.search;
+
+import one.digitalinnovation.beerstock.builder.BeerDTOBuilder;
+import one.digitalinnovation.beerstock.dto.BeerDTO;
+import one.digitalinnovation.beerstock.dto.BeerSuggestionDTO;
+import one.digitalinnovation.beerstock.event.BeerChangedEvent;
+import one.digitalinnovation.beerstock.repository.BeerRepository;
+import one.digitalinnovation.beerstock.sharding.ShardRouter;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.data.domain.Pageable;
+import org.springframework.transaction.support.TransactionOperations;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+import java.util.stream.Collectors;
+
+import static org.hamcrest.MatcherAssert.assertThat;
+import static org.hamcrest.Matchers.empty;
+import static org.hamcrest.Matchers.equalTo;
+import static org.hamcrest.Matchers.is;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+@ExtendWith(MockitoExtension.class)
+public class BeerSuggestionIndexTest {
+
+    @Mock
+    private BeerRepository beerRepository;
+
+    private BeerSuggestionIndex beerSuggestionIndex;
+
+    @BeforeEach
+    void setUp() {
+        beerSuggestionIndex = new BeerSuggestionIndex(beerRepository, new ShardRouter(1, TransactionOperations.withoutTransaction()));
+        create(BeerDTOBuilder.builder().id(1L).name("Brahma").brand("Ambev").build().toBeerDTO());
+        create(BeerDTOBuilder.builder().id(2L).name("Bohemia").brand("Ambev").build().toBeerDTO());
+        create(BeerDTOBuilder.builder().id(3L).name("Baden Baden").brand("Brasil Kirin").build().toBeerDTO());
+        create(BeerDTOBuilder.builder().id(4L).name("Àmbar").brand("Cervejaria Nacional").build().toBeerDTO());
+    }
+
+    @Test
+    void whenPrefixIsGivenThenBeersWithMatchingNameOrBrandAreReturned() {
+        // when
+        List<BeerSuggestionDTO> suggestions = beerSuggestionIndex.suggest("BR", 10);
+
+        // then
+        assertThat(names(suggestions), is(equalTo(List.of("Brahma", "Baden Baden"))));
+    }
+
+    @Test
+    void whenPrefixHasNoAccentsThenAccentedNamesAreMatched() {
+        // when
+        List<BeerSuggestionDTO> suggestions = beerSuggestionIndex.suggest("amb", 10);
+
+        // then
+        assertThat(names(suggestions), is(equalTo(List.of("Àmbar", "Brahma", "Bohemia"))));
+    }
+
+    @Test
+    void whenLimitIsGivenThenOnlyThatManyBeersAreReturned() {
+        // when
+        List<BeerSuggestionDTO> suggestions = beerSuggestionIndex.suggest("b", 2);
+
+        // then
+        assertThat(suggestions.size(), is(equalTo(2)));
+    }
+
+    @Test
+    void whenBeerIsDeletedThenItIsNoLongerSuggested() {
+        // when
+        beerSuggestionIndex.onBeerChanged(BeerChangedEvent.deleted(1L));
+
+        // then
+        assertThat(names(beerSuggestionIndex.suggest("brah", 10)), is(empty()));
+        assertThat(beerSuggestionIndex.size(), is(equalTo(3)));
+    }
+
+    @Test
+    void whenReloadedThenChangesMadeElsewhereAreApplied() {
+        // given
+        BeerLabel renamed = new BeerLabel(1L, "Brahma Duplo Malte", "Ambev", 0);
+        BeerLabel added = new BeerLabel(5L, "Colorado", "Colorado", 0);
+
+        // when
+        when(beerRepository.findLabelsAfter(eq(0L), any(Pageable.class))).thenReturn(List.of(renamed, added));
+        beerSuggestionIndex.reload();
+
+        // then
+        assertThat(names(beerSuggestionIndex.suggest("b", 10)), is(equalTo(List.of("Brahma Duplo Malte"))));
+        assertThat(names(beerSuggestionIndex.suggest("colo", 10)), is(equalTo(List.of("Colorado"))));
+        assertThat(beerSuggestionIndex.size(), is(equalTo(2)));
+    }
+
+    @Test
+    void whenAnOlderChangeArrivesAfterANewerOneThenTheNewerNameIsKept() {
+        // given
+        BeerDTO renamed = BeerDTOBuilder.builder().id(1L).name("Brahma Duplo Malte").brand("Ambev").build().toBeerDTO();
+        BeerDTO stale = BeerDTOBuilder.builder().id(1L).name("Brahma Chopp").brand("Ambev").build().toBeerDTO();
+
+        // when
+        beerSuggestionIndex.onBeerChanged(BeerChangedEvent.updated(stale, renamed, 2));
+        beerSuggestionIndex.onBeerChanged(BeerChangedEvent.updated(renamed, stale, 1));
+
+        // then
+        assertThat(names(beerSuggestionIndex.suggest("brahma", 10)), is(equalTo(List.of("Brahma Duplo Malte"))));
+        assertThat(names(beerSuggestionIndex.suggest("brahma c", 10)), is(empty()));
+    }
+
+    @Test
+    void whenReloadedThenTheTableIsReadPageByPage() {
+        // given
+        List<BeerLabel> firstPage = new ArrayList<>();
+        for (long id = 1; id <= 1000; id++) {
+            firstPage.add(new BeerLabel(id, "Beer " + id, "Brand", 0));
+        }
+
+        // when
+        when(beerRepository.findLabelsAfter(eq(0L), any(Pageable.class))).thenReturn(firstPage);
+        when(beerRepository.findLabelsAfter(eq(1000L), any(Pageable.class))).thenReturn(List.of(new BeerLabel(1001L, "Beer 1001", "Brand", 0)));
+        beerSuggestionIndex.reload();
+
+        // then
+        assertThat(beerSuggestionIndex.size(), is(equalTo(1001)));
+        verify(beerRepository, never()).findAll();
+    }
+
+    @Test
+    void whenBeerIsDeletedWhileReloadIsScanningThenItIsNotIndexedAgain() {
+        // given
+        BeerLabel brahma = new BeerLabel(1L, "Brahma", "Ambev", 0);
+
+        // when
+        when(beerRepository.findLabelsAfter(eq(0L), any(Pageable.class))).thenAnswer(invocation -> {
+            beerSuggestionIndex.onBeerChanged(BeerChangedEvent.deleted(1L));
+            return List.of(brahma);
+        });
+        beerSuggestionIndex.reload();
+
+        // then
+        assertThat(names(beerSuggestionIndex.suggest("brah", 10)), is(empty()));
+    }
+
+    @Test
+    void whenTheSameBeerIsRenamedConcurrentlyThenOnlyTheNewestNameRemains() throws Exception {
+        // given
+        int renames = 200;
+        ExecutorService executor = Executors.newFixedThreadPool(8);
+        List<Future<?>> results = new ArrayList<>();
+
+        // when
+        for (int version = renames; version > 0; version--) {
+            BeerDTO renamed = BeerDTOBuilder.builder().id(1L).name(String.format("Renamed %04d", version)).brand("Ambev").build().toBeerDTO();
+            long renamedVersion = version;
+            results.add(executor.submit(() -> beerSuggestionIndex.onBeerChanged(BeerChangedEvent.updated(renamed, renamed, renamedVersion))));
+        }
+        for (Future<?> result : results) {
+            result.get(10, TimeUnit.SECONDS);
+        }
+        executor.shutdown();
+
+        // then
+        assertThat(names(beerSuggestionIndex.suggest("renamed", 10)), is(equalTo(List.of(String.format("Renamed %04d", renames)))));
+        for (int version = 1; version < renames; version++) {
+            assertThat(names(beerSuggestionIndex.suggest(String.format("renamed %04d", version), 10)), is(empty()));
+        }
+    }
+
+    private void create(BeerDTO beerDTO) {
+        beerSuggestionIndex.onBeerChanged(BeerChangedEvent.created(beerDTO, 0));
+    }
+
+    private static List<String> names(List<BeerSuggestionDTO> suggestions) {
+        return suggestions.stream().map(BeerSuggestionDTO::getName).collect(Collectors.toList());
+    }
+}
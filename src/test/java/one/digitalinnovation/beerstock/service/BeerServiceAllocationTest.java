@@ -0,0 +1,128 @@
+package one.digitalinnovation.beerstock.service;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.SerializationFeature;
+import one.digitalinnovation.beerstock.BeerstockApplication;
+import one.digitalinnovation.beerstock.dto.BeerDTO;
+import one.digitalinnovation.beerstock.enums.BeerType;
+import org.junit.jupiter.api.AfterAll;
+import org.junit.jupiter.api.BeforeAll;
+import org.junit.jupiter.api.Tag;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.TestInstance;
+import org.junit.jupiter.api.condition.EnabledOnJre;
+import org.junit.jupiter.api.condition.JRE;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+
+import java.io.File;
+import java.lang.management.ManagementFactory;
+import java.util.LinkedHashMap;
+import java.util.Map;
+
+import static org.hamcrest.MatcherAssert.assertThat;
+import static org.hamcrest.Matchers.lessThanOrEqualTo;
+
+/**
+ * Bytes allocated on the calling thread per warmed-up {@link BeerService} call, against a fixed
+ * catalog in the in-memory database. Each operation has a budget, overridable with
+ * {@code -Dallocation.budget.<operation>=<bytes>}; the measured figures are written to
+ * {@code target/allocation-budget.json} so a change in either direction shows up in review.
+ * Measurements depend on the JVM, so the budgets are set for JDK 11, the version the build
+ * targets, and the test is skipped on any other. It runs in every build as the
+ * {@code allocation-budget} surefire execution, in a JVM of its own: code compiled after the rest
+ * of the suite has run allocates more than the same code in a fresh JVM.
+ * <p>
+ * Only the calling thread is counted. With {@code beerstock.stock-lanes.enabled} the stock
+ * updates are applied on a lane thread, so increment and decrement would then measure little more
+ * than the hand-off; the test keeps them disabled.
+ */
+@Tag("allocation")
+@EnabledOnJre(JRE.JAVA_11)
+@SpringBootTest(classes = BeerstockApplication.class, webEnvironment = SpringBootTest.WebEnvironment.NONE,
+        properties = {
+                "spring.datasource.url=jdbc:h2:mem:allocation-budget;DB_CLOSE_DELAY=-1",
+                "beerstock.stock-lanes.enabled=false"
+        })
+@TestInstance(TestInstance.Lifecycle.PER_CLASS)
+public class BeerServiceAllocationTest {
+
+    private static final int CATALOG_SIZE = 200;
+    private static final int WARMUP_CALLS = 2_000;
+    private static final int MEASURED_CALLS = 500;
+    private static final File REPORT = new File("target/allocation-budget.json");
+
+    private final com.sun.management.ThreadMXBean threads = (com.sun.management.ThreadMXBean) ManagementFactory.getThreadMXBean();
+    private final Map<String, Object> report = new LinkedHashMap<>();
+
+    @Autowired
+    private BeerService beerService;
+
+    private BeerDTO stockedBeer;
+
+    @BeforeAll
+    void seedCatalog() throws Exception {
+        BeerType[] types = BeerType.values();
+        for (int i = 1; i <= CATALOG_SIZE; i++) {
+            beerService.createBeer(new BeerDTO(null, "Allocation " + i, "Brand " + i % 7, 100, 50, types[i % types.length]));
+        }
+        stockedBeer = beerService.createBeer(new BeerDTO(null, "Allocation stock", "Brand", Integer.MAX_VALUE, 0, BeerType.IPA));
+    }
+
+    @AfterAll
+    void writeReport() throws Exception {
+        new ObjectMapper().enable(SerializationFeature.INDENT_OUTPUT).writeValue(REPORT, report);
+    }
+
+    // Default budgets leave roughly half again the bytes measured when they were set: findByName
+    // 11 KB, increment and decrement 43 KB, listAll over the 200 beer catalog 200 KB.
+
+    @Test
+    void whenBeerIsFoundByNameThenAllocationStaysWithinBudget() throws Exception {
+        assertWithinBudget("findByName", 16_000L, () -> beerService.findByName("Allocation 42"));
+    }
+
+    @Test
+    void whenStockIsIncrementedThenAllocationStaysWithinBudget() throws Exception {
+        assertWithinBudget("increment", 64_000L, () -> beerService.increment(stockedBeer.getId(), 1));
+    }
+
+    @Test
+    void whenStockIsDecrementedThenAllocationStaysWithinBudget() throws Exception {
+        // given
+        for (int i = 0; i < WARMUP_CALLS + MEASURED_CALLS; i++) {
+            beerService.increment(stockedBeer.getId(), 1);
+        }
+
+        // then
+        assertWithinBudget("decrement", 64_000L, () -> beerService.decrement(stockedBeer.getId(), 1));
+    }
+
+    @Test
+    void whenAllBeersAreListedThenAllocationStaysWithinBudget() throws Exception {
+        assertWithinBudget("listAll", 300_000L, () -> beerService.listAll());
+    }
+
+    private void assertWithinBudget(String operation, long defaultBudget, Operation call) throws Exception {
+        long budget = Long.getLong("allocation.budget." + operation, defaultBudget);
+        for (int i = 0; i < WARMUP_CALLS; i++) {
+            call.run();
+        }
+        long threadId = Thread.currentThread().getId();
+        long before = threads.getThreadAllocatedBytes(threadId);
+        for (int i = 0; i < MEASURED_CALLS; i++) {
+            call.run();
+        }
+        long bytesPerCall = (threads.getThreadAllocatedBytes(threadId) - before) / MEASURED_CALLS;
+        Map<String, Long> result = new LinkedHashMap<>();
+        result.put("bytesPerCall", bytesPerCall);
+        result.put("budget", budget);
+        report.put(operation, result);
+        assertThat(operation + " bytes per call", bytesPerCall, lessThanOrEqualTo(budget));
+    }
+
+    @FunctionalInterface
+    private interface Operation {
+        void run() throws Exception;
+    }
+}
@@ -1,13 +1,34 @@
 package one.digitalinnovation.beerstock.service;
 
 import one.digitalinnovation.beerstock.builder.BeerDTOBuilder;
+import one.digitalinnovation.beerstock.cache.BeerCache;
+import one.digitalinnovation.beerstock.config.ChangeFeedProperties;
+import one.digitalinnovation.beerstock.config.StaleReadsProperties;
+import one.digitalinnovation.beerstock.dto.BeerChangesDTO;
 import one.digitalinnovation.beerstock.dto.BeerDTO;
+import one.digitalinnovation.beerstock.dto.BeerLookupResultDTO;
+import one.digitalinnovation.beerstock.dto.BeerStockDTO;
 import one.digitalinnovation.beerstock.entity.Beer;
+import one.digitalinnovation.beerstock.entity.BeerStock;
+import one.digitalinnovation.beerstock.entity.BeerStockId;
+import one.digitalinnovation.beerstock.entity.BeerTombstone;
+import one.digitalinnovation.beerstock.event.BeerChangedEvent;
 import one.digitalinnovation.beerstock.exception.BeerAlreadyRegisteredException;
 import one.digitalinnovation.beerstock.exception.BeerNotFoundException;
 import one.digitalinnovation.beerstock.exception.BeerStockExceededException;
+import one.digitalinnovation.beerstock.exception.ChangeFeedExpiredException;
+import one.digitalinnovation.beerstock.exception.InvalidLocationException;
 import one.digitalinnovation.beerstock.mapper.BeerMapper;
+import one.digitalinnovation.beerstock.outbox.BeerOutbox;
+import one.digitalinnovation.beerstock.planning.ReplenishmentPlanner;
+import one.digitalinnovation.beerstock.replica.ReadRouting;
 import one.digitalinnovation.beerstock.repository.BeerRepository;
+import one.digitalinnovation.beerstock.repository.BeerStockRepository;
+import one.digitalinnovation.beerstock.repository.BeerTombstoneRepository;
+import one.digitalinnovation.beerstock.resilience.StaleReadGuard;
+import one.digitalinnovation.beerstock.search.BeerSuggestionIndex;
+import one.digitalinnovation.beerstock.sharding.ShardRouter;
+import one.digitalinnovation.beerstock.stats.InventoryStatistics;
 import org.hamcrest.MatcherAssert;
 import org.hamcrest.Matchers;
 import org.junit.jupiter.api.Test;
@@ -15,12 +36,22 @@ import org.junit.jupiter.api.extension.ExtendWith;
 import org.mockito.InjectMocks;
 import org.mockito.Mock;
 import org.mockito.Mockito;
+import org.mockito.Spy;
 import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.data.domain.Pageable;
+import org.springframework.orm.ObjectOptimisticLockingFailureException;
+import org.springframework.transaction.support.TransactionOperations;
 
 import java.util.ArrayList;
 import java.util.Collections;
 import java.util.List;
 import java.util.Optional;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
 
 import static org.hamcrest.MatcherAssert.*;
 import static org.hamcrest.MatcherAssert.assertThat;
@@ -46,6 +77,42 @@ public class BeerServiceTest {
     @Mock
     private BeerRepository beerRepository;
 
+    @Mock
+    private BeerTombstoneRepository beerTombstoneRepository;
+
+    @Mock
+    private BeerStockRepository beerStockRepository;
+
+    @Mock
+    private StockMutationLanes stockMutationLanes;
+
+    @Mock
+    private BeerOutbox beerOutbox;
+
+    @Mock
+    private BeerCache beerCache;
+
+    @Mock
+    private BeerSuggestionIndex beerSuggestionIndex;
+
+    @Mock
+    private InventoryStatistics inventoryStatistics;
+
+    @Mock
+    private ReplenishmentPlanner replenishmentPlanner;
+
+    @Spy
+    private ShardRouter shardRouter = new ShardRouter(1, TransactionOperations.withoutTransaction());
+
+    @Spy
+    private StaleReadGuard staleReadGuard = new StaleReadGuard(new StaleReadsProperties(), mock(BeerRepository.class), shardRouter);
+
+    @Spy
+    private ChangeSequencer changeSequencer = new ChangeSequencer(new ChangeFeedProperties());
+
+    @Mock
+    private ApplicationEventPublisher eventPublisher;
+
     private BeerMapper beerMapper = BeerMapper.INSTANCE;
 
     @InjectMocks
@@ -59,7 +126,8 @@ public class BeerServiceTest {
 
         // when
         when(beerRepository.findByName(expectedBeerDTO.getName())).thenReturn(Optional.empty());
-        when(beerRepository.save(expectedSavedBeer)).thenReturn(expectedSavedBeer);
+        when(beerRepository.save(Mockito.argThat((Beer beer) -> beer.getName().equals(expectedBeerDTO.getName()) && beer.getChangeSeq() > 0)))
+                .thenReturn(expectedSavedBeer);
 
         // then
         BeerDTO createdBeerDTO = beerService.createBeer(expectedBeerDTO);
@@ -99,6 +167,35 @@ public class BeerServiceTest {
         assertThat(foundBeerDTO, is(equalTo(expectedFoundBeerDTO)));
     }
 
+    @Test
+    void whenPrimaryPinnedLookupRunsDuringAnotherLookupThenItIsNotCollapsedIntoIt() throws Exception {
+        // given
+        BeerDTO expectedFoundBeerDTO = BeerDTOBuilder.builder().build().toBeerDTO();
+        CountDownLatch replicaReadStarted = new CountDownLatch(1);
+        CountDownLatch releaseReplicaRead = new CountDownLatch(1);
+
+        // when
+        when(beerRepository.findByName(expectedFoundBeerDTO.getName())).thenAnswer(invocation -> {
+            if (!ReadRouting.isPrimaryPinned()) {
+                replicaReadStarted.countDown();
+                releaseReplicaRead.await(5, TimeUnit.SECONDS);
+            }
+            return Optional.of(beerMapper.toModel(expectedFoundBeerDTO));
+        });
+        ExecutorService executor = Executors.newSingleThreadExecutor();
+        Future<BeerDTO> replicaLookup = executor.submit(() -> beerService.findByName(expectedFoundBeerDTO.getName()));
+        replicaReadStarted.await(5, TimeUnit.SECONDS);
+
+        // then
+        try (ReadRouting.Scope primary = ReadRouting.pinToPrimary()) {
+            beerService.findByName(expectedFoundBeerDTO.getName());
+        }
+        verify(beerRepository, times(2)).findByName(expectedFoundBeerDTO.getName());
+        releaseReplicaRead.countDown();
+        replicaLookup.get();
+        executor.shutdown();
+    }
+
     @Test
     void whenInvalidBeerNameIsGivenThenExceptionShouldBeThrown() {
         // given
@@ -111,6 +208,27 @@ public class BeerServiceTest {
         assertThrows(BeerNotFoundException.class, () -> beerService.findByName(expectedFoundBeerDTO.getName()));
     }
 
+    @Test
+    void whenLookupByNamesIsCalledThenFoundBeersAndMissingNamesAreReturned() {
+        // given
+        BeerDTO cachedBeerDTO = BeerDTOBuilder.builder().id(1L).name("Brahma").build().toBeerDTO();
+        BeerDTO storedBeerDTO = BeerDTOBuilder.builder().id(2L).name("Skol").build().toBeerDTO();
+        Beer storedBeer = beerMapper.toModel(storedBeerDTO);
+
+        // when
+        when(beerCache.get("Brahma")).thenReturn(Optional.of(cachedBeerDTO));
+        when(beerCache.get("Skol")).thenReturn(Optional.empty());
+        when(beerCache.get("Unknown")).thenReturn(Optional.empty());
+        when(beerRepository.findByNameIn(List.of("Skol", "Unknown"))).thenReturn(List.of(storedBeer));
+
+        // then
+        BeerLookupResultDTO result = beerService.lookupByNames(List.of("Skol", "Brahma", "Unknown", "Skol"));
+
+        assertThat(result.getBeers(), is(equalTo(List.of(storedBeerDTO, cachedBeerDTO))));
+        assertThat(result.getNotFound(), is(equalTo(List.of("Unknown"))));
+        verify(beerCache, times(1)).put(storedBeer);
+    }
+
     @Test
     void whenListBeerIsCalledThenReturnListOfAllBeers() {
         // given
@@ -143,27 +261,134 @@ public class BeerServiceTest {
     void whenDeleteByIdIsCalledWithValidIdThenBeerShouldBeDeleted() throws BeerNotFoundException {
         // given
         BeerDTO expectedDeletedBeerDTO = BeerDTOBuilder.builder().build().toBeerDTO();
-        Beer expectedDeletedBeer = beerMapper.toModel(expectedDeletedBeerDTO);
 
         // when
-        when(beerRepository.findById(expectedDeletedBeerDTO.getId())).thenReturn(Optional.of(expectedDeletedBeer));
-        doNothing().when(beerRepository).deleteById(expectedDeletedBeerDTO.getId());
+        when(beerRepository.deleteBeerById(expectedDeletedBeerDTO.getId())).thenReturn(1);
 
         // then
         beerService.deleteById(expectedDeletedBeerDTO.getId());
 
-        verify(beerRepository, times(1)).findById(expectedDeletedBeerDTO.getId());
-        verify(beerRepository, times(1)).deleteById(expectedDeletedBeerDTO.getId());
+        verify(beerRepository, times(1)).deleteBeerById(expectedDeletedBeerDTO.getId());
+        verify(beerRepository, never()).findById(expectedDeletedBeerDTO.getId());
+        verify(beerStockRepository, times(1)).deleteByBeerIdIn(List.of(expectedDeletedBeerDTO.getId()));
+        verify(beerTombstoneRepository, times(1)).save(Mockito.any(BeerTombstone.class));
     }
 
     @Test
     void whenDeleteByIdIsCalledWIthInvalidIdThenExceptionShouldBeThrown () throws BeerNotFoundException {
         // when
-        when(beerRepository.findById(INVALID_BEER_ID)).thenReturn(Optional.empty());
+        when(beerRepository.deleteBeerById(INVALID_BEER_ID)).thenReturn(0);
 
         // then
         assertThrows(BeerNotFoundException.class, () -> beerService.deleteById(INVALID_BEER_ID));
+        verify(beerTombstoneRepository, never()).save(Mockito.any(BeerTombstone.class));
+    }
+
+    @Test
+    void whenChangesSinceIsCalledThenChangesAndDeletionsAreMergedInSequenceOrder() throws ChangeFeedExpiredException {
+        // given
+        long since = changeSequencer.visibleLimit();
+        Beer changedBeer = beerMapper.toModel(BeerDTOBuilder.builder().build().toBeerDTO());
+        changedBeer.setChangeSeq(since + 1);
+        BeerTombstone tombstone = new BeerTombstone(2L, since + 2);
+        Beer laterChangedBeer = beerMapper.toModel(BeerDTOBuilder.builder().id(3L).name("Stella").build().toBeerDTO());
+        laterChangedBeer.setChangeSeq(since + 3);
+
+        // when
+        when(beerRepository.findByChangeSeqGreaterThanAndChangeSeqLessThanOrderByChangeSeq(eq(since), Mockito.anyLong(), Mockito.any(Pageable.class)))
+                .thenReturn(List.of(changedBeer, laterChangedBeer));
+        when(beerTombstoneRepository.findByChangeSeqGreaterThanAndChangeSeqLessThanOrderByChangeSeq(eq(since), Mockito.anyLong(), Mockito.any(Pageable.class)))
+                .thenReturn(List.of(tombstone));
+
+        // then
+        BeerChangesDTO changes = beerService.changesSince(since, 2);
+
+        assertThat(changes.getChanged(), is(equalTo(List.of(beerMapper.toDTO(changedBeer)))));
+        assertThat(changes.getDeleted(), is(equalTo(List.of(2L))));
+        assertThat(changes.getHighWaterMark(), is(equalTo(since + 2)));
+        assertTrue(changes.isHasMore());
+    }
+
+    @Test
+    void whenChangesSinceIsCalledWithNothingNewThenHighWaterMarkIsKept() throws ChangeFeedExpiredException {
+        // given
+        long since = changeSequencer.visibleLimit();
+
+        // when
+        when(beerRepository.findByChangeSeqGreaterThanAndChangeSeqLessThanOrderByChangeSeq(eq(since), Mockito.anyLong(), Mockito.any(Pageable.class)))
+                .thenReturn(Collections.emptyList());
+        when(beerTombstoneRepository.findByChangeSeqGreaterThanAndChangeSeqLessThanOrderByChangeSeq(eq(since), Mockito.anyLong(), Mockito.any(Pageable.class)))
+                .thenReturn(Collections.emptyList());
+
+        // then
+        BeerChangesDTO changes = beerService.changesSince(since, 100);
+
+        assertThat(changes.getChanged(), is(empty()));
+        assertThat(changes.getDeleted(), is(empty()));
+        assertThat(changes.getHighWaterMark(), is(equalTo(since)));
+        assertFalse(changes.isHasMore());
+    }
+
+    @Test
+    void whenChangesSinceIsCalledBelowTheRetentionThenAFullSyncIsRequired() {
+        // then
+        assertThrows(ChangeFeedExpiredException.class, () -> beerService.changesSince(9L, 100));
+        verify(beerTombstoneRepository, never()).findByChangeSeqGreaterThanAndChangeSeqLessThanOrderByChangeSeq(
+                Mockito.anyLong(), Mockito.anyLong(), Mockito.any(Pageable.class));
+    }
+
+    @Test
+    void whenDeleteAllByIdIsCalledThenBeersShouldBeDeletedInOneStatement() {
+        // given
+        List<Long> idsToDelete = List.of(1L, 2L, 3L);
+
+        // when
+        when(beerRepository.findByIdInForUpdate(idsToDelete)).thenReturn(List.of(beerWithId(1L), beerWithId(2L), beerWithId(3L)));
+
+        // then
+        int deletedBeers = beerService.deleteAllById(idsToDelete);
+
+        assertThat(deletedBeers, is(equalTo(idsToDelete.size())));
+        verify(beerRepository, times(1)).deleteBeersByIdIn(idsToDelete);
+        verify(beerStockRepository, times(1)).deleteByBeerIdIn(idsToDelete);
+    }
+
+    @Test
+    void whenDeleteAllByIdIsCalledWithMissingAndRepeatedIdsThenOnlyExistingBeersAreRecordedOnce() {
+        // given
+        List<Long> idsToDelete = List.of(1L, 4L, 1L);
+
+        // when
+        when(beerRepository.findByIdInForUpdate(List.of(1L, 4L))).thenReturn(List.of(beerWithId(1L)));
+
+        // then
+        int deletedBeers = beerService.deleteAllById(idsToDelete);
+
+        assertThat(deletedBeers, is(equalTo(1)));
+        verify(beerRepository, times(1)).deleteBeersByIdIn(List.of(1L));
+        verify(beerOutbox, times(1)).recordDeleted(1L);
+        verify(beerOutbox, never()).recordDeleted(4L);
+        verify(beerTombstoneRepository, times(1)).saveAll(Mockito.argThat(tombstones -> tombstones.spliterator().getExactSizeIfKnown() == 1
+                && tombstones.iterator().next().getBeerId().equals(1L)));
+        verify(eventPublisher, times(1)).publishEvent(Mockito.any(BeerChangedEvent.class));
+    }
 
+    @Test
+    void whenDeleteAllByIdIsCalledWithUnknownIdsThenNothingIsRecorded() {
+        // given
+        List<Long> idsToDelete = List.of(4L, 5L);
+
+        // when
+        when(beerRepository.findByIdInForUpdate(idsToDelete)).thenReturn(Collections.emptyList());
+
+        // then
+        int deletedBeers = beerService.deleteAllById(idsToDelete);
+
+        assertThat(deletedBeers, is(equalTo(0)));
+        verify(beerRepository, never()).deleteBeersByIdIn(Mockito.any());
+        verify(beerOutbox, never()).recordDeleted(Mockito.any());
+        verify(beerTombstoneRepository, never()).saveAll(Mockito.any());
+        verify(eventPublisher, never()).publishEvent(Mockito.any(BeerChangedEvent.class));
     }
 
     @Test
@@ -174,7 +399,7 @@ public class BeerServiceTest {
 
         // when
         when(beerRepository.findById(beerToIncrementDTO.getId())).thenReturn(Optional.of(beerToIncrement));
-        when(beerRepository.save(beerToIncrement)).thenReturn(beerToIncrement);
+        when(beerRepository.saveAndFlush(beerToIncrement)).thenReturn(beerToIncrement);
 
         // then
         int quantityToIncrement = 10;
@@ -183,6 +408,27 @@ public class BeerServiceTest {
 
         assertThat(expectedQuantityAfterIncrement, is(equalTo(incrementedBeerDTO.getQuantity())));
         assertThat(incrementedBeerDTO.getQuantity(), is(lessThan(beerToIncrementDTO.getMax())));
+        verify(beerOutbox, times(1)).recordUpdated(beerToIncrement, beerToIncrementDTO.getQuantity());
+    }
+
+    @Test
+    void whenIncrementConflictsWithConcurrentUpdateThenItIsRetried() throws BeerNotFoundException, BeerStockExceededException {
+        // given
+        BeerDTO beerToIncrementDTO = BeerDTOBuilder.builder().build().toBeerDTO();
+        Beer beerToIncrement = beerMapper.toModel(beerToIncrementDTO);
+
+        // when
+        when(beerRepository.findById(beerToIncrementDTO.getId())).thenReturn(Optional.of(beerToIncrement));
+        when(beerRepository.saveAndFlush(beerToIncrement))
+                .thenThrow(new ObjectOptimisticLockingFailureException(Beer.class, beerToIncrementDTO.getId()))
+                .thenReturn(beerToIncrement);
+
+        // then
+        int quantityToIncrement = 10;
+        BeerDTO incrementedBeerDTO = beerService.increment(beerToIncrementDTO.getId(), quantityToIncrement);
+
+        verify(beerRepository, times(2)).findById(beerToIncrementDTO.getId());
+        assertThat(incrementedBeerDTO.getQuantity(), is(greaterThan(beerToIncrementDTO.getQuantity())));
     }
 
     @Test
@@ -222,7 +468,7 @@ public class BeerServiceTest {
 
         // when
         when(beerRepository.findById(beerToDecrementDTO.getId())).thenReturn(Optional.of(beerToDecrement));
-        when(beerRepository.save(beerToDecrement)).thenReturn(beerToDecrement);
+        when(beerRepository.saveAndFlush(beerToDecrement)).thenReturn(beerToDecrement);
 
         // then
         int quantityToDecrement = 10;
@@ -258,4 +504,74 @@ public class BeerServiceTest {
         assertThat(expectedQuantityAfterDecrement, is(lessThan(0)));
         assertThrows(BeerStockExceededException.class, () -> beerService.decrement(beerToDecrement.getId(), quantityToDecrement));
     }
+
+    @Test
+    void whenIncrementAtLocationIsCalledThenLocationAndTotalAreIncremented() throws Exception {
+        // given
+        BeerDTO beerDTO = BeerDTOBuilder.builder().build().toBeerDTO();
+        Beer beer = beerMapper.toModel(beerDTO);
+
+        // when
+        when(beerRepository.findByIdForUpdate(beerDTO.getId())).thenReturn(Optional.of(beer));
+        when(beerStockRepository.findById(new BeerStockId(beerDTO.getId(), "recife"))).thenReturn(Optional.empty());
+        when(beerStockRepository.save(Mockito.any(BeerStock.class))).thenAnswer(invocation -> invocation.getArgument(0));
+
+        // then
+        BeerStockDTO stockDTO = beerService.incrementAt(beerDTO.getId(), "recife", 5);
+
+        assertThat(stockDTO, is(equalTo(new BeerStockDTO(beerDTO.getId(), "recife", 5, beerDTO.getQuantity() + 5))));
+        verify(beerRepository, times(1)).saveAndFlush(beer);
+        verify(eventPublisher, times(1)).publishEvent(Mockito.any(BeerChangedEvent.class));
+    }
+
+    @Test
+    void whenDecrementAtLocationExceedsItsStockThenTotalIsNotTouched() {
+        // given
+        BeerDTO beerDTO = BeerDTOBuilder.builder().build().toBeerDTO();
+
+        // when
+        when(beerRepository.findByIdForUpdate(beerDTO.getId())).thenReturn(Optional.of(beerMapper.toModel(beerDTO)));
+        when(beerStockRepository.findById(new BeerStockId(beerDTO.getId(), "recife")))
+                .thenReturn(Optional.of(new BeerStock(beerDTO.getId(), "recife", 3, 0L)));
+
+        // then
+        assertThrows(BeerStockExceededException.class, () -> beerService.decrementAt(beerDTO.getId(), "recife", 4));
+        verify(beerRepository, never()).saveAndFlush(Mockito.any(Beer.class));
+    }
+
+    @Test
+    void whenIncrementAtLocationExceedsTheBeerMaxThenExceptionShouldBeThrown() {
+        // given
+        BeerDTO beerDTO = BeerDTOBuilder.builder().build().toBeerDTO();
+
+        // when
+        when(beerRepository.findByIdForUpdate(beerDTO.getId())).thenReturn(Optional.of(beerMapper.toModel(beerDTO)));
+        when(beerStockRepository.findById(new BeerStockId(beerDTO.getId(), "recife"))).thenReturn(Optional.empty());
+
+        // then
+        assertThrows(BeerStockExceededException.class, () -> beerService.incrementAt(beerDTO.getId(), "recife", beerDTO.getMax()));
+        verify(eventPublisher, never()).publishEvent(Mockito.any(BeerChangedEvent.class));
+    }
+
+    @Test
+    void whenIncrementAtLocationIsCalledWithInvalidIdThenExceptionShouldBeThrown() {
+        // when
+        when(beerRepository.findByIdForUpdate(INVALID_BEER_ID)).thenReturn(Optional.empty());
+
+        // then
+        assertThrows(BeerNotFoundException.class, () -> beerService.incrementAt(INVALID_BEER_ID, "recife", 5));
+        verify(beerStockRepository, never()).save(Mockito.any(BeerStock.class));
+    }
+
+    @Test
+    void whenLocationIsBlankThenExceptionShouldBeThrown() {
+        // then
+        assertThrows(InvalidLocationException.class, () -> beerService.incrementAt(INVALID_BEER_ID, " ", 5));
+    }
+
+    private Beer beerWithId(Long id) {
+        Beer beer = beerMapper.toModel(BeerDTOBuilder.builder().build().toBeerDTO());
+        beer.setId(id);
+        return beer;
+    }
 }
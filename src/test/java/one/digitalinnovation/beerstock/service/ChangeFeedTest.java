@@ -0,0 +1,100 @@
+package one.digitalinnovation.beerstock.service;
+
+import one.digitalinnovation.beerstock.dto.BeerChangesDTO;
+import one.digitalinnovation.beerstock.dto.BeerDTO;
+import one.digitalinnovation.beerstock.entity.Beer;
+import one.digitalinnovation.beerstock.entity.BeerTombstone;
+import one.digitalinnovation.beerstock.enums.BeerType;
+import one.digitalinnovation.beerstock.exception.ChangeFeedExpiredException;
+import one.digitalinnovation.beerstock.repository.BeerRepository;
+import one.digitalinnovation.beerstock.repository.BeerTombstoneRepository;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+
+import java.util.Optional;
+import java.util.stream.Collectors;
+
+import static org.hamcrest.MatcherAssert.assertThat;
+import static org.hamcrest.Matchers.contains;
+import static org.hamcrest.Matchers.empty;
+import static org.hamcrest.Matchers.equalTo;
+import static org.hamcrest.Matchers.is;
+import static org.hamcrest.Matchers.lessThan;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+
+@SpringBootTest(properties = {
+        "spring.datasource.url=jdbc:h2:mem:change-feed;DB_CLOSE_DELAY=-1",
+        "beerstock.change-feed.safety-lag=PT0S"
+})
+public class ChangeFeedTest {
+
+    private static final long INVALID_BEER_ID = 999L;
+
+    @Autowired
+    private BeerService beerService;
+
+    @Autowired
+    private ChangeSequencer changeSequencer;
+
+    @Autowired
+    private BeerRepository beerRepository;
+
+    @Autowired
+    private BeerTombstoneRepository beerTombstoneRepository;
+
+    @Autowired
+    private TombstoneCompactor tombstoneCompactor;
+
+    private BeerDTO slowBeer;
+
+    private BeerDTO fastBeer;
+
+    @BeforeEach
+    void setUp() throws Exception {
+        beerService.deleteAllById(beerService.listAll().stream().map(BeerDTO::getId).collect(Collectors.toList()));
+        slowBeer = beerService.createBeer(new BeerDTO(null, "Brahma", "Ambev", 100, 10, BeerType.LAGER));
+        fastBeer = beerService.createBeer(new BeerDTO(null, "Colorado", "Colorado", 100, 10, BeerType.IPA));
+    }
+
+    @Test
+    void whenAnEarlierWriterCommitsAfterALaterOneThenTheFeedDoesNotSkipIt() throws Exception {
+        // given
+        long since = beerService.changesSince(0, 1000).getHighWaterMark();
+        ChangeSequencer.Ticket slowWrite = changeSequencer.next();
+        beerService.increment(fastBeer.getId(), 5);
+
+        // when
+        BeerChangesDTO whileSlowWriteIsOpen = beerService.changesSince(since, 1000);
+        Beer beer = beerRepository.findById(slowBeer.getId()).orElseThrow();
+        beer.setQuantity(20);
+        beer.setChangeSeq(slowWrite.getValue());
+        beerRepository.save(beer);
+        slowWrite.close();
+        BeerChangesDTO afterSlowWriteCommitted = beerService.changesSince(whileSlowWriteIsOpen.getHighWaterMark(), 1000);
+
+        // then
+        assertThat(whileSlowWriteIsOpen.getChanged(), is(empty()));
+        assertThat(whileSlowWriteIsOpen.getHighWaterMark(), is(lessThan(slowWrite.getValue())));
+        assertThat(afterSlowWriteCommitted.getChanged().stream().map(BeerDTO::getName).collect(Collectors.toList()),
+                contains(slowBeer.getName(), fastBeer.getName()));
+        assertThat(afterSlowWriteCommitted.getChanged().get(0).getQuantity(), is(equalTo(20)));
+    }
+
+    @Test
+    void whenTombstonesAreOlderThanTheRetentionThenTheyAreCompacted() throws Exception {
+        // given
+        beerService.deleteById(fastBeer.getId());
+        beerTombstoneRepository.save(new BeerTombstone(INVALID_BEER_ID, 1L));
+
+        // when
+        int compacted = tombstoneCompactor.compact();
+
+        // then
+        assertThat(compacted, is(equalTo(1)));
+        assertThat(beerTombstoneRepository.findById(INVALID_BEER_ID), is(equalTo(Optional.empty())));
+        assertThat(beerTombstoneRepository.findById(fastBeer.getId()).isPresent(), is(true));
+        assertThrows(ChangeFeedExpiredException.class, () -> beerService.changesSince(1L, 1000));
+    }
+}
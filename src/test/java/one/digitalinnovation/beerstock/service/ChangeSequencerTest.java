@@ -0,0 +1,136 @@
+package one.digitalinnovation.beerstock.service;
+
+import one.digitalinnovation.beerstock.config.ChangeFeedProperties;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import java.time.Clock;
+import java.time.Duration;
+import java.time.Instant;
+import java.time.ZoneId;
+import java.time.ZoneOffset;
+
+import static org.hamcrest.MatcherAssert.assertThat;
+import static org.hamcrest.Matchers.equalTo;
+import static org.hamcrest.Matchers.greaterThan;
+import static org.hamcrest.Matchers.is;
+import static org.hamcrest.Matchers.lessThanOrEqualTo;
+import static org.hamcrest.Matchers.not;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+
+public class ChangeSequencerTest {
+
+    private final MutableClock clock = new MutableClock(Instant.parse("2026-01-01T00:00:00Z"));
+
+    private ChangeFeedProperties properties;
+
+    @BeforeEach
+    void setUp() {
+        properties = new ChangeFeedProperties();
+        properties.setSafetyLag(Duration.ofSeconds(5));
+    }
+
+    @Test
+    void whenTwoNodesWriteAtTheSameTimeThenTheirNumbersDifferAndFollowTheClock() {
+        // given
+        ChangeSequencer node = sequencer(1);
+        ChangeSequencer otherNode = sequencer(2);
+
+        // when
+        long first = node.next().getValue();
+        long fromOtherNode = otherNode.next().getValue();
+        clock.advance(Duration.ofMillis(1));
+        long later = otherNode.next().getValue();
+
+        // then
+        assertThat(first, is(not(equalTo(fromOtherNode))));
+        assertThat(later, is(greaterThan(Math.max(first, fromOtherNode))));
+    }
+
+    @Test
+    void whenAnotherNodeWroteWithinTheSafetyLagThenItsChangeIsNotVisibleYet() {
+        // given
+        ChangeSequencer node = sequencer(1);
+        ChangeSequencer otherNode = sequencer(2);
+        long otherNodeWrite = otherNode.next().getValue();
+
+        // when
+        long limitWithinLag = node.visibleLimit();
+        clock.advance(Duration.ofSeconds(5));
+        long limitAfterLag = node.visibleLimit();
+
+        // then
+        assertThat(limitWithinLag, is(lessThanOrEqualTo(otherNodeWrite)));
+        assertThat(limitAfterLag, is(greaterThan(otherNodeWrite)));
+    }
+
+    @Test
+    void whenALocalWriteOutlivesTheSafetyLagThenTheLimitStaysBelowIt() {
+        // given
+        ChangeSequencer node = sequencer(1);
+        ChangeSequencer.Ticket slowWrite = node.next();
+
+        // when
+        clock.advance(Duration.ofMinutes(1));
+        long limitWhileOpen = node.visibleLimit();
+        slowWrite.close();
+        long limitAfterCommit = node.visibleLimit();
+
+        // then
+        assertThat(limitWhileOpen, is(lessThanOrEqualTo(slowWrite.getValue())));
+        assertThat(limitAfterCommit, is(greaterThan(slowWrite.getValue())));
+    }
+
+    @Test
+    void whenTheRetentionHasPassedThenOldNumbersAreBelowTheRetainedRange() {
+        // given
+        properties.setTombstoneRetention(Duration.ofDays(7));
+        ChangeSequencer node = sequencer(1);
+        long oldWrite = node.next().getValue();
+
+        // when
+        clock.advance(Duration.ofDays(7).plusMillis(1));
+
+        // then
+        assertThat(node.retainedSince(), is(greaterThan(oldWrite)));
+    }
+
+    @Test
+    void whenTheNodeIdDoesNotFitThenTheSequencerIsRejected() {
+        // then
+        assertThrows(IllegalStateException.class, () -> sequencer(256));
+    }
+
+    private ChangeSequencer sequencer(int nodeId) {
+        properties.setNodeId(nodeId);
+        return new ChangeSequencer(properties, clock);
+    }
+
+    private static class MutableClock extends Clock {
+
+        private Instant instant;
+
+        MutableClock(Instant instant) {
+            this.instant = instant;
+        }
+
+        void advance(Duration duration) {
+            instant = instant.plus(duration);
+        }
+
+        @Override
+        public ZoneId getZone() {
+            return ZoneOffset.UTC;
+        }
+
+        @Override
+        public Clock withZone(ZoneId zone) {
+            return this;
+        }
+
+        @Override
+        public Instant instant() {
+            return instant;
+        }
+    }
+}
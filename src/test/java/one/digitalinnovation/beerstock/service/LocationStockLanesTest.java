@@ -0,0 +1,70 @@
+package one.digitalinnovation.beerstock.service;
+
+import one.digitalinnovation.beerstock.dto.BeerDTO;
+import one.digitalinnovation.beerstock.enums.BeerType;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+import java.util.stream.Collectors;
+
+import static org.hamcrest.MatcherAssert.assertThat;
+import static org.hamcrest.Matchers.equalTo;
+import static org.hamcrest.Matchers.is;
+
+@SpringBootTest(properties = {
+        "spring.datasource.url=jdbc:h2:mem:location-stock-lanes;DB_CLOSE_DELAY=-1",
+        "beerstock.stock-lanes.enabled=true"
+})
+public class LocationStockLanesTest {
+
+    private static final int WRITES = 100;
+
+    @Autowired
+    private BeerService beerService;
+
+    private BeerDTO beer;
+
+    @BeforeEach
+    void setUp() throws Exception {
+        beerService.deleteAllById(beerService.listAll().stream().map(BeerDTO::getId).collect(Collectors.toList()));
+        beer = beerService.createBeer(new BeerDTO(null, "Colorado", "Colorado", 1_000, 10, BeerType.IPA));
+    }
+
+    @Test
+    void whenLocationsAreAdjustedWhileLanesApplyIncrementsThenNoWriteFails() throws Exception {
+        // given
+        ExecutorService executor = Executors.newFixedThreadPool(2);
+        List<Future<?>> writers = new ArrayList<>();
+
+        // when
+        writers.add(executor.submit(() -> {
+            for (int i = 0; i < WRITES; i++) {
+                beerService.incrementAt(beer.getId(), "recife", 1);
+            }
+            return null;
+        }));
+        writers.add(executor.submit(() -> {
+            for (int i = 0; i < WRITES; i++) {
+                beerService.increment(beer.getId(), 1);
+            }
+            return null;
+        }));
+        for (Future<?> writer : writers) {
+            writer.get();
+        }
+        executor.shutdown();
+        executor.awaitTermination(10, TimeUnit.SECONDS);
+
+        // then
+        assertThat(beerService.findByName(beer.getName()).getQuantity(), is(equalTo(beer.getQuantity() + 2 * WRITES)));
+        assertThat(beerService.listLocations(beer.getId()).get(0).getQuantity(), is(equalTo(WRITES)));
+    }
+}
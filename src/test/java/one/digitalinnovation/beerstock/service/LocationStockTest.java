@@ -0,0 +1,164 @@
+package one.digitalinnovation.beerstock.service;
+
+import one.digitalinnovation.beerstock.dto.BeerDTO;
+import one.digitalinnovation.beerstock.dto.BeerStockDTO;
+import one.digitalinnovation.beerstock.enums.BeerType;
+import one.digitalinnovation.beerstock.exception.BeerAlreadyRegisteredException;
+import one.digitalinnovation.beerstock.exception.BeerNotFoundException;
+import one.digitalinnovation.beerstock.exception.BeerStockExceededException;
+import one.digitalinnovation.beerstock.repository.BeerRepository;
+import one.digitalinnovation.beerstock.repository.BeerStockRepository;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
+import java.util.stream.Collectors;
+
+import static org.hamcrest.MatcherAssert.assertThat;
+import static org.hamcrest.Matchers.contains;
+import static org.hamcrest.Matchers.equalTo;
+import static org.hamcrest.Matchers.everyItem;
+import static org.hamcrest.Matchers.is;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+
+@SpringBootTest(properties = "spring.datasource.url=jdbc:h2:mem:location-stock;DB_CLOSE_DELAY=-1")
+public class LocationStockTest {
+
+    private static final List<String> LOCATIONS = List.of("belo-horizonte", "curitiba", "recife", "sao-paulo");
+    private static final int INCREMENTS_PER_LOCATION = 50;
+
+    @Autowired
+    private BeerService beerService;
+
+    @Autowired
+    private BeerStockRepository beerStockRepository;
+
+    @Autowired
+    private BeerRepository beerRepository;
+
+    @Autowired
+    private TransactionTemplate transactionTemplate;
+
+    private BeerDTO beer;
+
+    @BeforeEach
+    void setUp() throws BeerAlreadyRegisteredException {
+        beerService.deleteAllById(beerService.listAll().stream().map(BeerDTO::getId).collect(Collectors.toList()));
+        beer = beerService.createBeer(new BeerDTO(null, "Colorado", "Colorado", 1_000, 10, BeerType.IPA));
+    }
+
+    @Test
+    void whenLocationsAreIncrementedConcurrentlyThenTheTotalMatchesTheirSum() throws Exception {
+        // given
+        ExecutorService executor = Executors.newFixedThreadPool(LOCATIONS.size());
+        List<Future<?>> writers = new ArrayList<>();
+
+        // when
+        for (String location : LOCATIONS) {
+            writers.add(executor.submit(() -> {
+                for (int i = 0; i < INCREMENTS_PER_LOCATION; i++) {
+                    beerService.incrementAt(beer.getId(), location, 1);
+                }
+                return null;
+            }));
+        }
+        for (Future<?> writer : writers) {
+            writer.get();
+        }
+        executor.shutdown();
+        executor.awaitTermination(10, TimeUnit.SECONDS);
+
+        // then
+        List<BeerStockDTO> locations = beerService.listLocations(beer.getId());
+        assertThat(locations.stream().map(BeerStockDTO::getLocation).collect(Collectors.toList()), contains(LOCATIONS.toArray()));
+        assertThat(locations.stream().map(BeerStockDTO::getQuantity).collect(Collectors.toList()), everyItem(is(INCREMENTS_PER_LOCATION)));
+        int expectedTotal = beer.getQuantity() + LOCATIONS.size() * INCREMENTS_PER_LOCATION;
+        assertThat(beerService.findByName(beer.getName()).getQuantity(), is(equalTo(expectedTotal)));
+        assertThat(locations.get(0).getTotalQuantity(), is(equalTo(expectedTotal)));
+    }
+
+    @Test
+    void whenAnotherLocationOfTheBeerIsBeingWrittenThenTheWriteWaitsForItToCommit() throws Exception {
+        // given
+        ExecutorService executor = Executors.newFixedThreadPool(2);
+        CountDownLatch locked = new CountDownLatch(1);
+        CountDownLatch release = new CountDownLatch(1);
+        Future<?> recifeWrite = executor.submit(() -> transactionTemplate.executeWithoutResult(status -> {
+            beerRepository.findByIdForUpdate(beer.getId());
+            locked.countDown();
+            try {
+                release.await(5, TimeUnit.SECONDS);
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+            }
+        }));
+        locked.await(5, TimeUnit.SECONDS);
+
+        // when
+        Future<BeerStockDTO> curitibaWrite = executor.submit(() -> beerService.incrementAt(beer.getId(), "curitiba", 1));
+
+        // then
+        assertThrows(TimeoutException.class, () -> curitibaWrite.get(200, TimeUnit.MILLISECONDS));
+        release.countDown();
+        recifeWrite.get(5, TimeUnit.SECONDS);
+        assertThat(curitibaWrite.get(5, TimeUnit.SECONDS).getQuantity(), is(equalTo(1)));
+        executor.shutdown();
+    }
+
+    @Test
+    void whenALocationHoldsTooFewUnitsThenNeitherItNorTheTotalChange() throws Exception {
+        // given
+        beerService.incrementAt(beer.getId(), "recife", 3);
+
+        // then
+        assertThrows(BeerStockExceededException.class, () -> beerService.decrementAt(beer.getId(), "recife", 4));
+        assertThat(beerService.listLocations(beer.getId()).get(0).getQuantity(), is(equalTo(3)));
+        assertThat(beerService.findByName(beer.getName()).getQuantity(), is(equalTo(beer.getQuantity() + 3)));
+    }
+
+    @Test
+    void whenAGlobalDecrementWouldTakeStockHeldAtLocationsThenItIsRejected() throws Exception {
+        // given
+        beerService.incrementAt(beer.getId(), "recife", 3);
+        int unassigned = beer.getQuantity();
+
+        // when
+        assertThrows(BeerStockExceededException.class, () -> beerService.decrement(beer.getId(), unassigned + 3));
+        beerService.decrement(beer.getId(), unassigned);
+        BeerStockDTO recife = beerService.decrementAt(beer.getId(), "recife", 3);
+
+        // then
+        assertThat(recife.getQuantity(), is(equalTo(0)));
+        assertThat(recife.getTotalQuantity(), is(equalTo(0)));
+    }
+
+    @Test
+    void whenTheTotalWouldExceedTheBeerMaxThenTheLocationIsNotIncremented() throws Exception {
+        // then
+        assertThrows(BeerStockExceededException.class, () -> beerService.incrementAt(beer.getId(), "recife", beer.getMax()));
+        assertThat(beerService.listLocations(beer.getId()).isEmpty(), is(true));
+    }
+
+    @Test
+    void whenTheBeerIsDeletedThenItsLocationsAreDeleted() throws Exception {
+        // given
+        beerService.incrementAt(beer.getId(), "recife", 3);
+
+        // when
+        beerService.deleteById(beer.getId());
+
+        // then
+        assertThrows(BeerNotFoundException.class, () -> beerService.listLocations(beer.getId()));
+        assertThat(beerStockRepository.findByBeerIdOrderByLocation(beer.getId()).isEmpty(), is(true));
+    }
+}
@@ -0,0 +1,104 @@
+package one.digitalinnovation.beerstock.service;
+
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Metrics;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.hamcrest.MatcherAssert.assertThat;
+import static org.hamcrest.Matchers.equalTo;
+import static org.hamcrest.Matchers.is;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+
+public class SingleFlightTest {
+
+    private static final int CALLERS = 8;
+
+    private final SimpleMeterRegistry meterRegistry = new SimpleMeterRegistry();
+
+    @BeforeEach
+    void setUp() {
+        Metrics.addRegistry(meterRegistry);
+    }
+
+    @AfterEach
+    void tearDown() {
+        Metrics.removeRegistry(meterRegistry);
+    }
+
+    @Test
+    void whenConcurrentCallersAskForTheSameKeyThenLoaderRunsOnce() throws Exception {
+        // given
+        SingleFlight<String, StringBuilder> singleFlight = new SingleFlight<>("single-flight-test", StringBuilder::new);
+        Counter coalesced = meterRegistry.get("beerstock.single.flight.requests")
+                .tags("name", "single-flight-test", "result", "coalesced")
+                .counter();
+        AtomicInteger loads = new AtomicInteger();
+        CountDownLatch release = new CountDownLatch(1);
+        ExecutorService executor = Executors.newFixedThreadPool(CALLERS);
+
+        // when
+        List<Future<StringBuilder>> results = new ArrayList<>();
+        for (int i = 0; i < CALLERS; i++) {
+            results.add(executor.submit(() -> singleFlight.execute("Brahma", () -> {
+                loads.incrementAndGet();
+                awaitQuietly(release);
+                return new StringBuilder("Brahma");
+            })));
+        }
+        awaitCount(coalesced, CALLERS - 1);
+        release.countDown();
+
+        // then
+        List<StringBuilder> values = new ArrayList<>();
+        for (Future<StringBuilder> result : results) {
+            values.add(result.get(5, TimeUnit.SECONDS));
+        }
+        executor.shutdown();
+
+        assertThat(loads.get(), is(equalTo(1)));
+        assertThat(values.stream().map(StringBuilder::toString).distinct().count(), is(equalTo(1L)));
+        assertThat(values.stream().map(System::identityHashCode).distinct().count(), is(equalTo((long) CALLERS)));
+    }
+
+    @Test
+    void whenLoaderFailsThenNextCallRunsItAgain() {
+        // given
+        SingleFlight<String, String> singleFlight = new SingleFlight<>("test", value -> value);
+
+        // when
+        assertThrows(IllegalStateException.class, () -> singleFlight.execute("Brahma", () -> {
+            throw new IllegalStateException();
+        }));
+
+        // then
+        assertThat(singleFlight.execute("Brahma", () -> "Brahma"), is(equalTo("Brahma")));
+    }
+
+    private static void awaitCount(Counter counter, int expected) throws InterruptedException {
+        long deadline = System.nanoTime() + TimeUnit.SECONDS.toNanos(5);
+        while (counter.count() < expected) {
+            assertThat("callers waiting on the load", System.nanoTime() < deadline, is(true));
+            TimeUnit.MILLISECONDS.sleep(1);
+        }
+    }
+
+    private static void awaitQuietly(CountDownLatch latch) {
+        try {
+            latch.await(5, TimeUnit.SECONDS);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+    }
+}
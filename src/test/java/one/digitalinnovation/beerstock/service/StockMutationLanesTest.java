@@ -0,0 +1,207 @@
+package one.digitalinnovation.beerstock.service;
+
+import one.digitalinnovation.beerstock.builder.BeerDTOBuilder;
+import one.digitalinnovation.beerstock.config.ChangeFeedProperties;
+import one.digitalinnovation.beerstock.config.StockLanesProperties;
+import one.digitalinnovation.beerstock.dto.BeerDTO;
+import one.digitalinnovation.beerstock.entity.Beer;
+import one.digitalinnovation.beerstock.exception.BeerNotFoundException;
+import one.digitalinnovation.beerstock.exception.BeerStockExceededException;
+import one.digitalinnovation.beerstock.mapper.BeerMapper;
+import one.digitalinnovation.beerstock.outbox.BeerOutbox;
+import one.digitalinnovation.beerstock.repository.BeerRepository;
+import one.digitalinnovation.beerstock.repository.BeerStockRepository;
+import one.digitalinnovation.beerstock.sharding.ShardRouter;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.orm.ObjectOptimisticLockingFailureException;
+import org.springframework.transaction.support.TransactionOperations;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Optional;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.TimeUnit;
+
+import static org.hamcrest.MatcherAssert.assertThat;
+import static org.hamcrest.Matchers.equalTo;
+import static org.hamcrest.Matchers.is;
+import static org.hamcrest.Matchers.sameInstance;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+@ExtendWith(MockitoExtension.class)
+public class StockMutationLanesTest {
+
+    private static final long INVALID_BEER_ID = 2L;
+
+    @Mock
+    private BeerRepository beerRepository;
+
+    @Mock
+    private BeerStockRepository beerStockRepository;
+
+    @Mock
+    private BeerOutbox beerOutbox;
+
+    private BeerMapper beerMapper = BeerMapper.INSTANCE;
+
+    private StockMutationLanes stockMutationLanes;
+
+    @BeforeEach
+    void setUp() {
+        StockLanesProperties properties = new StockLanesProperties();
+        properties.setEnabled(true);
+        properties.setLanes(4);
+        ShardRouter shardRouter = new ShardRouter(1, TransactionOperations.withoutTransaction());
+        stockMutationLanes = new StockMutationLanes(beerRepository, beerStockRepository, shardRouter, new ChangeSequencer(new ChangeFeedProperties()),
+                beerOutbox, event -> { }, properties);
+    }
+
+    @AfterEach
+    void tearDown() {
+        stockMutationLanes.shutdown();
+    }
+
+    @Test
+    void whenDeltasQueueWhileTheLaneIsBusyThenTheyAreWrittenInOneSave() throws Exception {
+        // given
+        BeerDTO beerDTO = BeerDTOBuilder.builder().quantity(0).max(500).build().toBeerDTO();
+        Beer beer = beerMapper.toModel(beerDTO);
+        CountDownLatch firstSaveStarted = new CountDownLatch(1);
+        CountDownLatch releaseFirstSave = new CountDownLatch(1);
+
+        // when
+        when(beerRepository.findByIdForUpdate(beerDTO.getId())).thenReturn(Optional.of(beer));
+        when(beerRepository.saveAndFlush(beer))
+                .thenAnswer(invocation -> {
+                    firstSaveStarted.countDown();
+                    assertThat(releaseFirstSave.await(5, TimeUnit.SECONDS), is(true));
+                    return beer;
+                })
+                .thenReturn(beer);
+
+        // then
+        List<CompletableFuture<BeerDTO>> results = new ArrayList<>();
+        results.add(stockMutationLanes.submit(beerDTO.getId(), 2));
+        assertThat(firstSaveStarted.await(5, TimeUnit.SECONDS), is(true));
+        for (int i = 0; i < 200; i++) {
+            results.add(stockMutationLanes.submit(beerDTO.getId(), 2));
+        }
+        for (int i = 0; i < 100; i++) {
+            results.add(stockMutationLanes.submit(beerDTO.getId(), -1));
+        }
+        releaseFirstSave.countDown();
+        CompletableFuture.allOf(results.toArray(new CompletableFuture[0])).get(5, TimeUnit.SECONDS);
+
+        assertThat(beer.getQuantity(), is(equalTo(302)));
+        verify(beerRepository, times(2)).saveAndFlush(beer);
+    }
+
+    @Test
+    void whenDeltaExceedsStockThenOnlyThatDeltaFails() throws Exception {
+        // given
+        BeerDTO beerDTO = BeerDTOBuilder.builder().build().toBeerDTO();
+        Beer beer = beerMapper.toModel(beerDTO);
+
+        // when
+        when(beerRepository.findByIdForUpdate(beerDTO.getId())).thenReturn(Optional.of(beer));
+
+        // then
+        assertThrows(BeerStockExceededException.class, () -> stockMutationLanes.apply(beerDTO.getId(), beerDTO.getMax() + 1));
+        BeerDTO incrementedBeerDTO = stockMutationLanes.apply(beerDTO.getId(), 5);
+
+        assertThat(incrementedBeerDTO.getQuantity(), is(equalTo(beerDTO.getQuantity() + 5)));
+    }
+
+    @Test
+    void whenAnotherWriterUpdatesTheBeerFirstThenTheBatchIsRetried() throws Exception {
+        // given
+        BeerDTO beerDTO = BeerDTOBuilder.builder().build().toBeerDTO();
+
+        // when
+        when(beerRepository.findByIdForUpdate(beerDTO.getId())).thenAnswer(invocation -> Optional.of(beerMapper.toModel(beerDTO)));
+        when(beerRepository.saveAndFlush(any(Beer.class)))
+                .thenThrow(new ObjectOptimisticLockingFailureException(Beer.class, beerDTO.getId()))
+                .thenAnswer(invocation -> invocation.getArgument(0));
+
+        // then
+        BeerDTO incrementedBeerDTO = stockMutationLanes.apply(beerDTO.getId(), 5);
+
+        assertThat(incrementedBeerDTO.getQuantity(), is(equalTo(beerDTO.getQuantity() + 5)));
+        verify(beerRepository, times(2)).findByIdForUpdate(beerDTO.getId());
+    }
+
+    @Test
+    void whenDecrementWouldTakeStockHeldAtLocationsThenItFails() throws Exception {
+        // given
+        BeerDTO beerDTO = BeerDTOBuilder.builder().quantity(13).build().toBeerDTO();
+        Beer beer = beerMapper.toModel(beerDTO);
+
+        // when
+        when(beerRepository.findByIdForUpdate(beerDTO.getId())).thenReturn(Optional.of(beer));
+        when(beerStockRepository.sumQuantityByBeerId(beerDTO.getId())).thenReturn(3L);
+
+        // then
+        assertThrows(BeerStockExceededException.class, () -> stockMutationLanes.apply(beerDTO.getId(), -13));
+        BeerDTO decrementedBeerDTO = stockMutationLanes.apply(beerDTO.getId(), -10);
+
+        assertThat(decrementedBeerDTO.getQuantity(), is(equalTo(3)));
+    }
+
+    @Test
+    void whenBatchFailsWithAnErrorThenItsDeltaFailsAndTheLaneKeepsRunning() throws Exception {
+        // given
+        BeerDTO beerDTO = BeerDTOBuilder.builder().build().toBeerDTO();
+        AssertionError failure = new AssertionError("boom");
+
+        // when
+        when(beerRepository.findByIdForUpdate(beerDTO.getId()))
+                .thenThrow(failure)
+                .thenAnswer(invocation -> Optional.of(beerMapper.toModel(beerDTO)));
+
+        // then
+        ExecutionException exception = assertThrows(ExecutionException.class,
+                () -> stockMutationLanes.submit(beerDTO.getId(), 5).get(5, TimeUnit.SECONDS));
+        BeerDTO incrementedBeerDTO = stockMutationLanes.submit(beerDTO.getId(), 5).get(5, TimeUnit.SECONDS);
+
+        assertThat(exception.getCause(), is(sameInstance(failure)));
+        assertThat(incrementedBeerDTO.getQuantity(), is(equalTo(beerDTO.getQuantity() + 5)));
+    }
+
+    @Test
+    void whenBatchFailsWithARuntimeExceptionThenApplyRethrowsIt() {
+        // given
+        BeerDTO beerDTO = BeerDTOBuilder.builder().build().toBeerDTO();
+        ObjectOptimisticLockingFailureException failure = new ObjectOptimisticLockingFailureException(Beer.class, beerDTO.getId());
+
+        // when
+        when(beerRepository.findByIdForUpdate(beerDTO.getId())).thenAnswer(invocation -> Optional.of(beerMapper.toModel(beerDTO)));
+        when(beerRepository.saveAndFlush(any(Beer.class))).thenThrow(failure);
+
+        // then
+        ObjectOptimisticLockingFailureException exception = assertThrows(ObjectOptimisticLockingFailureException.class,
+                () -> stockMutationLanes.apply(beerDTO.getId(), 5));
+        assertThat(exception, is(sameInstance(failure)));
+    }
+
+    @Test
+    void whenBeerDoesNotExistThenExceptionShouldBeThrown() {
+        // when
+        when(beerRepository.findByIdForUpdate(INVALID_BEER_ID)).thenReturn(Optional.empty());
+
+        // then
+        assertThrows(BeerNotFoundException.class, () -> stockMutationLanes.apply(INVALID_BEER_ID, 10));
+        verify(beerRepository, never()).saveAndFlush(any(Beer.class));
+    }
+}
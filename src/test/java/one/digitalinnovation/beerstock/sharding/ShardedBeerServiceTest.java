@@ -0,0 +1,108 @@
+package one.digitalinnovation.beerstock.sharding;
+
+import one.digitalinnovation.beerstock.dto.BeerChangesDTO;
+import one.digitalinnovation.beerstock.dto.BeerDTO;
+import one.digitalinnovation.beerstock.dto.BeerLookupResultDTO;
+import one.digitalinnovation.beerstock.enums.BeerType;
+import one.digitalinnovation.beerstock.exception.BeerAlreadyRegisteredException;
+import one.digitalinnovation.beerstock.exception.BeerNotFoundException;
+import one.digitalinnovation.beerstock.exception.BeerStockExceededException;
+import one.digitalinnovation.beerstock.service.BeerService;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.test.context.ActiveProfiles;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.stream.Collectors;
+
+import static org.hamcrest.MatcherAssert.assertThat;
+import static org.hamcrest.Matchers.containsInAnyOrder;
+import static org.hamcrest.Matchers.equalTo;
+import static org.hamcrest.Matchers.greaterThan;
+import static org.hamcrest.Matchers.hasItem;
+import static org.hamcrest.Matchers.is;
+import static org.hamcrest.Matchers.not;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+
+@SpringBootTest(properties = "beerstock.change-feed.safety-lag=PT0S")
+@ActiveProfiles("sharded")
+public class ShardedBeerServiceTest {
+
+    private static final int BEERS = 12;
+
+    @Autowired
+    private BeerService beerService;
+
+    @Autowired
+    private ShardRouter shardRouter;
+
+    @Autowired
+    private ShardRoutingDataSource shardRoutingDataSource;
+
+    private final List<BeerDTO> createdBeers = new ArrayList<>();
+
+    @BeforeEach
+    void setUp() throws BeerAlreadyRegisteredException {
+        beerService.deleteAllById(beerService.listAll().stream().map(BeerDTO::getId).collect(Collectors.toList()));
+        for (int i = 0; i < BEERS; i++) {
+            createdBeers.add(beerService.createBeer(new BeerDTO(null, "Beer " + i, "Brand " + i % 3, 100, 10, BeerType.LAGER)));
+        }
+    }
+
+    @Test
+    void whenBeersAreCreatedThenEachIsStoredOnlyOnTheShardItsIdPointsTo() {
+        // when
+        int shardsInUse = 0;
+        for (int shard = 0; shard < shardRouter.shardCount(); shard++) {
+            List<Long> idsOnShard = new JdbcTemplate(shardRoutingDataSource.getShards().get(shard))
+                    .queryForList("select id from beer", Long.class);
+            for (Long id : idsOnShard) {
+                assertThat(shardRouter.shardForId(id), is(equalTo(shard)));
+            }
+            shardsInUse += idsOnShard.isEmpty() ? 0 : 1;
+        }
+
+        // then
+        assertThat(shardRouter.shardCount(), is(equalTo(3)));
+        assertThat(shardsInUse, is(greaterThan(1)));
+        assertThat(beerService.listAll(), containsInAnyOrder(createdBeers.toArray()));
+    }
+
+    @Test
+    void whenBeersAreReadAndUpdatedThenTheOwningShardIsUsed() throws BeerNotFoundException, BeerStockExceededException {
+        // given
+        BeerDTO beer = createdBeers.get(5);
+
+        // when
+        BeerDTO incrementedBeer = beerService.increment(beer.getId(), 5);
+        BeerLookupResultDTO lookup = beerService.lookupByNames(List.of("Beer 1", "Beer 2", "Beer 3", "Unknown"));
+
+        // then
+        assertThat(incrementedBeer.getQuantity(), is(equalTo(15)));
+        assertThat(beerService.findByName(beer.getName()).getQuantity(), is(equalTo(15)));
+        assertThat(lookup.getBeers().size(), is(equalTo(3)));
+        assertThat(lookup.getNotFound(), is(equalTo(List.of("Unknown"))));
+        assertThrows(BeerAlreadyRegisteredException.class, () -> beerService.createBeer(beer));
+    }
+
+    @Test
+    void whenBeersAreDeletedThenChangesFromAllShardsAreMergedInOrder() throws Exception {
+        // given
+        long since = beerService.changesSince(0, 1000).getHighWaterMark();
+        BeerDTO deletedBeer = createdBeers.get(0);
+
+        // when
+        beerService.deleteById(deletedBeer.getId());
+        beerService.deleteAllById(List.of(createdBeers.get(1).getId(), createdBeers.get(2).getId()));
+
+        // then
+        BeerChangesDTO changes = beerService.changesSince(since, 1000);
+        assertThat(changes.getDeleted(), is(equalTo(List.of(deletedBeer.getId(), createdBeers.get(1).getId(), createdBeers.get(2).getId()))));
+        assertThat(beerService.listAll(), not(hasItem(deletedBeer)));
+        assertThat(beerService.listAll().size(), is(equalTo(BEERS - 3)));
+    }
+}
@@ -0,0 +1,166 @@
+package one.digitalinnovation.beerstock.snapshot;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import one.digitalinnovation.beerstock.builder.BeerDTOBuilder;
+import one.digitalinnovation.beerstock.cache.BeerInvalidation;
+import one.digitalinnovation.beerstock.cache.LoopbackInvalidationBus;
+import one.digitalinnovation.beerstock.config.CatalogSnapshotProperties;
+import one.digitalinnovation.beerstock.dto.BeerDTO;
+import one.digitalinnovation.beerstock.event.BeerChangedEvent;
+import one.digitalinnovation.beerstock.mapper.BeerMapper;
+import one.digitalinnovation.beerstock.repository.BeerRepository;
+import one.digitalinnovation.beerstock.sharding.ShardRouter;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.junit.jupiter.api.io.TempDir;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.core.io.Resource;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.ResponseEntity;
+import org.springframework.mock.web.MockHttpServletResponse;
+import org.springframework.transaction.support.TransactionOperations;
+
+import java.io.ByteArrayInputStream;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.time.Duration;
+import java.util.List;
+import java.util.zip.GZIPInputStream;
+
+import static org.hamcrest.MatcherAssert.assertThat;
+import static org.hamcrest.Matchers.equalTo;
+import static org.hamcrest.Matchers.is;
+import static org.hamcrest.Matchers.nullValue;
+import static org.mockito.Mockito.timeout;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+@ExtendWith(MockitoExtension.class)
+public class CatalogSnapshotBuilderTest {
+
+    @Mock
+    private BeerRepository beerRepository;
+
+    private final ObjectMapper objectMapper = new ObjectMapper();
+    private final CatalogSnapshotProperties properties = new CatalogSnapshotProperties();
+    private final LoopbackInvalidationBus invalidationBus = new LoopbackInvalidationBus();
+    private final BeerDTO brahma = BeerDTOBuilder.builder().build().toBeerDTO();
+    private final BeerDTO colorado = BeerDTOBuilder.builder().id(2L).name("Colorado").brand("Colorado").build().toBeerDTO();
+    private CatalogSnapshotBuilder catalogSnapshotBuilder;
+
+    @BeforeEach
+    void setUp() {
+        properties.setEnabled(true);
+        properties.setSettleDelay(Duration.ofHours(1));
+    }
+
+    @AfterEach
+    void tearDown() {
+        catalogSnapshotBuilder.shutdown();
+    }
+
+    @Test
+    void whenTheSnapshotIsBuiltThenItMatchesTheLiveRendering() throws Exception {
+        // given
+        givenCatalog();
+
+        // when
+        catalogSnapshotBuilder.rebuild();
+        MockHttpServletResponse response = write(null);
+
+        // then
+        assertThat(response.getContentAsString(), is(equalTo(objectMapper.writeValueAsString(List.of(brahma, colorado)))));
+        assertThat(response.getHeader(HttpHeaders.CONTENT_ENCODING), is(nullValue()));
+    }
+
+    @Test
+    void whenGzipIsAcceptedThenThePreCompressedBytesAreWritten() throws Exception {
+        // given
+        givenCatalog();
+
+        // when
+        catalogSnapshotBuilder.rebuild();
+        MockHttpServletResponse response = write("deflate, gzip;q=0.8");
+
+        // then
+        assertThat(response.getHeader(HttpHeaders.CONTENT_ENCODING), is(equalTo("gzip")));
+        byte[] json = new GZIPInputStream(new ByteArrayInputStream(response.getContentAsByteArray())).readAllBytes();
+        assertThat(json, is(equalTo(objectMapper.writeValueAsBytes(List.of(brahma, colorado)))));
+    }
+
+    @Test
+    void whenTheCatalogChangesThenTheSnapshotIsRetiredUntilRebuilt() {
+        // given
+        givenCatalog();
+        catalogSnapshotBuilder.rebuild();
+
+        // when
+        catalogSnapshotBuilder.onBeerChanged(BeerChangedEvent.deleted(colorado.getId()));
+
+        // then
+        assertThat(catalogSnapshotBuilder.current().isPresent(), is(false));
+        catalogSnapshotBuilder.rebuild();
+        assertThat(catalogSnapshotBuilder.current().isPresent(), is(true));
+    }
+
+    @Test
+    void whenAnotherNodeInvalidatesABeerThenTheSnapshotIsRetiredUntilRebuilt() {
+        // given
+        givenCatalog();
+        catalogSnapshotBuilder.rebuild();
+
+        // when
+        invalidationBus.publish(new BeerInvalidation(colorado.getId(), 1L));
+
+        // then
+        assertThat(catalogSnapshotBuilder.current().isPresent(), is(false));
+        catalogSnapshotBuilder.rebuild();
+        assertThat(catalogSnapshotBuilder.current().isPresent(), is(true));
+    }
+
+    @Test
+    void whenTheSnapshotReachesTheMaxAgeThenItIsRebuilt() {
+        // given
+        properties.setMaxAge(Duration.ofMillis(50));
+        givenCatalog();
+
+        // when
+        catalogSnapshotBuilder.rebuild();
+
+        // then
+        verify(beerRepository, timeout(5000).atLeast(2)).findAll();
+    }
+
+    @Test
+    void whenAMappedFileIsConfiguredThenTheSnapshotIsServedFromIt(@TempDir Path directory) throws Exception {
+        // given
+        Path catalogFile = directory.resolve("catalog.json");
+        properties.setMappedFile(catalogFile.toString());
+        givenCatalog();
+
+        // when
+        catalogSnapshotBuilder.rebuild();
+        MockHttpServletResponse response = write(null);
+
+        // then
+        assertThat(Files.readAllBytes(catalogFile), is(equalTo(response.getContentAsByteArray())));
+        assertThat(response.getContentAsString(), is(equalTo(objectMapper.writeValueAsString(List.of(brahma, colorado)))));
+    }
+
+    private void givenCatalog() {
+        catalogSnapshotBuilder = new CatalogSnapshotBuilder(properties, beerRepository,
+                new ShardRouter(1, TransactionOperations.withoutTransaction()), objectMapper, invalidationBus);
+        when(beerRepository.findAll()).thenReturn(List.of(BeerMapper.INSTANCE.toModel(colorado), BeerMapper.INSTANCE.toModel(brahma)));
+    }
+
+    private MockHttpServletResponse write(String acceptEncoding) throws Exception {
+        ResponseEntity<Resource> entity = catalogSnapshotBuilder.current().orElseThrow().toResponse(acceptEncoding);
+        MockHttpServletResponse response = new MockHttpServletResponse();
+        entity.getHeaders().forEach((name, values) -> values.forEach(value -> response.addHeader(name, value)));
+        response.getOutputStream().write(entity.getBody().getInputStream().readAllBytes());
+        return response;
+    }
+}
@@ -0,0 +1,107 @@
+package one.digitalinnovation.beerstock.stats;
+
+import one.digitalinnovation.beerstock.builder.BeerDTOBuilder;
+import one.digitalinnovation.beerstock.dto.BeerDTO;
+import one.digitalinnovation.beerstock.dto.InventoryAggregateDTO;
+import one.digitalinnovation.beerstock.dto.InventoryStatsDTO;
+import one.digitalinnovation.beerstock.enums.BeerType;
+import one.digitalinnovation.beerstock.event.BeerChangedEvent;
+import one.digitalinnovation.beerstock.repository.BeerRepository;
+import one.digitalinnovation.beerstock.sharding.ShardRouter;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.data.domain.Pageable;
+import org.springframework.transaction.support.TransactionOperations;
+
+import java.util.List;
+
+import static org.hamcrest.MatcherAssert.assertThat;
+import static org.hamcrest.Matchers.equalTo;
+import static org.hamcrest.Matchers.hasKey;
+import static org.hamcrest.Matchers.is;
+import static org.hamcrest.Matchers.not;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.when;
+
+@ExtendWith(MockitoExtension.class)
+public class InventoryStatisticsTest {
+
+    @Mock
+    private BeerRepository beerRepository;
+
+    private InventoryStatistics inventoryStatistics;
+
+    private final BeerDTO brahma = BeerDTOBuilder.builder().id(1L).name("Brahma").brand("Ambev").max(50).quantity(10).build().toBeerDTO();
+    private final BeerDTO colorado = BeerDTOBuilder.builder().id(2L).name("Colorado").brand("Colorado").max(20).quantity(5)
+            .type(BeerType.IPA).build().toBeerDTO();
+
+    @BeforeEach
+    void setUp() {
+        inventoryStatistics = new InventoryStatistics(beerRepository, new ShardRouter(1, TransactionOperations.withoutTransaction()));
+        inventoryStatistics.onBeerChanged(BeerChangedEvent.created(brahma, 0));
+        inventoryStatistics.onBeerChanged(BeerChangedEvent.created(colorado, 0));
+    }
+
+    @Test
+    void whenBeersAreCreatedThenTheyAreCountedPerTypeAndBrand() {
+        // when
+        InventoryStatsDTO stats = inventoryStatistics.snapshot();
+
+        // then
+        assertThat(stats.getTotal(), is(equalTo(new InventoryAggregateDTO(2, 15, 70, 15.0 / 70))));
+        assertThat(stats.getByType().get(BeerType.LAGER), is(equalTo(new InventoryAggregateDTO(1, 10, 50, 0.2))));
+        assertThat(stats.getByType().get(BeerType.IPA), is(equalTo(new InventoryAggregateDTO(1, 5, 20, 0.25))));
+        assertThat(stats.getByType().get(BeerType.STOUT), is(equalTo(new InventoryAggregateDTO(0, 0, 0, 0))));
+        assertThat(stats.getByBrand().get("Ambev"), is(equalTo(new InventoryAggregateDTO(1, 10, 50, 0.2))));
+    }
+
+    @Test
+    void whenStockChangesThenOnlyTheDifferenceIsApplied() {
+        // given
+        BeerDTO incremented = BeerDTOBuilder.builder().id(1L).name("Brahma").brand("Ambev").max(50).quantity(40).build().toBeerDTO();
+
+        // when
+        inventoryStatistics.onBeerChanged(BeerChangedEvent.updated(brahma, incremented, 1));
+        inventoryStatistics.onBeerChanged(BeerChangedEvent.updated(incremented, brahma, 0));
+
+        // then
+        InventoryStatsDTO stats = inventoryStatistics.snapshot();
+        assertThat(stats.getTotal().getUnits(), is(equalTo(45L)));
+        assertThat(stats.getByBrand().get("Ambev").getUnits(), is(equalTo(40L)));
+    }
+
+    @Test
+    void whenBeerIsDeletedThenItIsRemovedFromTheAggregates() {
+        // when
+        inventoryStatistics.onBeerChanged(BeerChangedEvent.deleted(colorado.getId()));
+
+        // then
+        InventoryStatsDTO stats = inventoryStatistics.snapshot();
+        assertThat(stats.getTotal(), is(equalTo(new InventoryAggregateDTO(1, 10, 50, 0.2))));
+        assertThat(stats.getByType().get(BeerType.IPA).getBeers(), is(equalTo(0L)));
+        assertThat(stats.getByBrand(), not(hasKey("Colorado")));
+    }
+
+    @Test
+    void whenAggregatesDriftFromTheDatabaseThenReconcileRepairsThem() {
+        // given
+        InventoryLevel storedBrahma = new InventoryLevel(brahma.getId(), brahma.getType(), brahma.getBrand(), 30, brahma.getMax(), 0);
+        InventoryLevel stout = new InventoryLevel(3L, BeerType.STOUT, "Diageo", 10, 10, 0);
+
+        // when
+        when(beerRepository.findInventoryLevelsAfter(eq(0L), any(Pageable.class))).thenReturn(List.of(storedBrahma, stout));
+        when(beerRepository.existsById(colorado.getId())).thenReturn(false);
+
+        // then
+        assertThat(inventoryStatistics.reconcile(), is(equalTo(3)));
+        InventoryStatsDTO stats = inventoryStatistics.snapshot();
+        assertThat(stats.getTotal(), is(equalTo(new InventoryAggregateDTO(2, 40, 60, 40.0 / 60))));
+        assertThat(stats.getByType().get(BeerType.IPA).getBeers(), is(equalTo(0L)));
+        assertThat(stats.getByBrand().get("Diageo").getUnits(), is(equalTo(10L)));
+        assertThat(inventoryStatistics.reconcile(), is(equalTo(0)));
+    }
+}